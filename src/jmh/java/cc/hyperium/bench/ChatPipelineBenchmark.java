@@ -0,0 +1,129 @@
+/*
+ *     Copyright (C) 2018  Hyperium <https://hyperium.cc/>
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published
+ *     by the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package cc.hyperium.bench;
+
+import cc.hyperium.mods.togglechat.toggles.ToggleBase;
+import cc.hyperium.mods.togglechat.toggles.ToggleBaseHandler;
+import cc.hyperium.utils.ChatColor;
+import cc.hyperium.utils.JsonHolder;
+import cc.hyperium.utils.chat.ChatClassification;
+import cc.hyperium.utils.chat.ChatClassifier;
+import cc.hyperium.utils.chat.ChatPattern;
+import com.google.gson.JsonParser;
+import net.minecraft.util.IChatComponent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the chat pipeline over the corpus bundled with {@link ChatReplay}. Every benchmark handles the
+ * whole corpus once, so divide by its size for the cost of a single message.
+ * <p>
+ * Run after changing chat_regex.json, a toggle or a chat handler to check nothing got slower.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChatPipelineBenchmark {
+
+    private ChatReplay replay;
+    private List<IChatComponent> corpus;
+    private List<ChatPattern> patterns;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        this.corpus = ChatReplay.loadCorpus((String) null);
+        this.replay = new ChatReplay(this.corpus, null);
+
+        // the same patterns the chat handlers and toggles use, registering them again just returns them
+        List<ChatPattern> patterns = new ArrayList<>();
+        JsonHolder regex = new JsonHolder(new JsonParser().parse(new InputStreamReader(
+            ChatPipelineBenchmark.class.getResourceAsStream("/remoteresources/chat_regex.json"), StandardCharsets.UTF_8)).getAsJsonObject());
+        for (String key : regex.getKeys()) {
+            patterns.add(ChatClassifier.INSTANCE.register(regex.optString(key)));
+        }
+        ToggleBaseHandler toggles = new ToggleBaseHandler();
+        toggles.remake();
+        for (Map.Entry<String, ToggleBase> toggle : toggles.getToggles().entrySet()) {
+            ChatPattern[] chatPatterns = toggle.getValue().getChatPatterns();
+            if (chatPatterns != null) {
+                Collections.addAll(patterns, chatPatterns);
+            }
+        }
+        this.patterns = patterns;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.replay.close();
+    }
+
+    /**
+     * Every chat subscriber, through the event bus
+     */
+    @Benchmark
+    public int replay() {
+        return this.replay.replay();
+    }
+
+    /**
+     * Classifying each message once, then only running the patterns it could match
+     */
+    @Benchmark
+    public void classified(Blackhole blackhole) {
+        for (IChatComponent message : this.corpus) {
+            ChatClassification classification = ChatClassifier.INSTANCE.classify(message);
+            for (ChatPattern pattern : this.patterns) {
+                blackhole.consume(classification.matches(pattern));
+            }
+        }
+    }
+
+    /**
+     * What every consumer did before the classifier: strip the message again and run each of its patterns
+     */
+    @Benchmark
+    public void everyPattern(Blackhole blackhole) {
+        for (IChatComponent message : this.corpus) {
+            for (ChatPattern pattern : this.patterns) {
+                String text = ChatColor.stripColor(message.getUnformattedText());
+                blackhole.consume(pattern.getPattern().matcher(text).matches());
+            }
+        }
+    }
+}
@@ -0,0 +1,360 @@
+/*
+ *     Copyright (C) 2018  Hyperium <https://hyperium.cc/>
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published
+ *     by the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package cc.hyperium.bench;
+
+import cc.hyperium.event.ChatEvent;
+import cc.hyperium.event.EventBus;
+import cc.hyperium.event.EventMetrics;
+import cc.hyperium.event.ServerChatEvent;
+import cc.hyperium.handlers.handlers.HypixelDetector;
+import cc.hyperium.handlers.handlers.LocationHandler;
+import cc.hyperium.handlers.handlers.chat.DMChatHandler;
+import cc.hyperium.handlers.handlers.chat.FriendRequestChatHandler;
+import cc.hyperium.handlers.handlers.chat.GeneralChatHandler;
+import cc.hyperium.handlers.handlers.chat.HyperiumChatHandler;
+import cc.hyperium.handlers.handlers.chat.PartyInviteChatHandler;
+import cc.hyperium.handlers.handlers.chat.QuestTrackingChatHandler;
+import cc.hyperium.handlers.handlers.chat.RankedRatingChatHandler;
+import cc.hyperium.handlers.handlers.chat.WinTrackingChatHandler;
+import cc.hyperium.mods.togglechat.ToggleChatEvents;
+import cc.hyperium.mods.togglechat.ToggleChatMod;
+import cc.hyperium.mods.togglechat.toggles.ToggleBase;
+import cc.hyperium.mods.togglechat.toggles.ToggleBaseHandler;
+import cc.hyperium.utils.JsonHolder;
+import cc.hyperium.utils.chat.ChatClassification;
+import net.minecraft.util.ChatComponentText;
+import net.minecraft.util.IChatComponent;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Replays a recorded chat log through the chat subscribers the client registers, without a Minecraft window.
+ * <p>
+ * Every message is posted as a {@link ServerChatEvent} and, unless that was cancelled, as a {@link ChatEvent},
+ * the same way the client does when a chat packet arrives. The subscribers are registered with the real
+ * {@link EventBus}, so its per-subscriber metrics report the time and allocation of each one, and the chat
+ * handlers behind the {@link GeneralChatHandler} are measured on their own.
+ * <p>
+ * Autotip isn't replayed, it can't start without signing in to its API.
+ *
+ * @see ChatPipelineBenchmark
+ */
+public class ChatReplay {
+
+    /**
+     * The corpus bundled with the benchmarks
+     */
+    public static final String DEFAULT_CORPUS = "/chat/corpus.txt";
+
+    private final List<IChatComponent> corpus;
+    private final List<Object> subscribers = new ArrayList<>();
+    private final List<MeasuredChatHandler> chatHandlers = new ArrayList<>();
+
+    /**
+     * @param corpus       the messages to replay
+     * @param hiddenToggles ids of the ToggleChat toggles which hide their messages ("all" for every one), null hides
+     *                      every toggle apart from the message separators
+     */
+    public ChatReplay(List<IChatComponent> corpus, Set<String> hiddenToggles) throws ReflectiveOperationException {
+        this.corpus = corpus;
+
+        // the location handler only reads chat while the detector thinks we're on Hypixel
+        HypixelDetector detector = new HypixelDetector();
+        setField(HypixelDetector.class, detector, "hypixel", true);
+        register(detector);
+        register(new LocationHandler());
+
+        ToggleBaseHandler toggles = new ToggleBaseHandler();
+        toggles.remake();
+        for (Map.Entry<String, ToggleBase> toggle : toggles.getToggles().entrySet()) {
+            String name = toggle.getKey();
+            boolean hidden = hiddenToggles == null ? !name.equals("separators") : hiddenToggles.contains("all") || hiddenToggles.contains(name);
+            // an enabled toggle lets its messages through
+            toggle.getValue().setEnabled(!hidden);
+        }
+        // ToggleChatMod#init needs a running client to register its command, so only its toggles are set up
+        ToggleChatMod toggleChat = new ToggleChatMod();
+        setField(ToggleChatMod.class, toggleChat, "toggleHandler", toggles);
+        register(new ToggleChatEvents(toggleChat));
+
+        // same order as HyperiumHandlers
+        List<HyperiumChatHandler> handlerList = new ArrayList<>();
+        for (HyperiumChatHandler handler : Arrays.asList(new RankedRatingChatHandler(), new DMChatHandler(),
+            new QuestTrackingChatHandler(), new WinTrackingChatHandler(), new FriendRequestChatHandler(), new PartyInviteChatHandler())) {
+            MeasuredChatHandler measured = new MeasuredChatHandler(handler);
+            this.chatHandlers.add(measured);
+            handlerList.add(measured);
+        }
+        GeneralChatHandler general = new GeneralChatHandler(handlerList);
+        register(general);
+        general.post();
+    }
+
+    /**
+     * Posts every message of the corpus once
+     *
+     * @return how many messages were hidden by a subscriber
+     */
+    public int replay() {
+        int hidden = 0;
+        for (IChatComponent message : this.corpus) {
+            ServerChatEvent serverEvent = new ServerChatEvent((byte) 0, message);
+            EventBus.INSTANCE.post(serverEvent);
+            if (serverEvent.isCancelled()) {
+                hidden++;
+                continue;
+            }
+
+            ChatEvent chatEvent = new ChatEvent(serverEvent.getChat());
+            EventBus.INSTANCE.post(chatEvent);
+            if (chatEvent.isCancelled()) {
+                hidden++;
+            }
+        }
+        return hidden;
+    }
+
+    public List<IChatComponent> getCorpus() {
+        return this.corpus;
+    }
+
+    /**
+     * @return the chat handlers called by the {@link GeneralChatHandler}, with their timings
+     */
+    public List<MeasuredChatHandler> getChatHandlers() {
+        return Collections.unmodifiableList(this.chatHandlers);
+    }
+
+    /**
+     * Clears the timings of the chat handlers
+     */
+    public void reset() {
+        for (MeasuredChatHandler handler : this.chatHandlers) {
+            handler.reset();
+        }
+    }
+
+    /**
+     * Unregisters every subscriber this replay registered
+     */
+    public void close() {
+        for (Object subscriber : this.subscribers) {
+            EventBus.INSTANCE.unregister(subscriber);
+        }
+        this.subscribers.clear();
+    }
+
+    private void register(Object subscriber) {
+        EventBus.INSTANCE.register(subscriber);
+        this.subscribers.add(subscriber);
+    }
+
+    private static void setField(Class<?> owner, Object instance, String name, Object value) throws ReflectiveOperationException {
+        Field field = owner.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(instance, value);
+    }
+
+    /**
+     * Reads a corpus, one message per line. Lines starting with # are skipped and a literal \n becomes a line break
+     *
+     * @param in the corpus, closed once it has been read
+     * @return the messages
+     * @throws IOException if the corpus couldn't be read
+     */
+    public static List<IChatComponent> loadCorpus(InputStream in) throws IOException {
+        List<IChatComponent> corpus = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                corpus.add(new ChatComponentText(line.replace("\\n", "\n")));
+            }
+        }
+        return corpus;
+    }
+
+    /**
+     * @param path a file, or null for the corpus bundled with the benchmarks
+     */
+    public static List<IChatComponent> loadCorpus(String path) throws IOException {
+        InputStream in = path == null ? ChatReplay.class.getResourceAsStream(DEFAULT_CORPUS) : new FileInputStream(new File(path));
+        if (in == null) {
+            throw new IOException("Couldn't find " + DEFAULT_CORPUS + " on the classpath");
+        }
+        return loadCorpus(in);
+    }
+
+    /**
+     * Replays a corpus and prints messages per second along with the cost of every subscriber.
+     * <p>
+     * Arguments: [corpus file] [rounds]. System property replay.toggles takes a comma separated list of toggle ids
+     * to hide, "all" or "none".
+     */
+    public static void main(String[] args) throws Exception {
+        List<IChatComponent> corpus = loadCorpus(args.length > 0 && !args[0].isEmpty() ? args[0] : null);
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+
+        String toggles = System.getProperty("replay.toggles");
+        Set<String> hiddenToggles = toggles == null ? null : new HashSet<>(Arrays.asList(toggles.split(",")));
+
+        ChatReplay replay = new ChatReplay(corpus, hiddenToggles);
+
+        // warm up without metrics so the first rounds don't skew the subscriber timings
+        for (int i = 0; i < Math.max(1, rounds / 10); i++) {
+            replay.replay();
+        }
+        replay.reset();
+        EventBus.INSTANCE.getMetrics().reset();
+
+        EventBus.INSTANCE.setMetricsEnabled(true);
+        int hidden = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            hidden += replay.replay();
+        }
+        long nanos = System.nanoTime() - start;
+        EventBus.INSTANCE.setMetricsEnabled(false);
+
+        long messages = (long) corpus.size() * rounds;
+        System.out.printf("Replayed %d messages (%d x %d rounds) in %d ms, %.0f messages/sec, %d hidden%n",
+            messages, corpus.size(), rounds, nanos / 1_000_000, messages * 1e9 / nanos, hidden);
+        System.out.println("(timings below are taken with metrics on, which adds some overhead per call)");
+
+        System.out.println();
+        System.out.printf("%-60s %12s %10s %12s %8s%n", "subscriber", "calls", "mean ns", "alloc B/call", "errors");
+        for (EventMetrics.Entry entry : EventBus.INSTANCE.getMetrics().getEntries()) {
+            String name = entry.getEventName() + " " + entry.getSubscriberName() + "#" + entry.getMethodName();
+            System.out.printf("%-60s %12d %10d %12d %8d%n", name, entry.getInvocations(), entry.getMeanNanos(),
+                entry.getInvocations() == 0 ? 0 : entry.getAllocatedBytes() / entry.getInvocations(), entry.getExceptions());
+        }
+
+        System.out.println();
+        System.out.printf("%-60s %12s %10s %12s %8s%n", "chat handler", "calls", "mean ns", "alloc B/call", "errors");
+        for (MeasuredChatHandler handler : replay.getChatHandlers()) {
+            System.out.printf("%-60s %12d %10d %12d %8d%n", handler.getName(), handler.getCalls(), handler.getMeanNanos(),
+                handler.getCalls() == 0 ? 0 : handler.getAllocatedBytes() / handler.getCalls(), handler.getErrors());
+        }
+
+        File csv = new File("chat-replay.csv");
+        EventBus.INSTANCE.getMetrics().writeCsv(csv);
+        System.out.println();
+        System.out.println("Subscriber metrics written to " + csv.getAbsolutePath());
+
+        replay.close();
+        System.exit(0);
+    }
+
+    /**
+     * Times a chat handler. Some handlers reach for the player when their message matches, which isn't there
+     * while replaying, so exceptions are counted instead of being printed for every message
+     */
+    public static final class MeasuredChatHandler extends HyperiumChatHandler {
+
+        private static final com.sun.management.ThreadMXBean ALLOCATION = findAllocationBean();
+
+        private final HyperiumChatHandler handler;
+        private long calls;
+        private long nanos;
+        private long allocated;
+        private long errors;
+
+        MeasuredChatHandler(HyperiumChatHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public boolean chatReceived(IChatComponent component, ChatClassification classification) {
+            long allocatedBefore = allocatedBytes();
+            long start = System.nanoTime();
+            boolean result = true;
+            try {
+                result = this.handler.chatReceived(component, classification);
+            } catch (Exception e) {
+                // like the GeneralChatHandler, a failing handler doesn't decide whether the message is hidden
+                this.errors++;
+            }
+            this.nanos += System.nanoTime() - start;
+            this.allocated += allocatedBytes() - allocatedBefore;
+            this.calls++;
+            return result;
+        }
+
+        @Override
+        public void callback(JsonHolder data) {
+            this.handler.callback(data);
+        }
+
+        public String getName() {
+            return this.handler.getClass().getSimpleName();
+        }
+
+        public long getCalls() {
+            return this.calls;
+        }
+
+        public long getMeanNanos() {
+            return this.calls == 0 ? 0 : this.nanos / this.calls;
+        }
+
+        public long getAllocatedBytes() {
+            return this.allocated;
+        }
+
+        public long getErrors() {
+            return this.errors;
+        }
+
+        void reset() {
+            this.calls = this.nanos = this.allocated = this.errors = 0;
+        }
+
+        private static long allocatedBytes() {
+            return ALLOCATION == null ? 0 : ALLOCATION.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+
+        private static com.sun.management.ThreadMXBean findAllocationBean() {
+            try {
+                java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+                if (bean instanceof com.sun.management.ThreadMXBean && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+                    ((com.sun.management.ThreadMXBean) bean).setThreadAllocatedMemoryEnabled(true);
+                    return (com.sun.management.ThreadMXBean) bean;
+                }
+            } catch (Throwable ignored) {
+                // not a HotSpot JVM, allocation will be reported as 0
+            }
+            return null;
+        }
+    }
+}
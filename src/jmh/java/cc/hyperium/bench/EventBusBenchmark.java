@@ -0,0 +1,159 @@
+/*
+ *     Copyright (C) 2018  Hyperium <https://hyperium.cc/>
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published
+ *     by the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package cc.hyperium.bench;
+
+import cc.hyperium.event.EventBus;
+import cc.hyperium.event.EventSubscriber;
+import cc.hyperium.event.InvokeEvent;
+import cc.hyperium.event.Priority;
+import cc.hyperium.event.TickEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of calling a subscriber through its generated invoker compared to {@link Method#invoke(Object, Object...)},
+ * which is what every post used to do, and of a whole post to a bus with a few subscribers.
+ * <p>
+ * The <code>dispatch</code> benchmarks post {@value #POSTS} events to {@value #SUBSCRIBERS} subscribers, once
+ * through the old reflective loop and once through the invokers, and report the time per event.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventBusBenchmark {
+
+    private static final int POSTS = 10_000;
+    private static final int SUBSCRIBERS = 50;
+
+    private final TickEvent event = new TickEvent();
+    private final Listener listener = new Listener();
+    private Method method;
+    private EventSubscriber subscriber;
+    private EventBus bus;
+    private EventSubscriber[] subscribers;
+    private EventBus largeBus;
+
+    @Setup
+    public void setUp() throws Exception {
+        this.method = Listener.class.getMethod("onTick", TickEvent.class);
+        this.subscriber = new EventSubscriber(this.listener, this.method, Priority.NORMAL);
+
+        this.bus = new EventBus();
+        for (int i = 0; i < 8; i++) {
+            this.bus.register(new Listener());
+        }
+
+        Priority[] priorities = Priority.values();
+        this.subscribers = new EventSubscriber[SUBSCRIBERS];
+        this.largeBus = new EventBus();
+        for (int i = 0; i < SUBSCRIBERS; i++) {
+            Listener listener = new Listener();
+            this.subscribers[i] = new EventSubscriber(listener, this.method, priorities[i % priorities.length]);
+            this.largeBus.register(listener);
+        }
+        Arrays.sort(this.subscribers, Comparator.comparingInt(a -> a.getPriority().value));
+    }
+
+    @Benchmark
+    public int invoker() throws Throwable {
+        this.subscriber.invoke(this.event);
+        return this.listener.calls;
+    }
+
+    @Benchmark
+    public int reflection() throws Exception {
+        this.method.invoke(this.listener, this.event);
+        return this.listener.calls;
+    }
+
+    @Benchmark
+    public void post() {
+        this.bus.post(this.event);
+    }
+
+    /**
+     * The loop every post used to run, {@link Method#invoke(Object, Object...)} on each subscriber in priority order
+     */
+    @Benchmark
+    @OperationsPerInvocation(POSTS)
+    public void dispatchReflective() {
+        for (int i = 0; i < POSTS; i++) {
+            for (EventSubscriber subscriber : this.subscribers) {
+                try {
+                    subscriber.getMethod().invoke(subscriber.getInstance(), this.event);
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    /**
+     * The same loop through the generated invokers
+     */
+    @Benchmark
+    @OperationsPerInvocation(POSTS)
+    public void dispatchInvoker() {
+        for (int i = 0; i < POSTS; i++) {
+            for (EventSubscriber subscriber : this.subscribers) {
+                try {
+                    subscriber.invoke(this.event);
+                } catch (Throwable t) {
+                    t.printStackTrace();
+                }
+            }
+        }
+    }
+
+    /**
+     * Whole posts to a bus with as many subscribers, cancellation and metrics checks included
+     */
+    @Benchmark
+    @OperationsPerInvocation(POSTS)
+    public void dispatchBus() {
+        for (int i = 0; i < POSTS; i++) {
+            this.largeBus.post(this.event);
+        }
+    }
+
+    public static class Listener {
+
+        private int calls;
+
+        @InvokeEvent
+        public void onTick(TickEvent event) {
+            this.calls++;
+        }
+    }
+}
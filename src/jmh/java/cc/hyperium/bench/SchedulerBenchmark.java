@@ -0,0 +1,69 @@
+/*
+ *     Copyright (C) 2018  Hyperium <https://hyperium.cc/>
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published
+ *     by the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package cc.hyperium.bench;
+
+import cc.hyperium.utils.HyperiumScheduler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a single scheduler tick while lots of tasks are pending. The tasks repeat, so the amount pending
+ * doesn't change however long the benchmark runs.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SchedulerBenchmark {
+
+    @Param({"1000", "100000"})
+    public int pending;
+
+    private HyperiumScheduler scheduler;
+    private int runs;
+
+    @Setup
+    public void setUp() {
+        this.scheduler = new HyperiumScheduler();
+        Random random = new Random(0);
+        Runnable task = () -> this.runs++;
+        for (int i = 0; i < this.pending; i++) {
+            // anything from a second to five minutes, like the tasks the client schedules
+            this.scheduler.scheduleRepeating(random.nextInt(6000), 20 + random.nextInt(5980), task);
+        }
+    }
+
+    @Benchmark
+    public int tick() {
+        this.scheduler.tick(null);
+        return this.runs;
+    }
+}
@@ -27,6 +27,7 @@ import cc.hyperium.commands.defaults.CommandDebug;
 import cc.hyperium.commands.defaults.CommandDisableCommand;
 import cc.hyperium.commands.defaults.CommandGarbageCollect;
 import cc.hyperium.commands.defaults.CommandGuild;
+import cc.hyperium.commands.defaults.CommandHyperium;
 import cc.hyperium.commands.defaults.CommandKeybinds;
 import cc.hyperium.commands.defaults.CommandLogs;
 import cc.hyperium.commands.defaults.CommandMessage;
@@ -74,12 +75,15 @@ import cc.hyperium.network.LoginReplyHandler;
 import cc.hyperium.network.NetworkHandler;
 import cc.hyperium.purchases.PurchaseApi;
 import cc.hyperium.tray.TrayManager;
+import cc.hyperium.utils.ChromaColors;
 import cc.hyperium.utils.HyperiumScheduler;
 import cc.hyperium.utils.LaunchUtil;
+import cc.hyperium.utils.PlayerDataStore;
 import cc.hyperium.utils.StaffUtils;
 import cc.hyperium.utils.UpdateUtils;
 import cc.hyperium.utils.mods.CompactChat;
 import cc.hyperium.utils.mods.FPSLimiter;
+import cc.hyperium.utils.threading.StartupGraph;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.resources.I18n;
 import net.minecraft.crash.CrashReport;
@@ -145,6 +149,7 @@ public class Hyperium {
     private NetworkHandler networkHandler;
     private boolean firstLaunch = false;
     private HyperiumScheduler scheduler;
+    private StartupGraph startup;
 
     @InvokeEvent
     public void preinit(PreInitializationEvent event) {
@@ -169,87 +174,87 @@ public class Hyperium {
                 UniversalNetty.getInstance().getPacketManager().register(new LoginReplyHandler());
             });
             Multithreading.runAsync(() -> new PlayerStatsGui(null)); // Don't remove, we need to generate some stuff with Gl context
-            notification = new NotificationCenter();
-            scheduler = new HyperiumScheduler();
-            InputStream resourceAsStream = getClass().getResourceAsStream("/build.txt");
-            try {
-                if (resourceAsStream != null) {
-                    BufferedReader br = new BufferedReader(new InputStreamReader(resourceAsStream));
-                    BUILD_ID = Integer.valueOf(br.readLine());
-                    br.close();
-                }
-            } catch (Exception e) {
-                e.printStackTrace();
-            }
-
-            System.out.println("[VERSION] Hyperium build ID: " + BUILD_ID);
-
-            try {
-                Class.forName("net.minecraft.dispenser.BehaviorProjectileDispense"); // check for random MC class
-                isDevEnv = true;
-            } catch (ClassNotFoundException e) {
-                isDevEnv = false;
-            }
-
-            cosmetics = new HyperiumCosmetics();
 
-            // Creates the accounts dir
-            firstLaunch = new File(folder.getAbsolutePath() + "/accounts").mkdirs();
-            new ChargebackStopper();
-
-            // Has the user accepted the TOS of the client?
-            this.acceptedTos = new File(
-                folder.getAbsolutePath() + "/accounts/" + Minecraft.getMinecraft().getSession()
-                    .getPlayerID() + ".lck").exists();
-
-            SplashProgress.setProgress(5, I18n.format("splashprogress.loadinghandlers"));
-            handlers = new HyperiumHandlers();
-            handlers.postInit();
-
-            SplashProgress.setProgress(6, I18n.format("splashprogress.registeringlisteners"));
-            minigameListener = new MinigameListener();
-            EventBus.INSTANCE.register(minigameListener);
-            EventBus.INSTANCE.register(new ToggleSprintContainer());
-            EventBus.INSTANCE.register(notification);
-
-            EventBus.INSTANCE.register(CompactChat.getInstance());
-            EventBus.INSTANCE.register(CONFIG.register(FPSLimiter.getInstance()));
-            EventBus.INSTANCE.register(confirmation);
-            EventBus.INSTANCE.register(new BlurHandler());
-            EventBus.INSTANCE.register(new CommandUpdate());
-            EventBus.INSTANCE.register(new ThankWatchdog());
+            // Independent tasks run side by side, the report shows which ones held startup up
+            startup = new StartupGraph()
+                .add("build-info", null, false, this::loadBuildInfo)
+                .add("accounts", null, false, () -> {
+                    // Creates the accounts dir
+                    firstLaunch = new File(folder.getAbsolutePath() + "/accounts").mkdirs();
+                    new ChargebackStopper();
+
+                    // Has the user accepted the TOS of the client?
+                    this.acceptedTos = new File(
+                        folder.getAbsolutePath() + "/accounts/" + Minecraft.getMinecraft().getSession()
+                            .getPlayerID() + ".lck").exists();
+                })
+                .add("settings", I18n.format("splashprogress.registeringconfiguration"), false, () -> {
+                    // instance does not need to be saved as shit is static ^.^
+                    Settings.register();
+                    Hyperium.CONFIG.register(new ColourOptions());
+                })
+                .add("notifications", null, true, () -> {
+                    notification = new NotificationCenter();
+                    scheduler = new HyperiumScheduler();
+                })
+                // both read isDevEnv, which build-info sets
+                .add("cosmetics", null, true, () -> cosmetics = new HyperiumCosmetics(), "build-info")
+                .add("handlers", I18n.format("splashprogress.loadinghandlers"), true, () -> {
+                    handlers = new HyperiumHandlers();
+                    handlers.postInit();
+                }, "settings", "build-info")
+                .add("listeners", I18n.format("splashprogress.registeringlisteners"), true,
+                    this::registerListeners, "handlers", "notifications")
+                .add("tray", I18n.format("splashprogress.initializingtrayicon"), false, () -> {
+                    TrayManager trayManager = new TrayManager();
+                    try {
+                        trayManager.init();
+                    } catch (Exception e) {
+                        e.printStackTrace();
+                        LOGGER.warn("[Tray] Failed to hookup TrayIcon");
+                    }
+                })
+                .add("commands", I18n.format("splashprogress.registeringcommands"), false, () -> {
+                    //Register commands.
+                    registerCommands();
+                    EventBus.INSTANCE.register(PurchaseApi.getInstance());
+                }, "handlers")
+                .add("integrations", I18n.format("splashprogress.loadingintegrations"), true, () -> {
+                    modIntegration = new HyperiumModIntegration();
+                    internalAddons = new InternalAddons();
+                }, "commands")
+                .add("discord", null, false, richPresenceManager::load, "settings")
+                .add("sk1ermod", null, false, () -> {
+                    if (acceptedTos) {
+                        sk1erMod = new Sk1erMod("hyperium", Metadata.getVersion(), object -> {
+                            //Callback
+                            if (object.has("enabled") && !object.optBoolean("enabled")) {
+                                //Disable stuff
+                                getHandlers().getHyperiumCommandHandler().clear();
+                            }
+                        });
+                        sk1erMod.checkStatus();
+                    }
+                }, "accounts", "commands")
+                .add("resources", I18n.format("splashprogress.reloadingresourcemanager"), true,
+                    () -> Minecraft.getMinecraft().refreshResources(), "integrations", "cosmetics", "listeners")
+                .add("fonts", I18n.format("splashprogress.finishing"), true, this::loadFontsAndChat);
+            SplashProgress.STARTUP = startup;
+            startup.run();
 
-            // Register statistics tracking.
-            EventBus.INSTANCE.register(statTrack);
-            CONFIG.register(statTrack);
-            CONFIG.register(new ToggleSprintContainer());
+            Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown));
 
-            SplashProgress.setProgress(7, I18n.format("splashprogress.startinghyperium"));
             LOGGER.info("[Hyperium] Started!");
-            Display.setTitle("Hyperium " + Metadata.getVersion());
-
-            TrayManager trayManager = new TrayManager();
-
-            SplashProgress.setProgress(8, I18n.format("splashprogress.initializingtrayicon"));
-            try {
-                trayManager.init();
-            } catch (Exception e) {
-                e.printStackTrace();
-                LOGGER.warn("[Tray] Failed to hookup TrayIcon");
+            for (String line : startup.getReport()) {
+                LOGGER.info("[Startup] " + line);
             }
-
-            // instance does not need to be saved as shit is static ^.^
-            SplashProgress.setProgress(9, I18n.format("splashprogress.registeringconfiguration"));
-            Settings.register();
-            Hyperium.CONFIG.register(new ColourOptions());
-            //Register commands.
-            SplashProgress.setProgress(10, I18n.format("splashprogress.registeringcommands"));
-            registerCommands();
-            EventBus.INSTANCE.register(PurchaseApi.getInstance());
-
-            SplashProgress.setProgress(11, I18n.format("splashprogress.loadingintegrations"));
-            modIntegration = new HyperiumModIntegration();
-            internalAddons = new InternalAddons();
+            Multithreading.runDisk(() -> {
+                try {
+                    startup.writeReport(new File(folder, "logs"));
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            });
 
             Multithreading.runAsync(() -> {
                 try {
@@ -263,68 +268,94 @@ public class Hyperium {
 
             //Multithreading.runAsync(Spotify::load);
 
-            Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown));
-
-            richPresenceManager.load();
+            Multithreading.runAsync(() -> {
+                isLatestVersion = UpdateUtils.INSTANCE.isAbsoluteLatest();
+                IS_BETA = UpdateUtils.INSTANCE.isBeta();
+            });
+        } catch (Throwable t) {
+            Minecraft.getMinecraft().crashed(new CrashReport("Hyperium Startup Failure", t));
+        }
+    }
 
-            if (acceptedTos) {
-                sk1erMod = new Sk1erMod("hyperium", Metadata.getVersion(), object -> {
-                    //Callback
-                    if (object.has("enabled") && !object.optBoolean("enabled")) {
-                        //Disable stuff
-                        getHandlers().getHyperiumCommandHandler().clear();
-                    }
-                });
-                sk1erMod.checkStatus();
+    private void loadBuildInfo() {
+        InputStream resourceAsStream = getClass().getResourceAsStream("/build.txt");
+        try {
+            if (resourceAsStream != null) {
+                BufferedReader br = new BufferedReader(new InputStreamReader(resourceAsStream));
+                BUILD_ID = Integer.valueOf(br.readLine());
+                br.close();
             }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
 
-            SplashProgress.setProgress(12, I18n.format("splashprogress.reloadingresourcemanager"));
+        System.out.println("[VERSION] Hyperium build ID: " + BUILD_ID);
 
-            Minecraft.getMinecraft().refreshResources();
+        try {
+            Class.forName("net.minecraft.dispenser.BehaviorProjectileDispense"); // check for random MC class
+            isDevEnv = true;
+        } catch (ClassNotFoundException e) {
+            isDevEnv = false;
+        }
 
-            SplashProgress.setProgress(13, I18n.format("splashprogress.finishing"));
+        // Check if OptiFine is installed.
+        try {
+            Class.forName("optifine.OptiFineTweaker");
+            optifineInstalled = true;
+            System.out.println("Optifine is currently installed.");
+        } catch (ClassNotFoundException e) {
+            optifineInstalled = false;
+        }
+    }
 
-            if (FontFixValues.INSTANCE == null) {
-                FontFixValues.INSTANCE = new FontFixValues();
-            }
+    private void registerListeners() {
+        minigameListener = new MinigameListener();
+        EventBus.INSTANCE.register(minigameListener);
+        EventBus.INSTANCE.register(new ToggleSprintContainer());
+        EventBus.INSTANCE.register(notification);
+
+        EventBus.INSTANCE.register(CompactChat.getInstance());
+        EventBus.INSTANCE.register(CONFIG.register(FPSLimiter.getInstance()));
+        EventBus.INSTANCE.register(confirmation);
+        EventBus.INSTANCE.register(new BlurHandler());
+        EventBus.INSTANCE.register(new CommandUpdate());
+        EventBus.INSTANCE.register(new ThankWatchdog());
+        EventBus.INSTANCE.register(ChromaColors.INSTANCE);
+
+        // Register statistics tracking.
+        EventBus.INSTANCE.register(statTrack);
+        CONFIG.register(statTrack);
+        CONFIG.register(new ToggleSprintContainer());
+
+        Display.setTitle("Hyperium " + Metadata.getVersion());
+    }
 
-            Multithreading.runAsync(() -> {
-                EventBus.INSTANCE.register(FontFixValues.INSTANCE);
-                if (Settings.PERSISTENT_CHAT) {
-                    File file = new File(folder, "chat.txt");
-
-                    if (file.exists()) {
-                        try {
-                            FileReader fr = new FileReader(file);
-                            BufferedReader bufferedReader = new BufferedReader(fr);
-                            String line;
-                            while ((line = bufferedReader.readLine()) != null) {
-                                Minecraft.getMinecraft().ingameGUI.getChatGUI().addToSentMessages(line);
-                            }
-                        } catch (Exception e) {
-                            e.printStackTrace();
+    private void loadFontsAndChat() {
+        if (FontFixValues.INSTANCE == null) {
+            FontFixValues.INSTANCE = new FontFixValues();
+        }
+
+        Multithreading.runDisk(() -> {
+            EventBus.INSTANCE.register(FontFixValues.INSTANCE);
+            if (Settings.PERSISTENT_CHAT) {
+                File file = new File(folder, "chat.txt");
+
+                if (file.exists()) {
+                    try {
+                        FileReader fr = new FileReader(file);
+                        BufferedReader bufferedReader = new BufferedReader(fr);
+                        String line;
+                        while ((line = bufferedReader.readLine()) != null) {
+                            Minecraft.getMinecraft().ingameGUI.getChatGUI().addToSentMessages(line);
                         }
+                    } catch (Exception e) {
+                        e.printStackTrace();
                     }
-                } else {
-                    System.out.println("[Chat Handler] chat.txt not found, not restoring chat");
                 }
-            });
-
-            Multithreading.runAsync(() -> {
-                isLatestVersion = UpdateUtils.INSTANCE.isAbsoluteLatest();
-                IS_BETA = UpdateUtils.INSTANCE.isBeta();
-            });
-            // Check if OptiFine is installed.
-            try {
-                Class.forName("optifine.OptiFineTweaker");
-                optifineInstalled = true;
-                System.out.println("Optifine is currently installed.");
-            } catch (ClassNotFoundException e) {
-                optifineInstalled = false;
+            } else {
+                System.out.println("[Chat Handler] chat.txt not found, not restoring chat");
             }
-        } catch (Throwable t) {
-            Minecraft.getMinecraft().crashed(new CrashReport("Hyperium Startup Failure", t));
-        }
+        });
     }
 
     /**
@@ -354,13 +385,15 @@ public class Hyperium {
         hyperiumCommandHandler.registerCommand(new CommandGuild());
         hyperiumCommandHandler.registerCommand(new CommandStatistics());
         hyperiumCommandHandler.registerCommand(new CommandKeybinds());
+        hyperiumCommandHandler.registerCommand(new CommandHyperium());
     }
 
     /**
      * Called when Hyperium shuts down
      */
     private void shutdown() {
-        CONFIG.save();
+        CONFIG.saveImmediately();
+        PlayerDataStore.INSTANCE.close();
         richPresenceManager.shutdown();
         if (Settings.PERSISTENT_CHAT) {
             File file = new File(folder, "chat.txt");
@@ -515,6 +548,13 @@ public class Hyperium {
         return this.isDevEnv;
     }
 
+    /**
+     * @return the startup tasks and how long they took
+     */
+    public StartupGraph getStartup() {
+        return startup;
+    }
+
     public HyperiumScheduler getScheduler() {
         return scheduler;
     }
@@ -17,8 +17,10 @@
 
 package cc.hyperium;
 
+import cc.hyperium.config.Settings;
 import cc.hyperium.mixinsimp.client.GlStateModifier;
 import cc.hyperium.utils.HyperiumFontRenderer;
+import cc.hyperium.utils.threading.StartupGraph;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.Gui;
 import net.minecraft.client.gui.ScaledResolution;
@@ -37,6 +39,10 @@ public class SplashProgress {
     public static int PROGRESS = 0;
     public static String CURRENT = "";
     public static boolean CANCEL_IF_MAX = true;
+    /**
+     * Startup tasks whose timings are listed while {@link Settings#SHOW_STARTUP_TIMINGS} is on
+     */
+    public static StartupGraph STARTUP;
     private static ResourceLocation splash;
     private static TextureManager ctm;
     /**
@@ -116,6 +122,9 @@ public class SplashProgress {
         sfr.drawString(CURRENT, 20, sr.getScaledHeight() - 25, 0xffffffff);
         String s = PROGRESS + "/" + MAX;
         sfr.drawString(s, sr.getScaledWidth() - 20 - sfr.getStringWidth(s), sr.getScaledHeight() - 25, 0xe1e1e1ff);
+        if (STARTUP != null && Settings.SHOW_STARTUP_TIMINGS) {
+            drawTimings(sr);
+        }
         // Progress
         GlStateManager.resetColor();
         GlStateModifier.INSTANCE.reset();
@@ -123,4 +132,13 @@ public class SplashProgress {
         // Bar base
         Gui.drawRect(0, sr.getScaledHeight() - 2, sr.getScaledWidth(), sr.getScaledHeight(), new Color(0, 0, 0, 10).getRGB());
     }
+
+    private static void drawTimings(ScaledResolution sr) {
+        int y = 10;
+        for (StartupGraph.Task task : STARTUP.getFinished()) {
+            String s = task.getName() + " " + task.getWallNanos() / 1_000_000 + "ms";
+            sfr.drawString(s, sr.getScaledWidth() - 10 - sfr.getStringWidth(s), y, task.isGlThread() ? 0xffffffff : 0xe1e1e1ff);
+            y += 10;
+        }
+    }
 }
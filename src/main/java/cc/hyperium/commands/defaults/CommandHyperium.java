@@ -0,0 +1,218 @@
+/*
+ *     Copyright (C) 2018  Hyperium <https://hyperium.cc/>
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published
+ *     by the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cc.hyperium.commands.defaults;
+
+import cc.hyperium.Hyperium;
+import cc.hyperium.commands.BaseCommand;
+import cc.hyperium.commands.CommandException;
+import cc.hyperium.commands.CommandUsageException;
+import cc.hyperium.event.EventBus;
+import cc.hyperium.event.EventMetrics;
+import cc.hyperium.handlers.handlers.chat.GeneralChatHandler;
+import cc.hyperium.mixinsimp.renderer.FontFixValues;
+import cc.hyperium.mixinsimp.world.EntityRegionTicker;
+import cc.hyperium.mods.sk1ercommon.Multithreading;
+import cc.hyperium.utils.ChatColor;
+import cc.hyperium.utils.threading.InstrumentedThreadPool;
+import cc.hyperium.utils.threading.LatencyHistogram;
+import cc.hyperium.utils.threading.StartupGraph;
+import net.minecraft.command.CommandBase;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Diagnostics for the client itself, see {@link #getUsage()}
+ */
+public class CommandHyperium implements BaseCommand {
+
+    private static final int TOP_ENTRIES = 10;
+
+    @Override
+    public String getName() {
+        return "hyperiumdebug";
+    }
+
+    @Override
+    public String getUsage() {
+        return "Usage: /hyperiumdebug <eventstats [on|off|reset|csv]|pools|entities|fonts|startup>";
+    }
+
+    @Override
+    public void onExecute(String[] args) throws CommandException {
+        if (args.length == 0) {
+            throw new CommandUsageException();
+        }
+
+        switch (args[0].toLowerCase()) {
+            case "eventstats":
+                eventStats(Arrays.copyOfRange(args, 1, args.length));
+                break;
+            case "pools":
+                pools();
+                break;
+            case "entities":
+                entities();
+                break;
+            case "fonts":
+                fonts();
+                break;
+            case "startup":
+                startup();
+                break;
+            default:
+                throw new CommandUsageException();
+        }
+    }
+
+    private void eventStats(String[] args) throws CommandException {
+        EventBus bus = EventBus.INSTANCE;
+        GeneralChatHandler chat = GeneralChatHandler.instance();
+
+        if (args.length == 0) {
+            List<EventMetrics.Entry> entries = bus.getMetrics().getEntries();
+            if (entries.isEmpty()) {
+                chat.sendMessage(bus.isMetricsEnabled() ? "No events recorded yet." : "Event metrics are off, enable them with /hyperiumdebug eventstats on");
+                return;
+            }
+
+            chat.sendMessage("Slowest event subscribers (total / mean / max):");
+            for (EventMetrics.Entry entry : entries.subList(0, Math.min(TOP_ENTRIES, entries.size()))) {
+                chat.sendMessage(ChatColor.GRAY + entry.getEventName() + " " + ChatColor.WHITE + entry.getSubscriberName() + "#" + entry.getMethodName()
+                    + ChatColor.YELLOW + " " + millis(entry.getTotalNanos()) + " / " + micros(entry.getMeanNanos()) + " / " + micros(entry.getMaxNanos())
+                    + ChatColor.GRAY + " x" + entry.getInvocations()
+                    + (entry.getExceptions() > 0 ? ChatColor.RED + " (" + entry.getExceptions() + " errors)" : ""), false);
+            }
+            if (bus.getDroppedAsyncEvents() > 0) {
+                chat.sendMessage(ChatColor.RED + "Async events dropped: " + bus.getDroppedAsyncEvents(), false);
+            }
+            return;
+        }
+
+        switch (args[0].toLowerCase()) {
+            case "on":
+                bus.setMetricsEnabled(true);
+                chat.sendMessage("Event metrics enabled.");
+                break;
+            case "off":
+                bus.setMetricsEnabled(false);
+                chat.sendMessage("Event metrics disabled.");
+                break;
+            case "reset":
+                bus.getMetrics().reset();
+                chat.sendMessage("Event metrics reset.");
+                break;
+            case "csv":
+                File file = new File(Hyperium.folder, "eventstats.csv");
+                try {
+                    bus.getMetrics().writeCsv(file);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                    throw new CommandException("Failed to write " + file.getAbsolutePath());
+                }
+                chat.sendMessage("Event metrics written to " + file.getAbsolutePath());
+                break;
+            default:
+                throw new CommandUsageException();
+        }
+    }
+
+    private void pools() {
+        GeneralChatHandler chat = GeneralChatHandler.instance();
+        chat.sendMessage("Thread pools (active / queued / completed, wait p50 / p99):");
+        for (InstrumentedThreadPool pool : Multithreading.getPools()) {
+            LatencyHistogram waits = pool.getWaitTimes();
+            chat.sendMessage(ChatColor.WHITE + pool.getName() + ChatColor.YELLOW + " " + pool.getActiveCount() + "/" + pool.getMaximumPoolSize()
+                + " / " + pool.getQueueDepth() + "/" + pool.getQueueCapacity() + " / " + pool.getCompletedTaskCount()
+                + ChatColor.GRAY + ", " + micros(waits.getPercentileNanos(0.5)) + " / " + micros(waits.getPercentileNanos(0.99))
+                + (pool.getRejectedCount() > 0 ? ChatColor.RED + " (" + pool.getRejectedCount() + " rejected)" : ""), false);
+        }
+    }
+
+    private void entities() {
+        GeneralChatHandler chat = GeneralChatHandler.instance();
+        EntityRegionTicker.Stats stats = EntityRegionTicker.getLastStats();
+        if (stats == null) {
+            chat.sendMessage("No entities have been ticked by region yet, turn on Improved Entity Handling.");
+            return;
+        }
+
+        chat.sendMessage("Last entity tick: " + stats.getEntities() + " entities in " + stats.getRegions() + " regions, "
+            + millis(stats.getWallNanos()) + " (" + millis(stats.getBusyNanos()) + " on a single thread)");
+        for (EntityRegionTicker.RegionTiming region : stats.getSlowest()) {
+            chat.sendMessage(ChatColor.WHITE + "" + region.getBlockX() + ", " + region.getBlockZ()
+                + ChatColor.YELLOW + " " + micros(region.getNanos()) + ChatColor.GRAY + " x" + region.getEntities(), false);
+        }
+    }
+
+    private void fonts() {
+        GeneralChatHandler chat = GeneralChatHandler.instance();
+        FontFixValues cache = FontFixValues.INSTANCE;
+        if (cache == null) {
+            chat.sendMessage("The font cache has not been created yet.");
+            return;
+        }
+
+        long lookups = cache.getHits() + cache.getMisses();
+        chat.sendMessage("Font display lists: " + cache.getSize() + " strings, " + cache.getVertices() + "/" + cache.getMaxVertices() + " vertices");
+        chat.sendMessage(ChatColor.WHITE + "Hits " + ChatColor.YELLOW + cache.getHits()
+            + ChatColor.WHITE + " misses " + ChatColor.YELLOW + cache.getMisses()
+            + ChatColor.WHITE + " evictions " + ChatColor.YELLOW + cache.getEvictions()
+            + ChatColor.GRAY + (lookups == 0 ? "" : String.format(" (%.1f%% hit rate)", cache.getHits() * 100D / lookups)), false);
+    }
+
+    private void startup() {
+        GeneralChatHandler chat = GeneralChatHandler.instance();
+        StartupGraph startup = Hyperium.INSTANCE.getStartup();
+        if (startup == null) {
+            chat.sendMessage("Startup has not finished yet.");
+            return;
+        }
+
+        chat.sendMessage("Startup took " + millis(startup.getWallNanos()) + " (start / wall / cpu), full report in hyperium/logs:");
+        List<StartupGraph.Task> tasks = new ArrayList<>(startup.getFinished());
+        tasks.sort((a, b) -> Long.compare(b.getWallNanos(), a.getWallNanos()));
+        for (StartupGraph.Task task : tasks.subList(0, Math.min(TOP_ENTRIES, tasks.size()))) {
+            chat.sendMessage(ChatColor.WHITE + task.getName() + (task.isGlThread() ? ChatColor.GRAY + " (GL)" : "")
+                + ChatColor.YELLOW + " " + millis(task.getStartNanos()) + " / " + millis(task.getWallNanos())
+                + " / " + (task.getCpuNanos() < 0 ? "-" : millis(task.getCpuNanos())), false);
+        }
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.2fms", nanos / 1_000_000D);
+    }
+
+    private static String micros(long nanos) {
+        return String.format("%.1fus", nanos / 1_000D);
+    }
+
+    @Override
+    public List<String> onTabComplete(String[] args) {
+        List<String> completions = new ArrayList<>();
+        if (args.length == 1) {
+            completions.addAll(CommandBase.getListOfStringsMatchingLastWord(args, "eventstats", "pools", "entities", "fonts", "startup"));
+        } else if (args.length == 2 && args[0].equalsIgnoreCase("eventstats")) {
+            completions.addAll(CommandBase.getListOfStringsMatchingLastWord(args, "on", "off", "reset", "csv"));
+        }
+        return completions;
+    }
+}
@@ -17,133 +17,299 @@
 
 package cc.hyperium.config;
 
-
+import cc.hyperium.utils.threading.InstrumentedThreadPool;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * @author Sk1er
  */
 public class DefaultConfig {
 
+    /**
+     * How long {@link #save()} waits for more changes before writing the file
+     */
+    private static final long WRITE_DELAY_MILLIS = 1000;
+
+    /**
+     * Writes config files. Its own thread with an unbounded queue, so unlike the shared pools it never
+     * rejects a write, which would leave {@link #writeScheduled} set and stop all later writes
+     */
+    private static final ScheduledExecutorService WRITER = Executors.newSingleThreadScheduledExecutor(
+        new InstrumentedThreadPool.NamedThreadFactory("Config Writer"));
+
+    private static final Map<Class<?>, List<ConfigField>> FIELDS = new ConcurrentHashMap<>();
+    private static final Object UNSAVED = new Object();
+
     private final Gson gson = new GsonBuilder().setPrettyPrinting().create();
-    private final JsonParser parser = new JsonParser();
-    private final List<Object> configObjects = new ArrayList<>();
+    private final List<ConfigObject> configObjects = new ArrayList<>();
+    private final AtomicBoolean writeScheduled = new AtomicBoolean();
     private final File file;
     private JsonObject config = new JsonObject();
+    private boolean dirty;
 
     public DefaultConfig(File configFile) {
         this.file = configFile;
         try {
             if (configFile.exists()) {
-                FileReader fr = new FileReader(file);
-                BufferedReader br = new BufferedReader(fr);
-                StringBuilder builder = new StringBuilder();
-                String line;
-                while ((line = br.readLine()) != null)
-                    builder.append(line);
-
-                String done = builder.toString();
-                config = new JsonParser().parse(done).getAsJsonObject();
+                try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+                    config = new JsonParser().parse(reader).getAsJsonObject();
+                }
             } else {
                 config = new JsonObject();
-                saveFile();
+                dirty = true;
+                writeFile();
             }
         } catch (Exception e) {
             e.printStackTrace();
         }
     }
 
-    private void saveFile() {
-        try {
-            file.createNewFile();
-            FileWriter fw = new FileWriter(file);
-            BufferedWriter bw = new BufferedWriter(fw);
-            bw.write(gson.toJson(config));
-            bw.close();
-            fw.close();
-        } catch (Exception ignored) {
+    /**
+     * Copies every registered object's changed {@link ConfigOpt} fields into the config, and
+     * schedules a write if anything changed. Writes are coalesced and happen off the calling thread.
+     */
+    public void save() {
+        synchronized (this) {
+            for (ConfigObject o : configObjects)
+                saveToJsonFromRamObject(o);
+        }
+        if (dirty && writeScheduled.compareAndSet(false, true)) {
+            WRITER.schedule(() -> {
+                writeScheduled.set(false);
+                writeFile();
+            }, WRITE_DELAY_MILLIS, TimeUnit.MILLISECONDS);
         }
     }
 
-    public void save() {
-        for (Object o : configObjects)
-            saveToJsonFromRamObject(o);
-        saveFile();
+    /**
+     * Saves and writes the file before returning, for when the game is closing.
+     */
+    public void saveImmediately() {
+        synchronized (this) {
+            for (ConfigObject o : configObjects)
+                saveToJsonFromRamObject(o);
+        }
+        writeFile();
+    }
+
+    /**
+     * Makes the next {@link #save()} write the file, for changes made directly to {@link #getConfig()}.
+     */
+    public synchronized void markDirty() {
+        dirty = true;
+    }
+
+    private void writeFile() {
+        // Held throughout, so a write in progress finishes before another one checks for changes
+        synchronized (file) {
+            String json;
+            synchronized (this) {
+                if (!dirty) {
+                    return;
+                }
+                dirty = false;
+                json = gson.toJson(config);
+            }
+
+            // Write next to the file and move it over, so a crash mid-write never leaves a truncated config
+            File temp = new File(file.getPath() + ".tmp");
+            try {
+                File parent = file.getAbsoluteFile().getParentFile();
+                if (parent != null) {
+                    parent.mkdirs();
+                }
+                Files.write(temp.toPath(), json.getBytes(StandardCharsets.UTF_8));
+                try {
+                    Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+                markDirty();
+            }
+        }
     }
 
     public Object register(Object object) {
         //Don't register stuff to config if they don't have any config opt fields
-        if (Arrays.stream(object.getClass().getDeclaredFields()).noneMatch(f -> f.isAnnotationPresent(ConfigOpt.class))) {
+        List<ConfigField> fields = getFields(object.getClass());
+        if (fields.isEmpty()) {
             return object;
         }
         if (object instanceof PreConfigHandler)
             ((PreConfigHandler) object).preUpdate();
-        loadToClass(object);
-        configObjects.add(object);
+        synchronized (this) {
+            ConfigObject configObject = new ConfigObject(object, fields);
+            loadToClass(configObject);
+            configObjects.add(configObject);
+        }
         if (object instanceof PostConfigHandler)
             ((PostConfigHandler) object).postUpdate();
         return object;
     }
 
-    private void loadToClass(Object o) {
+    private void loadToClass(ConfigObject o) {
         loadToClassObject(o);
     }
 
-    private void loadToClassObject(Object object) {
-        Class<?> c = object.getClass();
-        if (!config.has(c.getName())) config.add(c.getName(), new JsonObject());
-        Arrays.stream(c.getDeclaredFields()).filter(f -> f.isAnnotationPresent(ConfigOpt.class) && config.has(c.getName())).forEach(f -> {
-            f.setAccessible(true);
-            ConfigOpt co = f.getAnnotation(ConfigOpt.class);
-            JsonObject tmp = config.get(c.getName()).getAsJsonObject();
-            if (!co.alt().isEmpty() && config.has(co.alt().split(";")[0]) && !tmp.has(f.getName())) {
-                JsonObject ot = config.get(co.alt().split(";")[0]).getAsJsonObject();
-                if (ot.has(co.alt().split(";")[1]))
-                    tmp.add(f.getName(), ot.get(co.alt().split(";")[1]));
+    private void loadToClassObject(ConfigObject configObject) {
+        String name = configObject.object.getClass().getName();
+        if (!config.has(name)) config.add(name, new JsonObject());
+        JsonObject tmp = config.get(name).getAsJsonObject();
+        for (int i = 0; i < configObject.fields.size(); i++) {
+            ConfigField f = configObject.fields.get(i);
+            if (f.altClass != null && config.has(f.altClass) && !tmp.has(f.name)) {
+                JsonObject ot = config.get(f.altClass).getAsJsonObject();
+                if (ot.has(f.altName))
+                    tmp.add(f.name, ot.get(f.altName));
             }
-            if (tmp.has(f.getName())) {
+            if (tmp.has(f.name)) {
                 try {
-                    f.set(object, gson.fromJson(tmp.get(f.getName()), f.getType()));
-                } catch (IllegalAccessException e) {
+                    f.setter.invokeExact(configObject.object, gson.fromJson(tmp.get(f.name), f.type));
+                    configObject.saved[i] = f.simple ? f.getter.invokeExact(configObject.object) : UNSAVED;
+                } catch (Throwable e) {
                     e.printStackTrace();
                 }
             }
-        });
+        }
     }
 
-    private void saveToJsonFromRamObject(Object o) {
+    private void saveToJsonFromRamObject(ConfigObject o) {
         loadToJson(o);
     }
 
-    private void loadToJson(Object object) {
+    private void loadToJson(ConfigObject configObject) {
+        Object object = configObject.object;
         if (object instanceof PreSaveHandler) {
             ((PreSaveHandler) object).preSave();
         }
-        Class<?> c = object.getClass();
-        Arrays.stream(c.getDeclaredFields()).filter(f -> f.isAnnotationPresent(ConfigOpt.class) && config.has(c.getName())).forEach(f -> {
-            f.setAccessible(true);
-            JsonObject classObject = config.get(c.getName()).getAsJsonObject();
+        JsonObject classObject = config.get(object.getClass().getName()).getAsJsonObject();
+        for (int i = 0; i < configObject.fields.size(); i++) {
+            ConfigField f = configObject.fields.get(i);
             try {
-                classObject.add(f.getName(), gson.toJsonTree(f.get(object), f.getType()));
-            } catch (IllegalAccessException e) {
+                Object value = f.getter.invokeExact(object);
+                if (f.simple) {
+                    // Immutable values only need an equality check to know the field is unchanged
+                    if (configObject.saved[i] != UNSAVED && (value == null ? configObject.saved[i] == null : value.equals(configObject.saved[i])))
+                        continue;
+                    classObject.add(f.name, gson.toJsonTree(value, f.type));
+                    configObject.saved[i] = value;
+                    dirty = true;
+                } else {
+                    JsonElement tree = gson.toJsonTree(value, f.type);
+                    if (!tree.equals(classObject.get(f.name))) {
+                        classObject.add(f.name, tree);
+                        dirty = true;
+                    }
+                }
+            } catch (Throwable e) {
                 e.printStackTrace();
             }
-        });
+        }
     }
 
     public JsonObject getConfig() {
         return config;
     }
-}
\ No newline at end of file
+
+    private static List<ConfigField> getFields(Class<?> c) {
+        return FIELDS.computeIfAbsent(c, clazz -> {
+            List<ConfigField> fields = new ArrayList<>();
+            for (Field f : clazz.getDeclaredFields()) {
+                if (f.isAnnotationPresent(ConfigOpt.class)) {
+                    try {
+                        fields.add(new ConfigField(f));
+                    } catch (IllegalAccessException e) {
+                        e.printStackTrace();
+                    }
+                }
+            }
+            return fields.isEmpty() ? Collections.emptyList() : fields;
+        });
+    }
+
+    /**
+     * A {@link ConfigOpt} field with method handles, shaped as (Object)Object and (Object, Object)void
+     * whether the field is static or not.
+     */
+    private static class ConfigField {
+        private final String name;
+        private final Type type;
+        private final boolean simple;
+        private final String altClass;
+        private final String altName;
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        private ConfigField(Field f) throws IllegalAccessException {
+            f.setAccessible(true);
+            this.name = f.getName();
+            this.type = f.getGenericType();
+            Class<?> t = f.getType();
+            this.simple = t.isPrimitive() || t.isEnum() || t == String.class || Number.class.isAssignableFrom(t) || t == Boolean.class || t == Character.class;
+
+            String alt = f.getAnnotation(ConfigOpt.class).alt();
+            this.altClass = alt.isEmpty() ? null : alt.split(";")[0];
+            this.altName = alt.isEmpty() ? null : alt.split(";")[1];
+
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodHandle get = lookup.unreflectGetter(f);
+            MethodHandle set = Modifier.isFinal(f.getModifiers()) ? null : lookup.unreflectSetter(f);
+            if (Modifier.isStatic(f.getModifiers())) {
+                get = MethodHandles.dropArguments(get, 0, Object.class);
+                if (set != null) {
+                    set = MethodHandles.dropArguments(set, 0, Object.class);
+                }
+            }
+            this.getter = get.asType(MethodType.methodType(Object.class, Object.class));
+            this.setter = set == null
+                ? MethodHandles.dropArguments(MethodHandles.constant(Object.class, null), 0, Object.class, Object.class).asType(MethodType.methodType(void.class, Object.class, Object.class))
+                : set.asType(MethodType.methodType(void.class, Object.class, Object.class));
+        }
+    }
+
+    /**
+     * A registered object and the values of its simple fields as last written to the config
+     */
+    private static class ConfigObject {
+        private final Object object;
+        private final List<ConfigField> fields;
+        private final Object[] saved;
+
+        private ConfigObject(Object object, List<ConfigField> fields) {
+            this.object = object;
+            this.fields = fields;
+            this.saved = new Object[fields.size()];
+            Arrays.fill(saved, UNSAVED);
+        }
+    }
+}
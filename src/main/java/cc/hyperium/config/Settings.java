@@ -138,6 +138,14 @@ public class Settings {
     @ToggleSetting(name = "gui.settings.optimizedfontrenderer", category = IMPROVEMENTS)
     public static boolean OPTIMIZED_FONT_RENDERER = false;
 
+    @ConfigOpt
+    @ToggleSetting(name = "gui.settings.batchedguifonts", category = IMPROVEMENTS)
+    public static boolean BATCHED_GUI_FONTS = true;
+
+    @ConfigOpt
+    @ToggleSetting(name = "gui.settings.showstartuptimings", category = MISC)
+    public static boolean SHOW_STARTUP_TIMINGS = false;
+
     @ConfigOpt(alt = "cc.hyperium.gui.settings.items.GeneralSetting;windowedFullScreen")
     @ToggleSetting(name = "gui.settings.windowedfullscreen", category = IMPROVEMENTS)
     public static boolean WINDOWED_FULLSCREEN = false;
@@ -51,7 +51,8 @@ public abstract class AbstractCosmetic {
             purchasedBy.put(id, aBoolean);
     }
 
-    @InvokeEvent
+    // only writes to a concurrent map, so there's no reason to hold up the thread loading the purchase
+    @InvokeEvent(async = true)
     public void purchaseLoadEvent(PurchaseLoadEvent event) {
         purchasedBy.put(event.getUuid(), event.getPurchase().hasPurchased(purchaseType));
     }
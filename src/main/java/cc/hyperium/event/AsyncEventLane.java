@@ -0,0 +1,161 @@
+/*
+ *     Copyright (C) 2018  Hyperium <https://hyperium.cc/>
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published
+ *     by the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cc.hyperium.event;
+
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Delivers events to subscribers registered with {@link InvokeEvent#async()} on a small worker pool.
+ * <p>
+ * Every async subscriber owns a bounded {@link Mailbox}. Posting only offers the event to the mailbox,
+ * so the posting thread never waits on the subscriber; if the subscriber falls behind and its mailbox
+ * is full the event is dropped and counted instead. A mailbox is only ever drained by one worker at a time,
+ * which keeps delivery to a single subscriber in the order the events were posted.
+ */
+final class AsyncEventLane {
+
+    /**
+     * Events a subscriber may have pending before new ones are dropped
+     */
+    private static final int MAILBOX_CAPACITY = 256;
+
+    /**
+     * Events a worker delivers from one mailbox before letting other mailboxes have a turn
+     */
+    private static final int DRAIN_BATCH = 32;
+
+    private static final int THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+
+    private final EventBus bus;
+    private final LongAdder dropped = new LongAdder();
+    private volatile ThreadPoolExecutor executor;
+
+    AsyncEventLane(EventBus bus) {
+        this.bus = bus;
+    }
+
+    /**
+     * Queues the event for an async subscriber
+     *
+     * @param mailbox The mailbox of the subscriber
+     * @param event   Event that is being posted
+     */
+    void post(Mailbox mailbox, Object event) {
+        if (mailbox.closed) {
+            return;
+        }
+        if (!mailbox.queue.offer(event)) {
+            dropped.increment();
+            return;
+        }
+        mailbox.schedule();
+    }
+
+    Mailbox createMailbox(EventSubscriber subscriber) {
+        return new Mailbox(subscriber);
+    }
+
+    /**
+     * @return the amount of events dropped because a subscriber's mailbox was full
+     */
+    long getDropped() {
+        return dropped.sum();
+    }
+
+    private ThreadPoolExecutor getExecutor() {
+        ThreadPoolExecutor executor = this.executor;
+        if (executor == null) {
+            synchronized (this) {
+                executor = this.executor;
+                if (executor == null) {
+                    // there is never more than one queued drain per mailbox, so the
+                    // work queue is bounded by the amount of async subscribers
+                    executor = new ThreadPoolExecutor(THREADS, THREADS, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), new WorkerFactory());
+                    executor.allowCoreThreadTimeOut(true);
+                    this.executor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * Pending events of a single async subscriber
+     */
+    final class Mailbox implements Runnable {
+
+        private final EventSubscriber subscriber;
+        private final Queue<Object> queue = new ArrayBlockingQueue<>(MAILBOX_CAPACITY);
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean closed;
+
+        Mailbox(EventSubscriber subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                getExecutor().execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            Object event;
+            int delivered = 0;
+            while (!closed && delivered < DRAIN_BATCH && (event = queue.poll()) != null) {
+                bus.dispatch(subscriber, event);
+                delivered++;
+            }
+
+            scheduled.set(false);
+            // an event may have been queued after the last poll but before the flag was cleared
+            if (!closed && !queue.isEmpty()) {
+                schedule();
+            }
+        }
+
+        /**
+         * Stops delivery, events still pending are discarded
+         */
+        void close() {
+            closed = true;
+            queue.clear();
+        }
+    }
+
+    private static final class WorkerFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "Hyperium Event Worker " + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
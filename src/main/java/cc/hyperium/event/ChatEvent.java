@@ -17,6 +17,8 @@
 
 package cc.hyperium.event;
 
+import cc.hyperium.utils.chat.ChatClassification;
+import cc.hyperium.utils.chat.ChatClassifier;
 import net.minecraft.util.IChatComponent;
 
 /**
@@ -25,6 +27,7 @@ import net.minecraft.util.IChatComponent;
 public class ChatEvent extends CancellableEvent {
 
     private final IChatComponent chat;
+    private ChatClassification classification;
 
     public ChatEvent(IChatComponent chat) {
         this.chat = chat;
@@ -33,4 +36,15 @@ public class ChatEvent extends CancellableEvent {
     public IChatComponent getChat() {
         return this.chat;
     }
+
+    /**
+     * @return the message stripped of colour codes along with the chat patterns it could match, worked out once
+     * and shared by every subscriber
+     */
+    public ChatClassification getClassification() {
+        if (this.classification == null) {
+            this.classification = ChatClassifier.INSTANCE.classify(this.chat);
+        }
+        return this.classification;
+    }
 }
@@ -23,7 +23,7 @@ import com.google.common.base.Preconditions;
 import net.minecraft.client.entity.AbstractClientPlayer;
 import org.jetbrains.annotations.NotNull;
 
-public abstract class CopyPlayerModelAnglesEvent extends Event {
+public abstract class CopyPlayerModelAnglesEvent extends Event implements RenderThreadEvent {
 
     @NotNull
     private final AbstractClientPlayer entity;
@@ -22,7 +22,7 @@ import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.util.MovingObjectPosition;
 import org.jetbrains.annotations.NotNull;
 
-public final class DrawBlockHighlightEvent extends CancellableEvent {
+public final class DrawBlockHighlightEvent extends CancellableEvent implements RenderThreadEvent {
 
     @NotNull
     private final EntityPlayer player;
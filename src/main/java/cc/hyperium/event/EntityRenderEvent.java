@@ -21,7 +21,7 @@ import com.google.common.base.Preconditions;
 import net.minecraft.entity.Entity;
 import org.jetbrains.annotations.NotNull;
 
-public final class EntityRenderEvent extends CancellableEvent {
+public final class EntityRenderEvent extends CancellableEvent implements RenderThreadEvent {
 
     @NotNull
     private final Entity entityIn;
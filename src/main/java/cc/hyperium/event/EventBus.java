@@ -20,18 +20,35 @@ package cc.hyperium.event;
 import com.google.common.reflect.TypeToken;
 import net.minecraft.client.Minecraft;
 
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ConcurrentHashMap;
 
 @SuppressWarnings("UnstableApiUsage")
 public class EventBus {
     public static final EventBus INSTANCE = new EventBus();
     public static boolean ALLOW_PROFILE = false;
-    private HashMap<Class<?>, CopyOnWriteArrayList<EventSubscriber>> subscriptions = new HashMap<>();
+    private static final EventSubscriber[] NO_SUBSCRIBERS = new EventSubscriber[0];
+
+    /**
+     * Every subscriber in registration order
+     */
+    private final List<EventSubscriber> subscriptions = new ArrayList<>();
+
+    /**
+     * Priority sorted subscribers for each posted event class, including subscribers to its
+     * super classes. Only rebuilt by {@link #register(Object)} and the unregister methods so
+     * {@link #post(Object)} never has to allocate
+     */
+    private final Map<Class<?>, EventSubscriber[]> snapshots = new ConcurrentHashMap<>();
+
+    private final AsyncEventLane asyncLane = new AsyncEventLane(this);
+    private final EventMetrics metrics = new EventMetrics();
+    private volatile boolean metricsEnabled;
 
     /**
      * Registers all methods of a class into the event system with
@@ -39,7 +56,7 @@ public class EventBus {
      *
      * @param obj An instance of the class which you would like to register as an event
      */
-    public void register(Object obj) {
+    public synchronized void register(Object obj) {
         // also contains the class itself
         TypeToken<?> token = TypeToken.of(obj.getClass());
 
@@ -52,35 +69,31 @@ public class EventBus {
             // iterates though all the methods in the class
             for (Method method : clazz.getDeclaredMethods()) {
                 // all the information and error checking before the method is added such
-                // as if it even is an event before the element even touches the HashMap
-                if (method.getAnnotation(InvokeEvent.class) == null) {
+                // as if it even is an event before the element even touches the subscriptions
+                InvokeEvent annotation = method.getAnnotation(InvokeEvent.class);
+                if (annotation == null) {
                     continue;
                 }
 
-                if (method.getParameters()[0] == null) {
+                if (method.getParameterCount() != 1) {
                     throw new IllegalArgumentException("Couldn't find parameter inside of " + method.getName() + "!");
                 }
 
-                Class<?> event = method.getParameters()[0].getType();
-
-                Priority priority = method.getAnnotation(InvokeEvent.class).priority();
                 method.setAccessible(true);
-
-                // where the method gets added to the event key inside of the subscription hashmap
-                // the arraylist is either sorted or created before the element is added
-                if (this.subscriptions.containsKey(event)) {
-                    // sorts array on insertion
-                    this.subscriptions.get(event).add(new EventSubscriber(obj, method, priority));
-                    this.subscriptions.get(event).sort(Comparator.comparingInt(a -> a.getPriority().value));
-                } else {
-                    // event hasn't been added before so it creates a new instance
-                    // sorting does not matter here since there is no other elements to compete against
-                    this.subscriptions.put(event, new CopyOnWriteArrayList<>());
-                    this.subscriptions.get(event).add(new EventSubscriber(obj, method, priority));
-                    this.subscriptions.get(event).sort(Comparator.comparingInt(a -> a.getPriority().value));
+                EventSubscriber subscriber = new EventSubscriber(obj, method, annotation.priority(), annotation.receiveCancelled(), annotation.async());
+                if (subscriber.isAsync()) {
+                    if (RenderThreadEvent.class.isAssignableFrom(subscriber.getEventType())) {
+                        throw new IllegalArgumentException(method.getName() + " can't be async, " + subscriber.getEventType().getSimpleName() + " is a render event!");
+                    }
+                    if (!SnapshotEvent.class.isAssignableFrom(subscriber.getEventType())) {
+                        throw new IllegalArgumentException(method.getName() + " can't be async, " + subscriber.getEventType().getSimpleName() + " isn't a snapshot event!");
+                    }
+                    subscriber.setMailbox(this.asyncLane.createMailbox(subscriber));
                 }
+                this.subscriptions.add(subscriber);
             }
         }
+        rebuildSnapshots();
     }
 
     /**
@@ -89,8 +102,10 @@ public class EventBus {
      *
      * @param obj An instance of the class which you would like to register as an event
      */
-    public void unregister(Object obj) {
-        this.subscriptions.values().forEach(map -> map.removeIf(it -> it.getInstance() == obj));
+    public synchronized void unregister(Object obj) {
+        if (this.subscriptions.removeIf(it -> it.getInstance() == obj && close(it))) {
+            rebuildSnapshots();
+        }
     }
 
     /**
@@ -99,18 +114,77 @@ public class EventBus {
      *
      * @param clazz An instance of the class which you would like to register as an event
      */
-    public void unregister(Class<?> clazz) {
-        this.subscriptions.values().forEach(map -> map.removeIf(it -> it.getInstance().getClass() == clazz));
+    public synchronized void unregister(Class<?> clazz) {
+        if (this.subscriptions.removeIf(it -> it.getInstance().getClass() == clazz && close(it))) {
+            rebuildSnapshots();
+        }
     }
 
+    /**
+     * Stops delivering queued events to a subscriber which is being removed and forgets its metrics
+     *
+     * @param subscriber The removed subscriber
+     * @return always true, so it can be used inside of removal predicates
+     */
+    private boolean close(EventSubscriber subscriber) {
+        if (subscriber.getMailbox() != null) {
+            subscriber.getMailbox().close();
+        }
+        this.metrics.remove(subscriber);
+        return true;
+    }
 
     /**
-     * Invokes all of the methods which are inside of the classes
-     * registered to the event
+     * Rebuilds the snapshot of every event class that has been posted so far
+     */
+    private void rebuildSnapshots() {
+        this.snapshots.replaceAll((eventClass, subscribers) -> createSnapshot(eventClass));
+    }
+
+    /**
+     * Collects every subscriber which can receive the event class, sorted by priority.
+     * The sort is stable so subscribers with the same priority are called in the order they registered
      *
-     * @param event Event that is being posted
+     * @param eventClass The class of the posted event
+     * @return the subscribers for the event class
      */
+    private EventSubscriber[] createSnapshot(Class<?> eventClass) {
+        boolean renderEvent = RenderThreadEvent.class.isAssignableFrom(eventClass);
+        List<EventSubscriber> matching = new ArrayList<>();
+        for (EventSubscriber subscriber : this.subscriptions) {
+            // async subscribers to something like Event must still never see render events
+            if (renderEvent && subscriber.isAsync()) {
+                continue;
+            }
+            if (subscriber.getEventType().isAssignableFrom(eventClass)) {
+                matching.add(subscriber);
+            }
+        }
+
+        if (matching.isEmpty()) {
+            return NO_SUBSCRIBERS;
+        }
 
+        matching.sort(Comparator.comparingInt(a -> a.getPriority().value));
+        return matching.toArray(new EventSubscriber[0]);
+    }
+
+    /**
+     * Gets the subscribers for an event class, only creating the snapshot
+     * the first time the class is posted
+     *
+     * @param eventClass The class of the posted event
+     * @return the subscribers for the event class
+     */
+    private EventSubscriber[] getSubscribers(Class<?> eventClass) {
+        EventSubscriber[] subscribers = this.snapshots.get(eventClass);
+        if (subscribers == null) {
+            synchronized (this) {
+                subscribers = this.snapshots.computeIfAbsent(eventClass, this::createSnapshot);
+            }
+        }
+        return subscribers;
+    }
 
     /**
      * Invokes all of the methods which are inside of the classes
@@ -124,6 +198,13 @@ public class EventBus {
         }
         if (event instanceof RenderTickEvent)
             ALLOW_PROFILE = false;
+
+        EventSubscriber[] subscribers = getSubscribers(event.getClass());
+        if (subscribers.length == 0) {
+            return;
+        }
+        CancellableEvent cancellable = event instanceof CancellableEvent ? (CancellableEvent) event : null;
+
         /*
             HELLO
 
@@ -135,27 +216,95 @@ public class EventBus {
             THIS WILL CAUSE THE ARM IN WALL BUG AND BREAKING OF FAST RENDER.
 
          */
-        boolean profile = Minecraft.getMinecraft().isCallingFromMinecraftThread() && Minecraft.getMinecraft().theWorld != null && ALLOW_PROFILE;
+        // there is no client when events are replayed headless, e.g. by the chat benchmarks
+        boolean profile = Minecraft.getMinecraft() != null && Minecraft.getMinecraft().isCallingFromMinecraftThread() && Minecraft.getMinecraft().theWorld != null && ALLOW_PROFILE;
         if (profile) {
             Minecraft.getMinecraft().mcProfiler.startSection(event.getClass().getSimpleName());
         }
-        this.subscriptions.getOrDefault(event.getClass(), new CopyOnWriteArrayList<>()).forEach((sub) -> {
+        for (EventSubscriber sub : subscribers) {
+            // once a higher priority subscriber cancels the event, the ones that opted out of cancelled events are skipped
+            if (cancellable != null && !sub.isReceiveCancelled() && cancellable.isCancelled()) {
+                continue;
+            }
+            if (sub.isAsync()) {
+                this.asyncLane.post(sub.getMailbox(), event);
+                continue;
+            }
             if (profile) {
                 String name = sub.getObjName();
                 Minecraft.getMinecraft().mcProfiler.startSection(name);
                 Minecraft.getMinecraft().mcProfiler.startSection(sub.getMethodName());
             }
-            try {
-                sub.getMethod().invoke(sub.getInstance(), event);
-            } catch (Exception InvocationTargetException) {
-                InvocationTargetException.printStackTrace();
-            }
+            dispatch(sub, event);
             if (profile) {
                 Minecraft.getMinecraft().mcProfiler.endSection();
                 Minecraft.getMinecraft().mcProfiler.endSection();
             }
-        });
+        }
         if (profile)
             Minecraft.getMinecraft().mcProfiler.endSection();
     }
+
+    /**
+     * Invokes a single subscriber, measuring it if metrics are enabled
+     *
+     * @param sub   The subscriber to invoke
+     * @param event Event that is being posted
+     */
+    void dispatch(EventSubscriber sub, Object event) {
+        if (this.metricsEnabled) {
+            invokeMeasured(sub, event);
+            return;
+        }
+        try {
+            sub.invoke(event);
+        } catch (Throwable t) {
+            t.printStackTrace();
+        }
+    }
+
+    /**
+     * Invokes a subscriber and records how long it took, what it allocated and whether it threw
+     *
+     * @param sub   The subscriber to invoke
+     * @param event Event that is being posted
+     */
+    private void invokeMeasured(EventSubscriber sub, Object event) {
+        boolean failed = false;
+        long allocated = this.metrics.allocatedBytes();
+        long start = System.nanoTime();
+        try {
+            sub.invoke(event);
+        } catch (Throwable t) {
+            failed = true;
+            t.printStackTrace();
+        }
+        long nanos = System.nanoTime() - start;
+        allocated = this.metrics.allocatedBytes() - allocated;
+        this.metrics.record(event.getClass(), sub, nanos, allocated, failed);
+    }
+
+    /**
+     * Turns per subscriber metrics on or off. Recorded metrics are kept until {@link EventMetrics#reset()}
+     *
+     * @param enabled whether invocations should be measured
+     */
+    public void setMetricsEnabled(boolean enabled) {
+        this.metricsEnabled = enabled;
+    }
+
+    public boolean isMetricsEnabled() {
+        return this.metricsEnabled;
+    }
+
+    public EventMetrics getMetrics() {
+        return this.metrics;
+    }
+
+    /**
+     * @return the amount of events async subscribers have missed because they fell behind
+     */
+    public long getDroppedAsyncEvents() {
+        return this.asyncLane.getDropped();
+    }
 }
@@ -0,0 +1,33 @@
+/*
+ *     Copyright (C) 2018  Hyperium <https://hyperium.cc/>
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published
+ *     by the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cc.hyperium.event;
+
+/**
+ * Directly calls a single subscriber method, generated by {@link EventInvokerFactory}
+ * when the subscriber is registered so posting an event does not go through reflection
+ */
+public interface EventInvoker {
+
+    /**
+     * Calls the subscriber method with the given event
+     *
+     * @param event Event that is being posted
+     * @throws Throwable anything the subscriber method throws, unwrapped
+     */
+    void invoke(Object event) throws Throwable;
+}
@@ -0,0 +1,171 @@
+/*
+ *     Copyright (C) 2018  Hyperium <https://hyperium.cc/>
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published
+ *     by the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cc.hyperium.event;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates {@link EventInvoker}s for subscriber methods.
+ * <p>
+ * Public methods get a small generated class which calls the method directly, so after
+ * the JIT has warmed up a post is a plain monomorphic call. Methods the generated class
+ * cannot reach (private methods or methods in non public classes) fall back to a bound
+ * {@link MethodHandle}, which is still a lot cheaper than {@link Method#invoke(Object, Object...)}.
+ */
+final class EventInvokerFactory implements Opcodes {
+
+    private static final String INVOKER_PACKAGE = "cc/hyperium/event/generated/";
+    private static final String INVOKER_INTERFACE = Type.getInternalName(EventInvoker.class);
+    private static final String INVOKE_DESC = "(Ljava/lang/Object;)V";
+    private static final MethodType INVOKE_TYPE = MethodType.methodType(void.class, Object.class);
+
+    private static final AtomicInteger ID = new AtomicInteger();
+    private static final Map<ClassLoader, InvokerClassLoader> LOADERS = new HashMap<>();
+
+    private EventInvokerFactory() {
+    }
+
+    /**
+     * Creates an invoker for the method
+     *
+     * @param instance Object the method will be called on, ignored for static methods
+     * @param method   The subscriber method, taking the event as its only parameter
+     * @return an invoker calling the method on the instance
+     */
+    static EventInvoker create(Object instance, Method method) {
+        if (canGenerate(method)) {
+            try {
+                return generate(instance, method);
+            } catch (Throwable t) {
+                // the loader may refuse the class for reasons we cannot check up front,
+                // the handle is always safe to fall back on
+                t.printStackTrace();
+            }
+        }
+        return createHandleInvoker(instance, method);
+    }
+
+    private static boolean canGenerate(Method method) {
+        Class<?> owner = method.getDeclaringClass();
+        return Modifier.isPublic(method.getModifiers())
+            && Modifier.isPublic(owner.getModifiers())
+            && Modifier.isPublic(method.getParameterTypes()[0].getModifiers())
+            && owner.getClassLoader() != null;
+    }
+
+    private static EventInvoker createHandleInvoker(Object instance, Method method) {
+        try {
+            method.setAccessible(true);
+            MethodHandle handle = MethodHandles.lookup().unreflect(method);
+            if (!Modifier.isStatic(method.getModifiers())) {
+                handle = handle.bindTo(instance);
+            }
+            MethodHandle target = handle.asType(INVOKE_TYPE);
+            return event -> {
+                target.invokeExact(event);
+            };
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("Couldn't access " + method.getName() + " in " + method.getDeclaringClass().getName(), e);
+        }
+    }
+
+    private static EventInvoker generate(Object instance, Method method) throws ReflectiveOperationException {
+        Class<?> owner = method.getDeclaringClass();
+        boolean isStatic = Modifier.isStatic(method.getModifiers());
+        String ownerName = Type.getInternalName(owner);
+        String eventName = Type.getInternalName(method.getParameterTypes()[0]);
+        String name = INVOKER_PACKAGE + owner.getSimpleName() + "_" + method.getName() + "_" + ID.incrementAndGet();
+
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        cw.visit(V1_8, ACC_PUBLIC | ACC_FINAL | ACC_SUPER, name, null, "java/lang/Object", new String[]{INVOKER_INTERFACE});
+        cw.visitField(ACC_PRIVATE | ACC_FINAL, "instance", "Ljava/lang/Object;", null, null).visitEnd();
+
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "(Ljava/lang/Object;)V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitMethodInsn(INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitFieldInsn(PUTFIELD, name, "instance", "Ljava/lang/Object;");
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        mv = cw.visitMethod(ACC_PUBLIC, "invoke", INVOKE_DESC, null, null);
+        mv.visitCode();
+        if (!isStatic) {
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitFieldInsn(GETFIELD, name, "instance", "Ljava/lang/Object;");
+            mv.visitTypeInsn(CHECKCAST, ownerName);
+        }
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitTypeInsn(CHECKCAST, eventName);
+        String desc = Type.getMethodDescriptor(method);
+        if (isStatic) {
+            mv.visitMethodInsn(INVOKESTATIC, ownerName, method.getName(), desc, owner.isInterface());
+        } else if (owner.isInterface()) {
+            mv.visitMethodInsn(INVOKEINTERFACE, ownerName, method.getName(), desc, true);
+        } else {
+            mv.visitMethodInsn(INVOKEVIRTUAL, ownerName, method.getName(), desc, false);
+        }
+        int returnSize = Type.getReturnType(method).getSize();
+        if (returnSize == 1) {
+            mv.visitInsn(POP);
+        } else if (returnSize == 2) {
+            mv.visitInsn(POP2);
+        }
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+        cw.visitEnd();
+
+        Class<?> invokerClass = getLoader(owner.getClassLoader()).define(name.replace('/', '.'), cw.toByteArray());
+        return (EventInvoker) invokerClass.getConstructor(Object.class).newInstance(isStatic ? null : instance);
+    }
+
+    private static synchronized InvokerClassLoader getLoader(ClassLoader parent) {
+        return LOADERS.computeIfAbsent(parent, InvokerClassLoader::new);
+    }
+
+    /**
+     * Defines the generated invokers as children of the subscriber's class loader,
+     * so they can see the subscriber and event classes as well as {@link EventInvoker}
+     */
+    private static final class InvokerClassLoader extends ClassLoader {
+
+        InvokerClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        Class<?> define(String name, byte[] bytes) {
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+}
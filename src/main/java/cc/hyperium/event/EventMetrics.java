@@ -0,0 +1,215 @@
+/*
+ *     Copyright (C) 2018  Hyperium <https://hyperium.cc/>
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published
+ *     by the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cc.hyperium.event;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregated timings for every (event class, subscriber) pair, recorded by {@link EventBus}
+ * while {@link EventBus#setMetricsEnabled(boolean)} is on. Counters are striped so handlers
+ * posting from several threads don't contend on them.
+ */
+public final class EventMetrics {
+
+    private static final String CSV_HEADER = "event,subscriber,method,invocations,total_ns,mean_ns,max_ns,allocated_bytes,exceptions";
+
+    private final Map<EventSubscriber, Map<Class<?>, Entry>> entries = new ConcurrentHashMap<>();
+
+    EventMetrics() {
+    }
+
+    /**
+     * @return the bytes allocated by the current thread so far, or 0 if the JVM can't tell us
+     */
+    long allocatedBytes() {
+        com.sun.management.ThreadMXBean bean = AllocationBean.BEAN;
+        return bean == null ? 0 : bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Records a single invocation of a subscriber
+     */
+    void record(Class<?> eventClass, EventSubscriber subscriber, long nanos, long allocated, boolean failed) {
+        Map<Class<?>, Entry> byEvent = entries.get(subscriber);
+        if (byEvent == null) {
+            byEvent = entries.computeIfAbsent(subscriber, s -> new ConcurrentHashMap<>());
+        }
+
+        Entry entry = byEvent.get(eventClass);
+        if (entry == null) {
+            entry = byEvent.computeIfAbsent(eventClass, c -> new Entry(c, subscriber));
+        }
+
+        entry.record(nanos, allocated, failed);
+    }
+
+    /**
+     * Drops the entries of a subscriber which has been unregistered, so the metrics don't keep it alive
+     */
+    void remove(EventSubscriber subscriber) {
+        entries.remove(subscriber);
+    }
+
+    /**
+     * Drops every recorded entry
+     */
+    public void reset() {
+        entries.clear();
+    }
+
+    /**
+     * @return every entry, slowest (by total time) first
+     */
+    public List<Entry> getEntries() {
+        List<Entry> list = new ArrayList<>();
+        for (Map<Class<?>, Entry> byEvent : entries.values()) {
+            list.addAll(byEvent.values());
+        }
+        list.sort(Comparator.comparingLong(Entry::getTotalNanos).reversed());
+        return list;
+    }
+
+    /**
+     * Writes every entry to a CSV file, slowest first
+     *
+     * @param file The file to write to, parent directories are created if needed
+     * @throws IOException if the file couldn't be written
+     */
+    public void writeCsv(File file) throws IOException {
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IOException("Couldn't create " + parent);
+        }
+
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8))) {
+            writer.println(CSV_HEADER);
+            for (Entry entry : getEntries()) {
+                writer.println(entry.getEventName() + "," + entry.getSubscriberName() + "," + entry.getMethodName() + ","
+                    + entry.getInvocations() + "," + entry.getTotalNanos() + "," + entry.getMeanNanos() + ","
+                    + entry.getMaxNanos() + "," + entry.getAllocatedBytes() + "," + entry.getExceptions());
+            }
+        }
+    }
+
+    /**
+     * Holder so the management beans are only loaded once metrics are actually used
+     */
+    private static final class AllocationBean {
+
+        private static final com.sun.management.ThreadMXBean BEAN = find();
+
+        private static com.sun.management.ThreadMXBean find() {
+            try {
+                ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+                if (bean instanceof com.sun.management.ThreadMXBean && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+                    com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) bean;
+                    allocationBean.setThreadAllocatedMemoryEnabled(true);
+                    return allocationBean;
+                }
+            } catch (Throwable ignored) {
+                // not a HotSpot JVM, allocation will be reported as 0
+            }
+            return null;
+        }
+    }
+
+    public static final class Entry {
+
+        private final String eventName;
+        private final String subscriberName;
+        private final String methodName;
+
+        private final LongAdder invocations = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder allocatedBytes = new LongAdder();
+        private final LongAdder exceptions = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        Entry(Class<?> eventClass, EventSubscriber subscriber) {
+            this.eventName = eventClass.getSimpleName();
+            this.subscriberName = subscriber.getInstance().getClass().getName();
+            this.methodName = subscriber.getMethodName();
+        }
+
+        void record(long nanos, long allocated, boolean failed) {
+            invocations.increment();
+            totalNanos.add(nanos);
+            allocatedBytes.add(allocated);
+            if (failed) {
+                exceptions.increment();
+            }
+
+            long max;
+            while (nanos > (max = maxNanos.get())) {
+                if (maxNanos.compareAndSet(max, nanos)) {
+                    break;
+                }
+            }
+        }
+
+        public String getEventName() {
+            return eventName;
+        }
+
+        public String getSubscriberName() {
+            return subscriberName;
+        }
+
+        public String getMethodName() {
+            return methodName;
+        }
+
+        public long getInvocations() {
+            return invocations.sum();
+        }
+
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        public long getMeanNanos() {
+            long count = getInvocations();
+            return count == 0 ? 0 : getTotalNanos() / count;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+
+        public long getAllocatedBytes() {
+            return allocatedBytes.sum();
+        }
+
+        public long getExceptions() {
+            return exceptions.sum();
+        }
+    }
+}
@@ -33,10 +33,21 @@ public final class EventSubscriber {
     private final Method method;
     @NotNull
     private final Priority priority;
+    @NotNull
+    private final EventInvoker invoker;
+    @NotNull
+    private final Class<?> eventType;
+    private final boolean receiveCancelled;
+    private final boolean async;
+    private AsyncEventLane.Mailbox mailbox;
     private String objName;
     private String methodName;
 
     public EventSubscriber(@NotNull Object instance, @NotNull Method method, @NotNull Priority priority) {
+        this(instance, method, priority, true, false);
+    }
+
+    public EventSubscriber(@NotNull Object instance, @NotNull Method method, @NotNull Priority priority, boolean receiveCancelled, boolean async) {
         Preconditions.checkNotNull(instance, "instance cannot be null");
         Preconditions.checkNotNull(method, "method cannot be null");
         Preconditions.checkNotNull(priority, "priority cannot be null");
@@ -44,6 +55,10 @@ public final class EventSubscriber {
         this.instance = instance;
         this.method = method;
         this.priority = priority;
+        this.invoker = EventInvokerFactory.create(instance, method);
+        this.eventType = method.getParameterTypes()[0];
+        this.receiveCancelled = receiveCancelled;
+        this.async = async;
         this.objName = getInstance().getClass().getSimpleName().replace(".", "_");
         methodName = getMethod().getName();
     }
@@ -62,6 +77,42 @@ public final class EventSubscriber {
         return this.method;
     }
 
+    @NotNull
+    public final Class<?> getEventType() {
+        return this.eventType;
+    }
+
+    public final boolean isReceiveCancelled() {
+        return this.receiveCancelled;
+    }
+
+    public final boolean isAsync() {
+        return this.async;
+    }
+
+    AsyncEventLane.Mailbox getMailbox() {
+        return this.mailbox;
+    }
+
+    void setMailbox(AsyncEventLane.Mailbox mailbox) {
+        this.mailbox = mailbox;
+    }
+
+    @NotNull
+    public final EventInvoker getInvoker() {
+        return this.invoker;
+    }
+
+    /**
+     * Calls the subscriber method through its generated invoker
+     *
+     * @param event Event that is being posted
+     * @throws Throwable anything the subscriber method throws
+     */
+    public final void invoke(Object event) throws Throwable {
+        this.invoker.invoke(event);
+    }
+
     @NotNull
     public final Priority getPriority() {
         return this.priority;
@@ -19,7 +19,7 @@ package cc.hyperium.event;
 
 import net.minecraft.client.gui.GuiScreen;
 
-public class GuiDrawScreenEvent {
+public class GuiDrawScreenEvent implements RenderThreadEvent {
     private GuiScreen screen;
     private int mouseX;
     private int mouseY;
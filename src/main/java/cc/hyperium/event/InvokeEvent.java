@@ -31,4 +31,18 @@ import java.lang.annotation.Target;
 public @interface InvokeEvent {
 
     Priority priority() default Priority.NORMAL;
+
+    /**
+     * Whether the method is still called for a {@link CancellableEvent}
+     * that a higher priority subscriber has already cancelled
+     */
+    boolean receiveCancelled() default true;
+
+    /**
+     * Whether the method is called on an event worker thread instead of the posting thread.
+     * Events are still delivered to the method one at a time and in the order they were posted,
+     * but an async subscriber can't cancel the event and can only subscribe to a {@link SnapshotEvent}
+     * which isn't a {@link RenderThreadEvent}. If the method falls too far behind new events are dropped
+     */
+    boolean async() default false;
 }
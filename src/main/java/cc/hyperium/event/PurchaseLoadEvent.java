@@ -7,7 +7,7 @@ import java.util.UUID;
 import com.google.common.base.Preconditions;
 import org.jetbrains.annotations.NotNull;
 
-public final class PurchaseLoadEvent extends Event {
+public final class PurchaseLoadEvent extends Event implements SnapshotEvent {
 
     @NotNull
     private final UUID uuid;
@@ -3,7 +3,7 @@ package cc.hyperium.event;
 /**
  * Called when entities are about to be rendered in the world
  */
-public final class RenderEntitiesEvent extends Event {
+public final class RenderEntitiesEvent extends Event implements RenderThreadEvent {
 
     private final float partialTicks;
 
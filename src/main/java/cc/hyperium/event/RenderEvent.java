@@ -3,6 +3,6 @@ package cc.hyperium.event;
 /**
  * Invoked every frame; used to render in the 3D space
  */
-public class RenderEvent extends Event {
+public class RenderEvent extends Event implements RenderThreadEvent {
 
 }
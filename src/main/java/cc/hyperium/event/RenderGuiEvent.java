@@ -3,6 +3,6 @@ package cc.hyperium.event;
 /**
  * Invoked every frame; used to render in the ingame GUI
  */
-public class RenderGuiEvent extends Event {
+public class RenderGuiEvent extends Event implements RenderThreadEvent {
 
 }
@@ -3,7 +3,7 @@ package cc.hyperium.event;
 /**
  * Invoked when the hud of the client is rendered
  */
-public class RenderHUDEvent extends Event {
+public class RenderHUDEvent extends Event implements RenderThreadEvent {
 
     private final float partialTicks;
 
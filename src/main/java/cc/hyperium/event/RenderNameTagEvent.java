@@ -20,7 +20,7 @@ package cc.hyperium.event;
 import net.minecraft.client.entity.AbstractClientPlayer;
 import net.minecraft.client.renderer.entity.RenderManager;
 
-public class RenderNameTagEvent {
+public class RenderNameTagEvent implements RenderThreadEvent {
     public static boolean CANCEL = false;
     private AbstractClientPlayer entity;
     private RenderManager renderManager;
@@ -8,7 +8,7 @@ import org.jetbrains.annotations.NotNull;
 /**
  * Invoked when a player model is rendered
  */
-public final class RenderPlayerEvent extends Event {
+public final class RenderPlayerEvent extends Event implements RenderThreadEvent {
 
     @NotNull
     private final AbstractClientPlayer entity;
@@ -8,7 +8,7 @@ import org.jetbrains.annotations.NotNull;
 /**
  * Invoked when the scoreboard is rendered
  */
-public final class RenderScoreboardEvent extends CancellableEvent {
+public final class RenderScoreboardEvent extends CancellableEvent implements RenderThreadEvent {
 
     private final double x;
     private final double y;
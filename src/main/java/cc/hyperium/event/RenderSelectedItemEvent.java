@@ -7,7 +7,7 @@ import org.jetbrains.annotations.NotNull;
 /**
  * Invoked when the selected item is about to be rendered
  */
-public final class RenderSelectedItemEvent extends Event {
+public final class RenderSelectedItemEvent extends Event implements RenderThreadEvent {
 
     @NotNull
     private final ScaledResolution scaledRes;
@@ -1,4 +1,4 @@
 package cc.hyperium.event;
 
-public final class RenderTickEvent {
+public final class RenderTickEvent implements RenderThreadEvent {
 }
@@ -1,6 +1,6 @@
 package cc.hyperium.event;
 
-public final class RenderWorldEvent extends Event {
+public final class RenderWorldEvent extends Event implements RenderThreadEvent {
 
     private final float partialTicks;
 
@@ -1,5 +1,7 @@
 package cc.hyperium.event;
 
+import cc.hyperium.utils.chat.ChatClassification;
+import cc.hyperium.utils.chat.ChatClassifier;
 import net.minecraft.util.IChatComponent;
 
 /**
@@ -9,6 +11,7 @@ public class ServerChatEvent extends CancellableEvent {
 
     private final byte type;
     private IChatComponent chat;
+    private ChatClassification classification;
 
 
     public ServerChatEvent(byte type, IChatComponent chat) {
@@ -24,7 +27,19 @@ public class ServerChatEvent extends CancellableEvent {
         return this.chat;
     }
 
+    /**
+     * @return the message stripped of colour codes along with the chat patterns it could match, worked out once
+     * and shared by every subscriber
+     */
+    public ChatClassification getClassification() {
+        if (this.classification == null) {
+            this.classification = ChatClassifier.INSTANCE.classify(this.chat);
+        }
+        return this.classification;
+    }
+
     public void setChat(IChatComponent chat) {
         this.chat = chat;
+        this.classification = null;
     }
 }
@@ -0,0 +1,27 @@
+/*
+ *     Copyright (C) 2018  Hyperium <https://hyperium.cc/>
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published
+ *     by the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cc.hyperium.event;
+
+/**
+ * Marks events which are immutable snapshots: every field is final and nothing the event hands out
+ * is changed by the poster after the post. Only these events can be delivered to subscribers
+ * registered with {@link InvokeEvent#async()}, since they are read on a worker thread some time
+ * after the posting thread has moved on
+ */
+public interface SnapshotEvent {
+}
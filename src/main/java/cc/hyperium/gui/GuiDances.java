@@ -22,6 +22,7 @@ import org.lwjgl.opengl.GL11;
 import java.awt.Color;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 public class GuiDances extends HyperiumGui {
@@ -42,15 +43,9 @@ public class GuiDances extends HyperiumGui {
             NettyClient client = NettyClient.getClient();
             if (client != null && netty) {
                 client.write(ServerCrossDataPacket.build(new JsonHolder().put("type", "floss_update").put("flossing", true)));
-                Multithreading.runAsync(() -> {
-                    try {
-                        Thread.sleep(delay);
-                    } catch (InterruptedException e) {
-                        e.printStackTrace();
-                    }
+                Multithreading.schedule(() -> {
                     client.write(ServerCrossDataPacket.build(new JsonHolder().put("type", "floss_update").put("flossing", false)));
-
-                });
+                }, delay, TimeUnit.MILLISECONDS);
             }
         });
         this.handlers.put("Yeet", netty -> {
@@ -73,15 +68,9 @@ public class GuiDances extends HyperiumGui {
             NettyClient client = NettyClient.getClient();
             if (client != null && netty) {
                 client.write(ServerCrossDataPacket.build(new JsonHolder().put("type", "dab_update").put("dabbing", true)));
-                Multithreading.runAsync(() -> {
-                    try {
-                        Thread.sleep(delay);
-                    } catch (InterruptedException e) {
-                        e.printStackTrace();
-                    }
+                Multithreading.schedule(() -> {
                     client.write(ServerCrossDataPacket.build(new JsonHolder().put("type", "dab_update").put("dabbing", false)));
-
-                });
+                }, delay, TimeUnit.MILLISECONDS);
             }
         });
         this.cancel.put("Dab", () -> {
@@ -124,15 +113,9 @@ public class GuiDances extends HyperiumGui {
             NettyClient client = NettyClient.getClient();
             if (client != null && netty) {
                 client.write(ServerCrossDataPacket.build(new JsonHolder().put("type", "tpose_update").put("posing", true)));
-                Multithreading.runAsync(() -> {
-                    try {
-                        Thread.sleep(delay);
-                    } catch (InterruptedException e) {
-                        e.printStackTrace();
-                    }
+                Multithreading.schedule(() -> {
                     client.write(ServerCrossDataPacket.build(new JsonHolder().put("type", "tpose_update").put("posing", false)));
-
-                });
+                }, delay, TimeUnit.MILLISECONDS);
             }
         });
         this.cancel.put("T-Pose", () -> {
@@ -149,19 +132,12 @@ public class GuiDances extends HyperiumGui {
                     client.write(ServerCrossDataPacket.build(new JsonHolder().put("type", "flip_update").put("flip_state", state)));
                 }
 
-                Multithreading.runAsync(() -> {
-                    try {
-                        Thread.sleep(delay);
-                    } catch (InterruptedException e) {
-                        e.printStackTrace();
-                    }
+                Multithreading.schedule(() -> {
                     if (client != null && netty) {
                         client.write(ServerCrossDataPacket.build(new JsonHolder().put("type", "flip_update").put("flip_state", 0)));
                     }
                     Hyperium.INSTANCE.getHandlers().getFlipHandler().state(UUIDUtil.getClientUUID(), 0);
-
-
-                });
+                }, delay, TimeUnit.MILLISECONDS);
                 Hyperium.INSTANCE.getHandlers().getFlipHandler().resetTick();
             });
             this.cancel.put("Flip", () -> {
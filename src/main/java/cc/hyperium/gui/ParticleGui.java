@@ -34,6 +34,7 @@ import java.awt.Color;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Created by mitchellkatz on 6/25/18. Designed for production use on Sk1er.club
@@ -335,17 +336,12 @@ public class ParticleGui extends HyperiumGui implements GuiYesNoCallback {
             JsonHolder holder = purchaseSettings.optJSONObject("particle");
             holder.put("type", type.name());
             holder.put("particle_animation", name);
-            Multithreading.runAsync(() -> {
-                try {
-                    Thread.sleep(5000L);
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                }
+            Multithreading.schedule(() -> {
                 self.getPurchaseSettings().merge(oldsettings, true);
                 self.refreshCachedSettings();
                 EventBus.INSTANCE.post(new PurchaseLoadEvent(Objects.requireNonNull(UUIDUtil.getClientUUID()), self, true));
                 new ParticleGui().show();
-            });
+            }, 5000L, TimeUnit.MILLISECONDS);
             EventBus.INSTANCE.post(new PurchaseLoadEvent(Objects.requireNonNull(UUIDUtil.getClientUUID()), self, true));
 
             return;
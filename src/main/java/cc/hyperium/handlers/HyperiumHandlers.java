@@ -25,6 +25,7 @@ import cc.hyperium.event.TickEvent;
 import cc.hyperium.gui.ScoreboardRenderer;
 import cc.hyperium.handlers.handlers.BroadcastEvents;
 import cc.hyperium.handlers.handlers.CommandQueue;
+import cc.hyperium.handlers.handlers.CpsHandler;
 import cc.hyperium.handlers.handlers.FlipHandler;
 import cc.hyperium.handlers.handlers.FontRendererData;
 import cc.hyperium.handlers.handlers.GuiDisplayHandler;
@@ -83,6 +84,7 @@ public class HyperiumHandlers {
     private HypixelAPI dataHandler;
     private ResolutionUtil resolutionUtil;
     private StatusHandler statusHandler;
+    private CpsHandler cpsHandler;
     private GuiDisplayHandler guiDisplayHandler;
     private KeyBindHandler keybindHandler;
     private HyperiumCommandHandler commandHandler;
@@ -118,6 +120,7 @@ public class HyperiumHandlers {
         register(generalChatHandler = new GeneralChatHandler(chatHandlers));
         register(perspectiveHandler = new PerspectiveModifierHandler());
         register(keybindHandler = new KeyBindHandler());
+        register(cpsHandler = new CpsHandler());
         register(hypixelDetector = new HypixelDetector());
         register(flipHandler = new FlipHandler());
         register(reachDisplay = new ReachDisplay());
@@ -317,6 +320,10 @@ public class HyperiumHandlers {
         return capeHandler;
     }
 
+    public CpsHandler getCpsHandler() {
+        return cpsHandler;
+    }
+
     public StatusHandler getStatusHandler() {
         return statusHandler;
     }
@@ -0,0 +1,56 @@
+/*
+ *     Copyright (C) 2018  Hyperium <https://hyperium.cc/>
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published
+ *     by the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cc.hyperium.handlers.handlers;
+
+import cc.hyperium.event.InvokeEvent;
+import cc.hyperium.event.MouseButtonEvent;
+import cc.hyperium.utils.ClickCounter;
+
+/**
+ * Clicks per second for each mouse button, shared by the ChromaHUD and Keystrokes counters
+ */
+public class CpsHandler {
+
+    private final ClickCounter[] counters = {new ClickCounter(), new ClickCounter(), new ClickCounter()};
+
+    @InvokeEvent
+    public void onMouseButton(MouseButtonEvent event) {
+        if (event.getState() && event.getValue() >= 0 && event.getValue() < counters.length) {
+            counters[event.getValue()].record();
+        }
+    }
+
+    /**
+     * @param button 0 for left, 1 for right and 2 for middle
+     */
+    public int getCps(int button) {
+        return button >= 0 && button < counters.length ? counters[button].getCount() : 0;
+    }
+
+    public int getLeftCps() {
+        return getCps(0);
+    }
+
+    public int getRightCps() {
+        return getCps(1);
+    }
+
+    public int getMiddleCps() {
+        return getCps(2);
+    }
+}
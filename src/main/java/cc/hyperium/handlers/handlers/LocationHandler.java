@@ -33,15 +33,16 @@ import cc.hyperium.handlers.HyperiumHandlers;
 import cc.hyperium.netty.NettyClient;
 import cc.hyperium.netty.packet.packets.serverbound.ServerCrossDataPacket;
 import cc.hyperium.netty.packet.packets.serverbound.UpdateLocationPacket;
-import cc.hyperium.utils.ChatColor;
 import cc.hyperium.utils.JsonHolder;
+import cc.hyperium.utils.chat.ChatClassification;
+import cc.hyperium.utils.chat.ChatClassifier;
+import cc.hyperium.utils.chat.ChatPattern;
 
 import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 public class LocationHandler {
 
-    private final Pattern whereami = Pattern.compile("You are currently connected to server (?<server>.+)");
+    private final ChatPattern whereami = ChatClassifier.INSTANCE.register("You are currently connected to server (?<server>.+)");
     private String location = "";
     private boolean sendingWhereAmI = false;
     private long ticksInWorld = 0;
@@ -71,11 +72,11 @@ public class LocationHandler {
 
     @InvokeEvent
     public void chatRecieve(ServerChatEvent event) {
-        if (!Hyperium.INSTANCE.getHandlers().getHypixelDetector().isHypixel())
+        HypixelDetector detector = HypixelDetector.getInstance();
+        if (detector == null || !detector.isHypixel())
             return;
-        String raw = ChatColor.stripColor(event.getChat().getUnformattedText());
-        Matcher whereAmIMatcher = whereami.matcher(raw);
-        if (raw.equalsIgnoreCase("you are currently in limbo")) {
+        ChatClassification classification = event.getClassification();
+        if (classification.getText().equalsIgnoreCase("you are currently in limbo")) {
             EventBus.INSTANCE.post(new ServerSwitchEvent(this.location, "Limbo"));
             this.location = "Limbo";
             if (sendingWhereAmI) {
@@ -85,7 +86,8 @@ public class LocationHandler {
 
             return;
         }
-        if (!whereAmIMatcher.matches()) {
+        Matcher whereAmIMatcher = classification.matches(whereami);
+        if (whereAmIMatcher == null) {
             return;
         }
 
@@ -2,14 +2,18 @@ package cc.hyperium.handlers.handlers;
 
 import cc.hyperium.event.InvokeEvent;
 import cc.hyperium.event.WorldChangeEvent;
-import cc.hyperium.mods.sk1ercommon.Multithreading;
-import cc.hyperium.purchases.PurchaseApi;
+import cc.hyperium.utils.PlayerDataStore;
+import cc.hyperium.utils.http.HyperiumHttpClient;
 
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 public class StatusHandler {
 
+    private static final String STORE_NAMESPACE = "status";
+    private static final long STALE_MINUTES = 2;
+
     private ConcurrentHashMap<UUID, Boolean> status = new ConcurrentHashMap<>();
 
     @InvokeEvent
@@ -19,9 +23,17 @@ public class StatusHandler {
 
     public boolean isOnline(UUID uuid) {
         if (!status.containsKey(uuid)) {
-            status.put(uuid, false);
-            Multithreading.runAsync(() -> status.put(uuid, PurchaseApi.getInstance().get("https://api.hyperium.cc/online/" + uuid).optBoolean("status")));
-            return false;
+            PlayerDataStore.Record stored = PlayerDataStore.INSTANCE.get(STORE_NAMESPACE, uuid);
+            status.put(uuid, stored != null && Boolean.parseBoolean(stored.getData()));
+            if (stored == null || stored.isStale(STALE_MINUTES, TimeUnit.MINUTES)) {
+                HyperiumHttpClient.INSTANCE.get("https://api.hyperium.cc/online/" + uuid).thenAccept(response -> {
+                    if (response.isSuccessful()) {
+                        boolean online = response.asJson().optBoolean("status");
+                        status.put(uuid, online);
+                        PlayerDataStore.INSTANCE.put(STORE_NAMESPACE, uuid, Boolean.toString(online));
+                    }
+                });
+            }
         }
         return status.getOrDefault(uuid, false);
     }
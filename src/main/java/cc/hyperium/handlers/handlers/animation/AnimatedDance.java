@@ -32,7 +32,7 @@ public abstract class AnimatedDance extends AbstractPreCopyAnglesAnimationHandle
     private HashMap<UUID, Long> states = new HashMap<>();
 
     public AnimatedDance() {
-        Multithreading.runAsync(() -> generateFrames(getData()));
+        Multithreading.runCompute(() -> generateFrames(getData()));
     }
 
     public static void Frame(Scanner scanner) {
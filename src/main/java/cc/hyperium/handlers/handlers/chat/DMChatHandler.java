@@ -18,24 +18,23 @@
 package cc.hyperium.handlers.handlers.chat;
 
 import cc.hyperium.config.Settings;
+import cc.hyperium.utils.chat.ChatClassification;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.audio.PositionedSoundRecord;
 import net.minecraft.client.audio.SoundHandler;
 import net.minecraft.util.IChatComponent;
 import net.minecraft.util.ResourceLocation;
 
-import java.util.regex.Matcher;
 
 public class DMChatHandler extends HyperiumChatHandler {
 
 
     @Override
-    public boolean chatReceived(IChatComponent component, String text) {
+    public boolean chatReceived(IChatComponent component, ChatClassification classification) {
         if (!Settings.PING_ON_DM)
             return false;
 
-        Matcher matcher = regexPatterns.get(ChatRegexType.PRIVATE_MESSAGE_FROM).matcher(text);
-        if (matcher.matches()) {
+        if (match(classification, ChatRegexType.PRIVATE_MESSAGE_FROM) != null) {
             SoundHandler soundHandler = Minecraft.getMinecraft().getSoundHandler();
             if (soundHandler != null && Minecraft.getMinecraft().theWorld != null) {
                 soundHandler.playSound(PositionedSoundRecord.create(new ResourceLocation("note.pling"), (float) Minecraft.getMinecraft().thePlayer.posX, (float) Minecraft.getMinecraft().thePlayer.posY, (float) Minecraft.getMinecraft().thePlayer.posZ));
@@ -3,17 +3,22 @@ package cc.hyperium.handlers.handlers.chat;
 import cc.hyperium.event.EventBus;
 import cc.hyperium.event.FriendRemoveEvent;
 import cc.hyperium.event.HypixelFriendRequestEvent;
+import cc.hyperium.utils.chat.ChatClassification;
+import cc.hyperium.utils.chat.ChatClassifier;
+import cc.hyperium.utils.chat.ChatPattern;
 import net.minecraft.util.IChatComponent;
 
 import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 public class FriendRequestChatHandler extends HyperiumChatHandler {
 
+    private static final ChatPattern FRIEND_REMOVED = ChatClassifier.INSTANCE.register("You removed ((?<rank>\\[.+] )?(?<player>\\w+)) from your friends list!");
+
     @Override
-    public boolean chatReceived(IChatComponent component, String text) {
-        Matcher matcher1 = Pattern.compile("You removed ((?<rank>\\[.+] )?(?<player>\\w+)) from your friends list!").matcher(text);
-        if (matcher1.find()) {
+    public boolean chatReceived(IChatComponent component, ChatClassification classification) {
+        String text = classification.getText();
+        Matcher matcher1 = classification.find(FRIEND_REMOVED);
+        if (matcher1 != null) {
             String rank = "";
             try {
                 rank = matcher1.group("rank");
@@ -27,8 +32,8 @@ public class FriendRequestChatHandler extends HyperiumChatHandler {
             return false;
         }
 
-        Matcher matcher = regexPatterns.get(ChatRegexType.FRIEND_REQUEST).matcher(text);
-        if (matcher.find()) {
+        Matcher matcher = find(classification, ChatRegexType.FRIEND_REQUEST);
+        if (matcher != null) {
             EventBus.INSTANCE.post(new HypixelFriendRequestEvent(matcher.group("player")));
         }
 
@@ -23,6 +23,7 @@ import cc.hyperium.event.InvokeEvent;
 import cc.hyperium.event.TickEvent;
 import cc.hyperium.utils.ChatColor;
 import cc.hyperium.utils.JsonHolder;
+import cc.hyperium.utils.chat.ChatClassifier;
 import cc.hyperium.config.Settings;
 import cc.hyperium.config.ConfigOpt;
 import com.google.gson.JsonParser;
@@ -130,7 +131,7 @@ public class GeneralChatHandler {
                 // Is reversed because chathandlers weren't called if state was false, since
                 // false && boolean will always be false, so it skipped the
                 // HyperiumChatHandler#chatReceived method
-                state = chatHandler.chatReceived(event.getChat(), strip(event.getChat())) && state;
+                state = chatHandler.chatReceived(event.getChat(), event.getClassification()) && state;
 
             } catch (Exception e) {
                 e.printStackTrace();
@@ -146,6 +147,7 @@ public class GeneralChatHandler {
         JsonHolder data = new JsonHolder(new JsonParser().parse(new InputStreamReader(GeneralChatHandler.class.getResourceAsStream("/remoteresources/chat_regex.json"))).getAsJsonObject());
 
         HyperiumChatHandler.regexPatterns = new EnumMap<>(HyperiumChatHandler.ChatRegexType.class);
+        HyperiumChatHandler.chatPatterns = new EnumMap<>(HyperiumChatHandler.ChatRegexType.class);
 
         for (HyperiumChatHandler.ChatRegexType type : HyperiumChatHandler.ChatRegexType.values()) {
             if (!data.has(type.name().toLowerCase())) {
@@ -153,7 +155,9 @@ public class GeneralChatHandler {
                 continue;
             }
 
-            HyperiumChatHandler.regexPatterns.put(type, Pattern.compile(data.optString(type.name().toLowerCase())));
+            Pattern pattern = Pattern.compile(data.optString(type.name().toLowerCase()));
+            HyperiumChatHandler.regexPatterns.put(type, pattern);
+            HyperiumChatHandler.chatPatterns.put(type, ChatClassifier.INSTANCE.register(pattern));
         }
 
         this.posted = true;
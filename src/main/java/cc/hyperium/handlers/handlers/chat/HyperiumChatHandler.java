@@ -19,8 +19,11 @@ package cc.hyperium.handlers.handlers.chat;
 
 import cc.hyperium.Hyperium;
 import cc.hyperium.utils.JsonHolder;
+import cc.hyperium.utils.chat.ChatClassification;
+import cc.hyperium.utils.chat.ChatPattern;
 
 import java.util.Map;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import net.minecraft.util.IChatComponent;
@@ -32,6 +35,8 @@ public abstract class HyperiumChatHandler {
 
     // Resource *should* be loaded by then so
     protected static Map<ChatRegexType, Pattern> regexPatterns;
+    // The same patterns registered with the chat classifier
+    protected static Map<ChatRegexType, ChatPattern> chatPatterns;
 
     public Hyperium getHyperium() {
         return Hyperium.INSTANCE;
@@ -42,7 +47,37 @@ public abstract class HyperiumChatHandler {
      * @param text      Pure text for parsign
      * @return boolean to cancel event
      */
-    public abstract boolean chatReceived(IChatComponent component, String text);
+    public boolean chatReceived(IChatComponent component, String text) {
+        return false;
+    }
+
+    /**
+     * Called instead of {@link #chatReceived(IChatComponent, String)} by the {@link GeneralChatHandler}, override
+     * this to only run the patterns the message could match
+     *
+     * @param component      Entire component from event
+     * @param classification The stripped message and the patterns it might match
+     * @return boolean to cancel event
+     */
+    public boolean chatReceived(IChatComponent component, ChatClassification classification) {
+        return chatReceived(component, classification.getText());
+    }
+
+    /**
+     * @return a matcher which matched the whole message, or null if the pattern wasn't loaded or didn't match
+     */
+    protected Matcher match(ChatClassification classification, ChatRegexType type) {
+        ChatPattern pattern = chatPatterns.get(type);
+        return pattern == null ? null : classification.matches(pattern);
+    }
+
+    /**
+     * @return a matcher which found the pattern in the message, or null if the pattern wasn't loaded or isn't there
+     */
+    protected Matcher find(ChatClassification classification, ChatRegexType type) {
+        ChatPattern pattern = chatPatterns.get(type);
+        return pattern == null ? null : classification.find(pattern);
+    }
 
     public void callback(JsonHolder data) {
 
@@ -2,6 +2,7 @@ package cc.hyperium.handlers.handlers.chat;
 
 import cc.hyperium.event.EventBus;
 import cc.hyperium.event.HypixelPartyInviteEvent;
+import cc.hyperium.utils.chat.ChatClassification;
 import net.minecraft.util.IChatComponent;
 
 import java.util.regex.Matcher;
@@ -9,14 +10,14 @@ import java.util.regex.Matcher;
 public class PartyInviteChatHandler extends HyperiumChatHandler {
 
     @Override
-    public boolean chatReceived(IChatComponent component, String text) {
-        if (!text.toLowerCase().contains("their party!")) {
+    public boolean chatReceived(IChatComponent component, ChatClassification classification) {
+        if (!classification.getText().toLowerCase().contains("their party!")) {
             return false;
         }
 
-        Matcher matcher = regexPatterns.get(ChatRegexType.PARTY_INVITE).matcher(text);
+        Matcher matcher = find(classification, ChatRegexType.PARTY_INVITE);
 
-        if (matcher.find()) {
+        if (matcher != null) {
             EventBus.INSTANCE.post(new HypixelPartyInviteEvent(matcher.group("player")));
         }
 
@@ -169,6 +169,7 @@
 package cc.hyperium.handlers.handlers.chat;
 
 import cc.hyperium.Hyperium;
+import cc.hyperium.utils.chat.ChatClassification;
 import com.google.common.io.Files;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
@@ -200,9 +201,9 @@ public class QuestTrackingChatHandler extends HyperiumChatHandler {
     }
 
     @Override
-    public boolean chatReceived(IChatComponent component, String text) {
-        Matcher matcher = regexPatterns.get(ChatRegexType.QUEST_COMPLETE).matcher(text);
-        if (matcher.matches()) {
+    public boolean chatReceived(IChatComponent component, ChatClassification classification) {
+        Matcher matcher = match(classification, ChatRegexType.QUEST_COMPLETE);
+        if (matcher != null) {
             JsonObject record = new JsonObject();
             record.add("name", new JsonPrimitive(matcher.group("name")));
             record.add("type", new JsonPrimitive(matcher.group("type")));
@@ -20,10 +20,11 @@ package cc.hyperium.handlers.handlers.chat;
 import cc.hyperium.event.EventBus;
 import cc.hyperium.event.RankedRatingChangeEvent;
 import cc.hyperium.utils.SafeNumberParsing;
+import cc.hyperium.utils.chat.ChatClassification;
+import cc.hyperium.utils.chat.ChatPattern;
 import net.minecraft.util.IChatComponent;
 
 import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * @author Sk1er
@@ -31,10 +32,13 @@ import java.util.regex.Pattern;
 public class RankedRatingChatHandler extends HyperiumChatHandler {
 
     @Override
-    public boolean chatReceived(IChatComponent component, String text) {
-        text = text.trim();
-        Pattern pattern = regexPatterns.get(ChatRegexType.SKYWARS_RATING);
-        Matcher matcher = pattern.matcher(text);
+    public boolean chatReceived(IChatComponent component, ChatClassification classification) {
+        ChatPattern pattern = chatPatterns.get(ChatRegexType.SKYWARS_RATING);
+        if (pattern == null || !classification.isCandidate(pattern)) {
+            return false;
+        }
+        // matched against the trimmed message, so it can't use the shared result
+        Matcher matcher = pattern.getPattern().matcher(classification.getText().trim());
         if (matcher.matches()) {
             int rating = SafeNumberParsing.safeParseInt(matcher.group("rating"), getHyperium().getHandlers().getValueHandler().getRankedRating());
             int change = SafeNumberParsing.safeParseInt(matcher.group("change"), getHyperium().getHandlers().getValueHandler().getDeltaRankedRating());
@@ -170,6 +170,7 @@ package cc.hyperium.handlers.handlers.chat;
 
 import cc.hyperium.event.EventBus;
 import cc.hyperium.event.HypixelWinEvent;
+import cc.hyperium.utils.chat.ChatClassification;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.entity.EntityPlayerSP;
 import net.minecraft.util.IChatComponent;
@@ -184,9 +185,10 @@ import java.util.regex.Matcher;
 public class WinTrackingChatHandler extends HyperiumChatHandler {
 
     @Override
-    public boolean chatReceived(IChatComponent component, String text) {
-        Matcher matcher = regexPatterns.get(ChatRegexType.WIN).matcher(text);
-        if (matcher.matches()) {
+    public boolean chatReceived(IChatComponent component, ChatClassification classification) {
+        String text = classification.getText();
+        Matcher matcher = match(classification, ChatRegexType.WIN);
+        if (matcher != null) {
             String winnersString = matcher.group("winners");
             String[] winners = winnersString.split(", ");
 
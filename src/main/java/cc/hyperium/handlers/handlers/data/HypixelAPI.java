@@ -32,19 +32,19 @@ public class HypixelAPI {
     private final AsyncLoadingCache<String, HypixelApiPlayer> PLAYERS = Caffeine.newBuilder()
         .maximumSize(1_000)
         .expireAfterWrite(Duration.ofMinutes(5))
-        .executor(Multithreading.POOL)
+        .executor(Multithreading.NETWORK)
         .buildAsync(this::getApiPlayer);
 
     private final AsyncLoadingCache<String, HypixelApiFriends> FRIENDS = Caffeine.newBuilder()
         .maximumSize(1_000)
         .expireAfterWrite(Duration.ofMinutes(5))
-        .executor(Multithreading.POOL)
+        .executor(Multithreading.NETWORK)
         .buildAsync(this::getApiFriends);
 
     private final AsyncLoadingCache<String, HypixelApiGuild> GUILDS = Caffeine.newBuilder()
         .maximumSize(1_000)
         .expireAfterWrite(Duration.ofMinutes(5))
-        .executor(Multithreading.POOL)
+        .executor(Multithreading.NETWORK)
         .buildAsync(this::getApiGuild);
 
     private List<Leaderboard> LEADERBOARDS = null;
@@ -133,7 +133,7 @@ public class HypixelAPI {
             return holder.getKeys().stream().map(
                 key -> new Leaderboard(key, holder.optString(key))
             ).collect(Collectors.toList());
-        }, Multithreading.POOL).whenComplete((leaderboards, error) -> {
+        }, Multithreading.NETWORK).whenComplete((leaderboards, error) -> {
             if (error != null) LEADERBOARDS = leaderboards;
         });
     }
@@ -145,7 +145,7 @@ public class HypixelAPI {
     public CompletableFuture<JsonHolder> getLeaderboardWithID(String ID) {
         return CompletableFuture.supplyAsync(() -> new JsonHolder(
             Sk1erMod.getInstance().rawWithAgent("https://api.sk1er.club/leaderboard/" + ID)
-        ), Multithreading.POOL);
+        ), Multithreading.NETWORK);
     }
 
     /* QUESTS */
@@ -157,7 +157,7 @@ public class HypixelAPI {
 
         return CompletableFuture.supplyAsync(
             () -> new JsonHolder(Sk1erMod.getInstance().rawWithAgent("https://api.hyperium.cc/quests")),
-            Multithreading.POOL
+            Multithreading.NETWORK
         ).whenComplete((quests, error) -> {
             if (error != null) return;
 
@@ -16,6 +16,7 @@ import cc.hyperium.handlers.handlers.particle.animations.TripleTwirlAnimation;
 import cc.hyperium.handlers.handlers.particle.animations.VortexOfDoomAnimation;
 import cc.hyperium.mixins.entity.IMixinEntityFx;
 import cc.hyperium.purchases.HyperiumPurchase;
+import cc.hyperium.utils.ChromaColors;
 import cc.hyperium.utils.JsonHolder;
 import cc.hyperium.utils.UUIDUtil;
 import net.minecraft.client.Minecraft;
@@ -24,7 +25,6 @@ import net.minecraft.client.particle.EntityFX;
 import net.minecraft.util.EnumParticleTypes;
 import net.minecraft.util.Vec3;
 
-import java.awt.Color;
 import java.util.ArrayList;
 import java.util.EnumMap;
 import java.util.HashMap;
@@ -145,9 +145,8 @@ public class ParticleAuraHandler {
                     int particleMaxAge = particleAura.getParticleMaxAge();
                     IMixinEntityFx e = (IMixinEntityFx) entityFX;
                     if (particleAura.isChroma()) {
-                        int i = Color.HSBtoRGB(System.currentTimeMillis() % 1000L / 1000.0f, 0.8f, 0.8f);
-                        Color color = new Color(i);
-                        entityFX.setRBGColorF(color.getRed() / 255F, color.getGreen() / 255F, color.getBlue() / 255F);
+                        int i = ChromaColors.INSTANCE.getColor(1000);
+                        entityFX.setRBGColorF((i >> 16 & 255) / 255F, (i >> 8 & 255) / 255F, (i & 255) / 255F);
                     } else if (particleAura.isRgb()) {
                         entityFX.setRBGColorF(particleAura.getRed() / 255F, particleAura.getBlue() / 255F, particleAura.getBlue() / 255F);
                     }
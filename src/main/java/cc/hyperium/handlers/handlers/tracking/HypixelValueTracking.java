@@ -9,7 +9,6 @@ import cc.hyperium.mods.sk1ercommon.Multithreading;
 import cc.hyperium.utils.JsonHolder;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import org.apache.commons.io.FileUtils;
 
@@ -17,85 +16,122 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.Date;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
 
 public class HypixelValueTracking {
 
     private final Gson GSON = new GsonBuilder().create();
-    private List<ValueTrackingItem> currentCache = new ArrayList<>();
+    private final File folder = new File(Hyperium.folder, "tracking");
+    private final Queue<ValueTrackingItem> pending = new ConcurrentLinkedQueue<>();
+    private final Map<ValueTrackingType, ValueTrackingLog> logs = new EnumMap<>(ValueTrackingType.class);
+    private boolean loaded;
 
     public HypixelValueTracking() {
         Multithreading.schedule(() -> {
-            if (currentCache.isEmpty())
+            if (pending.isEmpty())
                 return;
-            ArrayList<ValueTrackingItem> values = new ArrayList<>(currentCache);
-            currentCache.clear();
-            File current = getCurrent();
-            JsonHolder jsonHolder = readFile(current);
-            if (!jsonHolder.has("data")) {
-                //idk for some reason the method in Json holder for this is private
-                jsonHolder.getObject().add("data", new JsonArray());
+            Map<ValueTrackingType, List<ValueTrackingItem>> values = new EnumMap<>(ValueTrackingType.class);
+            ValueTrackingItem item;
+            while ((item = pending.poll()) != null) {
+                values.computeIfAbsent(item.getType(), type -> new ArrayList<>()).add(item);
             }
-            JsonArray data = jsonHolder.optJSONArray("data");
-            for (ValueTrackingItem value : values) {
-                data.add(new JsonHolder(GSON.toJson(value)).getObject());
+            for (Map.Entry<ValueTrackingType, List<ValueTrackingItem>> entry : values.entrySet()) {
+                entry.getValue().sort(Comparator.comparingLong(ValueTrackingItem::getTime));
+                try {
+                    getLog(entry.getKey()).append(entry.getValue());
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
             }
-            saveFile(current, jsonHolder.toString());
         }, 1, 1, TimeUnit.SECONDS);
     }
 
     public List<ValueTrackingItem> getItemsBetween(long first, long second) {
+        return getItemsBetween(first, second, 0);
+    }
+
+    /**
+     * Items of every type between the two times, in ascending time order.
+     *
+     * @param resolution the finest detail the caller needs, in milliseconds. From an hour
+     *                   upwards, hourly or daily rollups are returned instead of every item.
+     */
+    public List<ValueTrackingItem> getItemsBetween(long first, long second, long resolution) {
         List<ValueTrackingItem> items = new ArrayList<>();
-        long current = first;
-        while (current <= second) {
-            List<ValueTrackingItem> allItemsOnDay = getAllItemsOnDay(current);
-            items.addAll(allItemsOnDay.stream().filter(valueTrackingItem -> valueTrackingItem.getTime() > first && valueTrackingItem.getTime() < second).collect(Collectors.toList()));
-            current += TimeUnit.DAYS.toMillis(1);
+        for (ValueTrackingType type : ValueTrackingType.values()) {
+            try {
+                ValueTrackingLog log = getLog(type);
+                if (resolution >= TimeUnit.DAYS.toMillis(1)) {
+                    log.readRollups(true, first, second, items);
+                } else if (resolution >= TimeUnit.HOURS.toMillis(1)) {
+                    log.readRollups(false, first, second, items);
+                } else {
+                    log.read(first, second, items);
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
         }
         items.sort(Comparator.comparingLong(ValueTrackingItem::getTime));
         return items;
     }
 
-
-    private List<ValueTrackingItem> getAllItemsOnDay(long day) {
-        JsonHolder jsonHolder = readFile(getFileOnDay(day));
-        ArrayList<ValueTrackingItem> valueTrackingItems = new ArrayList<>();
-        for (JsonElement data : jsonHolder.optJSONArray("data")) {
-            valueTrackingItems.add(GSON.fromJson(data.getAsJsonObject(), ValueTrackingItem.class));
+    private synchronized ValueTrackingLog getLog(ValueTrackingType type) throws IOException {
+        if (!loaded) {
+            loaded = true;
+            folder.mkdirs();
+            for (ValueTrackingType value : ValueTrackingType.values()) {
+                logs.put(value, new ValueTrackingLog(value, new File(folder, value.name().toLowerCase() + ".bin")));
+            }
+            File marker = new File(folder, "imported");
+            if (!marker.exists()) {
+                importJsonFiles();
+                marker.createNewFile();
+            }
         }
-        return valueTrackingItems;
-
+        ValueTrackingLog log = logs.get(type);
+        log.open();
+        return log;
     }
 
-    private File getFileOnDay(long day) {
-        Date time = new Date(day);
-        File year_file = new File(Hyperium.folder,/* "stats" + File.pathSeparator + UUIDUtil.getClientUUID() + File.pathSeparator + */Integer.toString(time.getYear()));
-        if (!year_file.exists()) {
-            year_file.mkdirs();
+    /**
+     * Moves items from the per-day JSON files used before the binary logs. Those files were
+     * named by day of the month only, so one file can hold items from several months.
+     * <p>
+     * Runs before any log is opened. Logs are merged rather than appended to, so if the import
+     * fails part way and runs again on the next launch nothing is imported twice.
+     */
+    private void importJsonFiles() throws IOException {
+        Map<ValueTrackingType, List<ValueTrackingItem>> values = new EnumMap<>(ValueTrackingType.class);
+        File[] years = Hyperium.folder.listFiles(file -> file.isDirectory() && file.getName().matches("\\d+"));
+        if (years == null) {
+            return;
         }
-        File month_file = new File(year_file, Integer.toString(time.getYear()));
-        if (!month_file.exists()) {
-            month_file.mkdirs();
+        for (File year : years) {
+            File[] days = new File(year, year.getName()).listFiles(file -> file.isFile() && file.getName().matches("\\d+"));
+            if (days == null) {
+                continue;
+            }
+            for (File day : days) {
+                for (JsonElement data : readFile(day).optJSONArray("data")) {
+                    ValueTrackingItem item = GSON.fromJson(data.getAsJsonObject(), ValueTrackingItem.class);
+                    if (item.getType() != null) {
+                        values.computeIfAbsent(item.getType(), type -> new ArrayList<>()).add(item);
+                    }
+                }
+            }
         }
-
-        return new File(month_file, Integer.toString(time.getDate()));
-    }
-
-    private void saveFile(File file, String data) {
-        try {
-            FileUtils.write(file, data, "UTF-8");
-        } catch (IOException e) {
-            e.printStackTrace();
+        for (Map.Entry<ValueTrackingType, List<ValueTrackingItem>> entry : values.entrySet()) {
+            logs.get(entry.getKey()).merge(entry.getValue());
         }
     }
 
     private JsonHolder readFile(File file) {
-        if (!file.exists()) {
-            return new JsonHolder();
-        }
         try {
             return new JsonHolder(FileUtils.readFileToString(file, "UTF-8"));
         } catch (Exception e) {
@@ -105,10 +141,6 @@ public class HypixelValueTracking {
 
     }
 
-    private File getCurrent() {
-        return getFileOnDay(System.currentTimeMillis());
-    }
-
     @InvokeEvent
     public void ratingChangeEvent(RankedRatingChangeEvent event) {
         post(ValueTrackingType.RANKED_RATING, event.getRating());
@@ -129,7 +161,7 @@ public class HypixelValueTracking {
     }
 
     public void post(ValueTrackingType item, int value, long time) {
-        currentCache.add(new ValueTrackingItem(item, value, time));
+        pending.add(new ValueTrackingItem(item, value, time));
     }
 
 
@@ -40,14 +40,13 @@ public class StatisticViewingGui extends HyperiumGui {
     }
 
     private void refreshData() {
-        //Guaranteed to be in ascending order
-
-        masterDataSet = Hyperium.INSTANCE.getHandlers().getHypixelValueTracking().getItemsBetween(masterTimeOne, masterTimeTwo);
+        //Guaranteed to be in ascending order. Long ranges are served from hourly or daily rollups
+        long delta = (masterTimeTwo - masterTimeOne) / DATA_POINTS;
+        masterDataSet = Hyperium.INSTANCE.getHandlers().getHypixelValueTracking().getItemsBetween(masterTimeOne, masterTimeTwo, delta);
 
         //Put data into different slots based on time
         ArrayList<ValueTrackingItem> tmp = new ArrayList<>(masterDataSet);
         masterDataSet.clear();
-        long delta = (masterTimeTwo - masterTimeOne) / DATA_POINTS;
         HashMap<Integer, List<ValueTrackingItem>> itemMap = new HashMap<>();
         for (ValueTrackingItem valueTrackingItem : tmp) {
             itemMap.computeIfAbsent((int) ((valueTrackingItem.getTime() - masterTimeOne) / delta), integer -> new ArrayList<>()).add(valueTrackingItem);
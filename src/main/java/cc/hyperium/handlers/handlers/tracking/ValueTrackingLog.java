@@ -0,0 +1,274 @@
+package cc.hyperium.handlers.handlers.tracking;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Append-only history of one {@link ValueTrackingType}.
+ * <p>
+ * The file is an 8 byte header followed by 12 byte (time, value) records in time order.
+ * Every {@link #INDEX_STRIDE}th record's time is kept in memory as a sparse index, and
+ * hourly and daily rollups are kept alongside. Both are rebuilt with a single pass when the
+ * log is opened. Range reads go through a memory mapping of the file.
+ */
+public class ValueTrackingLog {
+
+    private static final int MAGIC = 0x48565431; // HVT1
+    private static final int HEADER = 8;
+    private static final int RECORD = 12;
+    private static final int INDEX_STRIDE = 1024;
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+    private static final long DAY = TimeUnit.DAYS.toMillis(1);
+
+    private final ValueTrackingType type;
+    private final File file;
+    private final TreeMap<Long, Rollup> hourly = new TreeMap<>();
+    private final TreeMap<Long, Rollup> daily = new TreeMap<>();
+
+    private FileChannel channel;
+    private MappedByteBuffer mapped;
+    private long mappedCount;
+    private long count;
+    private long lastTime = Long.MIN_VALUE;
+    private long[] index = new long[16];
+
+    public ValueTrackingLog(ValueTrackingType type, File file) {
+        this.type = type;
+        this.file = file;
+    }
+
+    public synchronized void open() throws IOException {
+        if (channel != null) {
+            return;
+        }
+
+        channel = new RandomAccessFile(file, "rw").getChannel();
+        if (channel.size() < HEADER) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER);
+            header.putInt(MAGIC).putInt(1).flip();
+            channel.truncate(0);
+            write(header, 0);
+        } else {
+            ByteBuffer header = ByteBuffer.allocate(HEADER);
+            channel.read(header, 0);
+            if (header.getInt(0) != MAGIC) {
+                throw new IOException("Not a value tracking log: " + file);
+            }
+        }
+
+        // Drop a record cut short by a crash mid-write
+        count = (channel.size() - HEADER) / RECORD;
+        channel.truncate(HEADER + count * RECORD);
+
+        if (count > 0) {
+            ByteBuffer buffer = map();
+            for (long i = 0; i < count; i++) {
+                int position = (int) (HEADER + i * RECORD);
+                addToIndex(i, buffer.getLong(position), buffer.getInt(position + 8));
+            }
+        }
+    }
+
+    /**
+     * Appends items, which must be sorted by time. A time earlier than the last record, from
+     * the clock going backwards, is written as the last record's time to keep the log sorted.
+     */
+    public synchronized void append(List<ValueTrackingItem> items) throws IOException {
+        if (items.isEmpty()) {
+            return;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(items.size() * RECORD);
+        long time = lastTime;
+        for (ValueTrackingItem item : items) {
+            time = Math.max(item.getTime(), time);
+            buffer.putLong(time).putInt(item.getValue());
+        }
+        buffer.flip();
+        write(buffer, HEADER + count * RECORD);
+
+        // Only index once the records are written, so a failed write leaves nothing half counted
+        for (int i = 0; i < items.size(); i++) {
+            addToIndex(count++, buffer.getLong(i * RECORD), buffer.getInt(i * RECORD + 8));
+        }
+    }
+
+    /**
+     * Merges items from any point in time into a log which hasn't been opened yet. Items already
+     * in the log with the same time and value are skipped, so merging the same items twice changes
+     * nothing, and the merged log is written to a temporary file and moved over this one, so a
+     * failure part way leaves the log as it was.
+     */
+    public synchronized void merge(List<ValueTrackingItem> items) throws IOException {
+        if (channel != null) {
+            throw new IllegalStateException("Can't merge into an open log: " + file);
+        }
+
+        List<ValueTrackingItem> merged = readAll();
+        Set<Map.Entry<Long, Integer>> logged = new HashSet<>();
+        for (ValueTrackingItem item : merged) {
+            logged.add(new AbstractMap.SimpleImmutableEntry<>(item.getTime(), item.getValue()));
+        }
+        int existing = merged.size();
+        for (ValueTrackingItem item : items) {
+            if (!logged.contains(new AbstractMap.SimpleImmutableEntry<>(item.getTime(), item.getValue()))) {
+                merged.add(item);
+            }
+        }
+        if (merged.size() == existing) {
+            return;
+        }
+        merged.sort(Comparator.comparingLong(ValueTrackingItem::getTime));
+
+        File temp = new File(file.getPath() + ".tmp");
+        Files.deleteIfExists(temp.toPath());
+        ValueTrackingLog log = new ValueTrackingLog(type, temp);
+        try {
+            log.open();
+            log.append(merged);
+            log.channel.force(false);
+        } finally {
+            log.close();
+        }
+        try {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Adds every record strictly between the two times to {@code out}, in time order.
+     */
+    public synchronized void read(long from, long to, List<ValueTrackingItem> out) throws IOException {
+        if (count == 0 || from >= lastTime) {
+            return;
+        }
+
+        // An indexed block starting at or before from, then a scan of at most one block to reach it
+        int block = Arrays.binarySearch(index, 0, (int) ((count - 1) / INDEX_STRIDE + 1), from);
+        if (block < 0) {
+            block = Math.max(0, -block - 2);
+        }
+
+        ByteBuffer buffer = map();
+        for (long i = (long) block * INDEX_STRIDE; i < count; i++) {
+            int position = (int) (HEADER + i * RECORD);
+            long time = buffer.getLong(position);
+            if (time >= to) {
+                break;
+            }
+            if (time > from) {
+                out.add(new ValueTrackingItem(type, buffer.getInt(position + 8), time));
+            }
+        }
+    }
+
+    /**
+     * Adds one item per hour or day that has data and overlaps the range, valued by the
+     * type's {@link StatisticViewingGui.CompressionType}.
+     */
+    public synchronized void readRollups(boolean days, long from, long to, List<ValueTrackingItem> out) {
+        TreeMap<Long, Rollup> rollups = days ? daily : hourly;
+        // Buckets are keyed by their start, so the one containing from starts at or before it
+        Long first = rollups.floorKey(from);
+        long start = first != null && from - first < (days ? DAY : HOUR) ? first : from;
+        for (Map.Entry<Long, Rollup> entry : rollups.subMap(start, true, to, false).entrySet()) {
+            Rollup rollup = entry.getValue();
+            int value = type.getCompressionType() == StatisticViewingGui.CompressionType.MAX
+                ? rollup.max
+                : (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, rollup.sum));
+            out.add(new ValueTrackingItem(type, value, entry.getKey()));
+        }
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+            mapped = null;
+        }
+    }
+
+    private void addToIndex(long record, long time, int value) {
+        if (record % INDEX_STRIDE == 0) {
+            int slot = (int) (record / INDEX_STRIDE);
+            if (slot == index.length) {
+                index = Arrays.copyOf(index, slot * 2);
+            }
+            index[slot] = time;
+        }
+        lastTime = time;
+
+        hourly.computeIfAbsent(time - Math.floorMod(time, HOUR), start -> new Rollup()).add(value);
+        long offset = TimeZone.getDefault().getOffset(time);
+        daily.computeIfAbsent(time - Math.floorMod(time + offset, DAY), start -> new Rollup()).add(value);
+    }
+
+    /**
+     * Reads every record without opening or mapping the log, so the file can be replaced afterwards
+     */
+    private List<ValueTrackingItem> readAll() throws IOException {
+        List<ValueTrackingItem> items = new ArrayList<>();
+        if (!file.exists()) {
+            return items;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+        if (buffer.limit() < HEADER) {
+            return items;
+        }
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a value tracking log: " + file);
+        }
+        for (int position = HEADER; position + RECORD <= buffer.limit(); position += RECORD) {
+            items.add(new ValueTrackingItem(type, buffer.getInt(position + 8), buffer.getLong(position)));
+        }
+        return items;
+    }
+
+    private ByteBuffer map() throws IOException {
+        if (mapped == null || mappedCount != count) {
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER + count * RECORD);
+            mappedCount = count;
+        }
+        return mapped;
+    }
+
+    private void write(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static class Rollup {
+        private long sum;
+        private int max = Integer.MIN_VALUE;
+
+        private void add(int value) {
+            sum += value;
+            max = Math.max(max, value);
+        }
+    }
+}
@@ -2,7 +2,8 @@ package cc.hyperium.mixins.client.particle;
 
 import cc.hyperium.config.Settings;
 import cc.hyperium.mixinsimp.renderer.client.particle.IMixinEffectRenderer;
-import cc.hyperium.mods.sk1ercommon.Multithreading;
+import cc.hyperium.mixinsimp.renderer.client.particle.ParticleLayer;
+import cc.hyperium.mixinsimp.renderer.client.particle.ParticleTicker;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.particle.EffectRenderer;
 import net.minecraft.client.particle.EntityFX;
@@ -32,13 +33,9 @@ import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.CountDownLatch;
 
 /**
  * Created by mitchellkatz on 6/24/18. Designed for production use on Sk1er.club
@@ -53,38 +50,39 @@ public abstract class MixinEffectRenderer implements IMixinEffectRenderer {
     protected World worldObj;
     @Shadow
     private Map<Integer, IParticleFactory> particleTypes;
-    //its not happy about this but we can't do better because Minecraft
-    private ConcurrentLinkedQueue<EntityFX>[][] modifiedFxLayer = new ConcurrentLinkedQueue[4][];
+    private ParticleLayer[][] modifiedFxLayer = new ParticleLayer[4][2];
+    // the same layers in one array, for the ticker
+    private ParticleLayer[] allFxLayers = new ParticleLayer[8];
     private ConcurrentLinkedQueue<EntityParticleEmitter> modifiedParticlEmmiters = new ConcurrentLinkedQueue<>();
     @Shadow
     private TextureManager renderer;
     @Shadow
     private Random rand;
-    private CountDownLatch latch;
 
     @Inject(method = "<init>", at = @At("RETURN"))
     public void load(World in, TextureManager manager, CallbackInfo info) {
         for (int i = 0; i < 4; ++i) {
-            this.modifiedFxLayer[i] = new ConcurrentLinkedQueue[2];
-
             for (int j = 0; j < 2; ++j) {
-                this.modifiedFxLayer[i][j] = new ConcurrentLinkedQueue<>();
+                this.modifiedFxLayer[i][j] = this.allFxLayers[i * 2 + j] = new ParticleLayer();
             }
         }
     }
 
+    private void drainLayers() {
+        for (ParticleLayer layer : this.allFxLayers) {
+            layer.drain(Settings.MAX_WORLD_PARTICLES_INT);
+        }
+    }
+
     /**
      * @author Sk1er
      * @reason Improved Particle Handler
      */
     @Overwrite
     private void moveToLayer(EntityFX effect, int p_178924_2_, int p_178924_3_) {
-        for (int i = 0; i < 4; ++i) {
-            if (this.modifiedFxLayer[i][p_178924_2_].contains(effect)) {
-                this.modifiedFxLayer[i][p_178924_2_].remove(effect);
-                this.modifiedFxLayer[i][p_178924_3_].add(effect);
-            }
-        }
+        // particles fade while they're ticked, so the move waits for the next drain
+        int i = effect.getFXLayer();
+        this.modifiedFxLayer[i][p_178924_2_].move(effect, this.modifiedFxLayer[i][p_178924_3_]);
     }
 
     /**
@@ -111,70 +109,15 @@ public abstract class MixinEffectRenderer implements IMixinEffectRenderer {
 
     /**
      * @author Sk1er
-     * @reason add concurrency
+     * @reason Array backed layers
      */
     @Overwrite
     private void updateEffectLayer(int p_178922_1_) {
         for (int i = 0; i < 2; ++i) {
-            int finalI = i;
-            if (Settings.IMPROVE_PARTICLE_RUN) {
-                Multithreading.runAsync(() -> {
-                    try {
-                        this.updateEffectAlphaLayer(this.modifiedFxLayer[p_178922_1_][finalI]);
-                    } catch (Throwable e) {
-                        e.printStackTrace();
-                    }
-                    latch.countDown();
-                });
-
-            } else {
-                this.updateEffectAlphaLayer(this.modifiedFxLayer[p_178922_1_][finalI]);
-            }
+            this.modifiedFxLayer[p_178922_1_][i].tick(this::tickParticle);
         }
     }
 
-    private void updateEffectAlphaLayer(ConcurrentLinkedQueue<EntityFX> queue) {
-        if (Settings.IMPROVE_PARTICLE_RUN) {
-            int total = queue.size();
-            int threads = total / 100 + 1;
-            CountDownLatch latch = new CountDownLatch(threads);
-            HashMap<Integer, List<EntityFX>> fx = new HashMap<>();
-            int tmp = 0;
-            for (int i = 0; i < threads; i++) {
-                fx.computeIfAbsent(tmp, integer -> new ArrayList<>());
-            }
-            for (EntityFX entityFX : queue) {
-                fx.computeIfAbsent(tmp, integer -> new ArrayList<>()).add(entityFX);
-                tmp++;
-                if (tmp > threads)
-                    tmp = 0;
-            }
-            for (List<EntityFX> entityFXES : fx.values()) {
-                Multithreading.runAsync(() -> {
-                    try {
-                        for (EntityFX entityFX : entityFXES) {
-                            try {
-                                tickParticle(entityFX);
-                            } catch (Throwable t) {
-                                t.printStackTrace();
-                            }
-
-                        }
-                    } catch (Throwable e) {
-                        e.printStackTrace();
-                    }
-                    latch.countDown();
-                });
-            }
-//            try {
-//                latch.await();
-//            } catch (InterruptedException e) {
-//                e.printStackTrace();
-//            }
-        } else queue.forEach(this::tickParticle);
-        queue.removeIf(entityFX -> entityFX.isDead);
-    }
-
     /**
      * @author Sk1er
      * @reason Concurrency
@@ -193,10 +136,7 @@ public abstract class MixinEffectRenderer implements IMixinEffectRenderer {
         int i = effect.getFXLayer();
         int j = effect.getAlpha() != 1.0F ? 0 : 1;
 
-        if (this.modifiedFxLayer[i][j].size() >= Settings.MAX_WORLD_PARTICLES_INT) {
-            this.modifiedFxLayer[i][j].poll();
-        }
-
+        // the layer drops its oldest particles once it's over the limit
         this.modifiedFxLayer[i][j].add(effect);
     }
 
@@ -213,15 +153,17 @@ public abstract class MixinEffectRenderer implements IMixinEffectRenderer {
         float f4 = f1 * MathHelper.sin(entityIn.rotationPitch * 0.017453292F);
         float f5 = MathHelper.cos(entityIn.rotationPitch * 0.017453292F);
 
+        drainLayers();
         for (int i = 0; i < 2; ++i) {
-            ConcurrentLinkedQueue<EntityFX> queue = this.modifiedFxLayer[3][i];
+            ParticleLayer layer = this.modifiedFxLayer[3][i];
 
-            if (!queue.isEmpty()) {
+            if (!layer.isEmpty()) {
                 Tessellator tessellator = Tessellator.getInstance();
                 WorldRenderer worldrenderer = tessellator.getWorldRenderer();
 
-                queue.forEach(entityFX -> entityFX.renderParticle(worldrenderer, entityIn, p_78872_2_, f1, f5, f2, f3, f4));
-
+                for (int k = 0; k < layer.size(); k++) {
+                    layer.get(k).renderParticle(worldrenderer, entityIn, p_78872_2_, f1, f5, f2, f3, f4);
+                }
             }
         }
     }
@@ -267,20 +209,19 @@ public abstract class MixinEffectRenderer implements IMixinEffectRenderer {
     @Overwrite
     public void updateEffects() {
         Settings.IMPROVE_PARTICLE_RUN = Settings.IMPROVE_PARTICLES;
-        latch = Settings.IMPROVE_PARTICLE_RUN ? new CountDownLatch(8) : null;
+        drainLayers();
 
-        for (int i = 0; i < 4; ++i) {
-            this.updateEffectLayer(i);
-        }
-        Profiler mcProfiler = Minecraft.getMinecraft().mcProfiler;
-        mcProfiler.startSection("particle_wait");
-        if (latch != null)
-            try {
-                latch.await();
-            } catch (InterruptedException e) {
-                e.printStackTrace();
+        if (Settings.IMPROVE_PARTICLE_RUN) {
+            Profiler mcProfiler = Minecraft.getMinecraft().mcProfiler;
+            mcProfiler.startSection("particle_tick");
+            // returns once every particle has been ticked, so rendering never sees one mid update
+            ParticleTicker.tick(this.allFxLayers, this::tickParticle);
+            mcProfiler.endSection();
+        } else {
+            for (int i = 0; i < 4; ++i) {
+                this.updateEffectLayer(i);
             }
-        mcProfiler.endSection();
+        }
 
         this.modifiedParticlEmmiters.forEach(EntityParticleEmitter::onUpdate);
         modifiedParticlEmmiters.removeIf(entityParticleEmitter -> entityParticleEmitter.isDead);
@@ -305,11 +246,12 @@ public abstract class MixinEffectRenderer implements IMixinEffectRenderer {
         GlStateManager.blendFunc(770, 771);
         GlStateManager.alphaFunc(516, 0.003921569F);
 
+        drainLayers();
         for (int i = 0; i < 3; ++i) {
             for (int j = 0; j < 2; ++j) {
                 final int i_f = i;
 
-                ConcurrentLinkedQueue<EntityFX> entityFXES = this.modifiedFxLayer[i][j];
+                ParticleLayer entityFXES = this.modifiedFxLayer[i][j];
                 if (!entityFXES.isEmpty()) {
                     switch (j) {
                         case 0:
@@ -333,8 +275,8 @@ public abstract class MixinEffectRenderer implements IMixinEffectRenderer {
                     WorldRenderer worldrenderer = tessellator.getWorldRenderer();
                     worldrenderer.begin(7, DefaultVertexFormats.PARTICLE_POSITION_TEX_COLOR_LMAP);
 
-                    for (EntityFX entityfx : entityFXES) {
-
+                    for (int k = 0; k < entityFXES.size(); k++) {
+                        EntityFX entityfx = entityFXES.get(k);
                         try {
                             if (entityfx == null)
                                 continue;
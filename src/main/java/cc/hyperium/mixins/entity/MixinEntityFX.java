@@ -0,0 +1,37 @@
+/*
+ *     Copyright (C) 2018  Hyperium <https://hyperium.cc/>
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published
+ *     by the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package cc.hyperium.mixins.entity;
+
+import cc.hyperium.mixinsimp.renderer.client.particle.IMixinEntityFxLayer;
+import net.minecraft.client.particle.EntityFX;
+import org.spongepowered.asm.mixin.Mixin;
+
+@Mixin(EntityFX.class)
+public abstract class MixinEntityFX implements IMixinEntityFxLayer {
+
+    private int layerIndex = -1;
+
+    @Override
+    public int getLayerIndex() {
+        return layerIndex;
+    }
+
+    @Override
+    public void setLayerIndex(int index) {
+        this.layerIndex = index;
+    }
+}
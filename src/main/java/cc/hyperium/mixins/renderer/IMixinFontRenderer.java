@@ -0,0 +1,13 @@
+package cc.hyperium.mixins.renderer;
+
+import net.minecraft.client.gui.FontRenderer;
+import net.minecraft.util.ResourceLocation;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+@Mixin(FontRenderer.class)
+public interface IMixinFontRenderer {
+
+    @Accessor
+    ResourceLocation getLocationFontTexture();
+}
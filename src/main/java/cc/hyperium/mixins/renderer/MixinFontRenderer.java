@@ -10,7 +10,6 @@ import cc.hyperium.mixinsimp.renderer.FontFixValues;
 import cc.hyperium.mixinsimp.renderer.StringHash;
 import cc.hyperium.mods.nickhider.NickHider;
 import net.minecraft.client.gui.FontRenderer;
-import net.minecraft.client.renderer.GLAllocation;
 import net.minecraft.client.renderer.GlStateManager;
 import net.minecraft.client.renderer.Tessellator;
 import net.minecraft.client.renderer.WorldRenderer;
@@ -118,10 +117,10 @@ public abstract class MixinFontRenderer {
         final float posY = this.posY;
         this.posY = 0;
         this.posX = 0;
-        StringHash hash = new StringHash(text, red, green, blue, alpha, shadow);
+        long hash = StringHash.hash(text, red, green, blue, alpha, shadow);
         GlStateManager.translate(posX, posY, 0F);
         if (optimize) {
-            CachedString cachedString = instance.get(hash);
+            CachedString cachedString = instance.get(hash, text, red, green, blue, alpha, shadow);
             if (cachedString != null) {
                 GlStateManager.color(this.red, this.blue, this.green, alpha);
 
@@ -134,13 +133,15 @@ public abstract class MixinFontRenderer {
                 this.posX = posX + cachedString.getWidth();
                 return;
             }
-            list = GLAllocation.generateDisplayLists(1);
+            list = instance.newList();
 
             GL11.glNewList(list, GL11.GL_COMPILE_AND_EXECUTE);
         }
 
         boolean hasObf = false;
+        int vertices = 4;
         CachedString value = new CachedString(text, list, this.posX - posX, this.posY - posY);
+        value.setKey(hash, red, green, blue, alpha, shadow);
         GlStateManager.color(1.0F, 1.0F, 1.0F, 0.0F);
         this.func_181559_a('.', this.italicStyle);
         GlStateManager.color(red, blue, green, alpha);
@@ -252,20 +253,28 @@ public abstract class MixinFontRenderer {
                     }
 
                     ++f;
+                    vertices += 4;
+                }
+
+                vertices += 4;
+                if (this.strikethroughStyle) {
+                    vertices += 4;
+                }
+                if (this.underlineStyle) {
+                    vertices += 4;
                 }
                 doDraw(f);
             }
         }
+        value.setWidth(this.posX);
         if (optimize) {
             GL11.glEndList();
-            instance.cache(hash, value);
+            value.setVertices(vertices);
+            value.setObfuscated(hasObf);
+            instance.cache(value);
         }
-        value.setWidth(this.posX);
         this.posY = posY + value.getHeight();
         this.posX = posX + value.getWidth();
-        if (hasObf) {
-            instance.obfuscated.add(hash);
-        }
         GlStateManager.translate(-posX, -posY, 0F);
 
     }
@@ -19,6 +19,7 @@ package cc.hyperium.mixinsimp.client;
 
 import me.semx11.autotip.universal.ReflectionUtil;
 import net.minecraft.client.renderer.GlStateManager;
+import org.lwjgl.opengl.GL11;
 
 import java.lang.reflect.Field;
 
@@ -31,6 +32,11 @@ public class GlStateModifier implements IGlStateModifier {
     private Field redColorField = null;
     private Object colorStateObject = null;
     private Field activeTextureUnitField = null;
+    private Object blendCapability;
+    private Object lightingCapability;
+    private Field texture2DStateField;
+    private Field currentStateField;
+    private boolean capabilitiesMissing;
 
     private GlStateModifier() {
         //stateManager = new GlStateManager();
@@ -149,4 +155,65 @@ public class GlStateModifier implements IGlStateModifier {
         setTexture(-1);
     }
 
+    /**
+     * The is*Enabled methods read GlStateManager's cached state, which costs nothing, where glIsEnabled
+     * waits on the driver. They only ask the driver if the fields can't be found.
+     */
+    @Override
+    public boolean isBlendEnabled() {
+        return findCapabilities() ? isOn(blendCapability) : GL11.glIsEnabled(GL11.GL_BLEND);
+    }
+
+    @Override
+    public boolean isLightingEnabled() {
+        return findCapabilities() ? isOn(lightingCapability) : GL11.glIsEnabled(GL11.GL_LIGHTING);
+    }
+
+    @Override
+    public boolean isTexture2DEnabled() {
+        if (findCapabilities()) {
+            try {
+                Object textureState = theArray[(int) activeTextureUnitField.get(null)];
+                return isOn(texture2DStateField.get(textureState));
+            } catch (IllegalAccessException | RuntimeException ignored) {
+            }
+        }
+        return GL11.glIsEnabled(GL11.GL_TEXTURE_2D);
+    }
+
+    private boolean findCapabilities() {
+        if (currentStateField != null) {
+            return true;
+        }
+        if (capabilitiesMissing) {
+            return false;
+        }
+        try {
+            if (theArray == null) {
+                theArray = (Object[]) ReflectionUtil.findField(GlStateManager.class, "textureState", "field_179174_p", "p").get(null);
+            }
+            if (activeTextureUnitField == null) {
+                activeTextureUnitField = ReflectionUtil.findField(GlStateManager.class, "activeTextureUnit", "field_179162_o", "o");
+            }
+            Object blendState = ReflectionUtil.findField(GlStateManager.class, "blendState", "e").get(null);
+            blendCapability = ReflectionUtil.findField(blendState.getClass(), "blendCapability", "field_179213_a", "a").get(blendState);
+            lightingCapability = ReflectionUtil.findField(GlStateManager.class, "lightingState", "b").get(null);
+            texture2DStateField = ReflectionUtil.findField(theArray[0].getClass(), "texture2DState", "a");
+            currentStateField = ReflectionUtil.findField(lightingCapability.getClass(), "currentState", "b");
+            return true;
+        } catch (IllegalAccessException | RuntimeException e) {
+            e.printStackTrace();
+            capabilitiesMissing = true;
+            return false;
+        }
+    }
+
+    private boolean isOn(Object booleanState) {
+        try {
+            return (boolean) currentStateField.get(booleanState);
+        } catch (IllegalAccessException e) {
+            return false;
+        }
+    }
+
 }
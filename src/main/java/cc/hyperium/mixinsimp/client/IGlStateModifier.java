@@ -24,4 +24,10 @@ public interface IGlStateModifier {
     void setTexture(int id);
 
     void resetColor();
+
+    boolean isBlendEnabled();
+
+    boolean isLightingEnabled();
+
+    boolean isTexture2DEnabled();
 }
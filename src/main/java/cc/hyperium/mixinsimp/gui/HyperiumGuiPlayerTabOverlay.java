@@ -6,11 +6,11 @@ import cc.hyperium.handlers.handlers.data.HypixelAPI;
 import cc.hyperium.mixins.gui.IMixinGui;
 import cc.hyperium.mixins.gui.IMixinGuiPlayerTabOverlay;
 import cc.hyperium.utils.ChatColor;
+import cc.hyperium.utils.ChromaColors;
 import cc.hyperium.utils.StaffUtils;
 import com.google.common.collect.Ordering;
 import com.mojang.authlib.GameProfile;
 import net.minecraft.client.Minecraft;
-import net.minecraft.client.gui.FontRenderer;
 import net.minecraft.client.gui.Gui;
 import net.minecraft.client.gui.GuiPlayerTabOverlay;
 import net.minecraft.client.network.NetHandlerPlayClient;
@@ -38,17 +38,7 @@ public class HyperiumGuiPlayerTabOverlay {
     }
 
     private static void drawChromaWaveString(String text, int xIn, int y) {
-        FontRenderer renderer = Minecraft.getMinecraft().fontRendererObj;
-        int x = xIn;
-        for (char c : text.toCharArray()) {
-            long dif = (x * 10) - (y * 10);
-            long l = System.currentTimeMillis() - dif;
-            float ff = 2000.0F;
-            int i = Color.HSBtoRGB((float) (l % (int) ff) / ff, 0.8F, 0.8F);
-            String tmp = String.valueOf(c);
-            renderer.drawString(tmp, (float) ((double) x), (float) ((double) y), i, false);
-            x += (double) renderer.getCharWidth(c);
-        }
+        ChromaColors.INSTANCE.drawString(Minecraft.getMinecraft().fontRendererObj, text, xIn, y, false, 2000, -y * 10, 10);
     }
 
     public void drawPing(int p_175245_1_, int p_175245_2_, int yIn, NetworkPlayerInfo networkPlayerInfoIn, float zLevel, Minecraft mc) {
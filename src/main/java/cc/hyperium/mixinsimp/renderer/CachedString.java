@@ -11,6 +11,23 @@ public class CachedString {
     private float lastGreen;
     private float lastAlpha;
 
+    // Key, checked on lookup so that hash collisions never draw the wrong string
+    private long hash;
+    private float red;
+    private float green;
+    private float blue;
+    private float alpha;
+    private boolean shadow;
+
+    private int vertices;
+    private boolean obfuscated;
+    private int tick;
+
+    // Links owned by FontFixValues: the hash bucket chain and the LRU list
+    CachedString nextInBucket;
+    CachedString newer;
+    CachedString older;
+
     public CachedString(String text, int listId, float width, float height) {
         this.text = text;
         this.listId = listId;
@@ -18,6 +35,48 @@ public class CachedString {
         this.height = height;
     }
 
+    public void setKey(long hash, float red, float green, float blue, float alpha, boolean shadow) {
+        this.hash = hash;
+        this.red = red;
+        this.green = green;
+        this.blue = blue;
+        this.alpha = alpha;
+        this.shadow = shadow;
+    }
+
+    boolean matches(long hash, String text, float red, float green, float blue, float alpha, boolean shadow) {
+        return this.hash == hash && this.red == red && this.green == green && this.blue == blue
+            && this.alpha == alpha && this.shadow == shadow && this.text.equals(text);
+    }
+
+    public long getHash() {
+        return hash;
+    }
+
+    public int getVertices() {
+        return vertices;
+    }
+
+    public void setVertices(int vertices) {
+        this.vertices = vertices;
+    }
+
+    public boolean isObfuscated() {
+        return obfuscated;
+    }
+
+    public void setObfuscated(boolean obfuscated) {
+        this.obfuscated = obfuscated;
+    }
+
+    int getTick() {
+        return tick;
+    }
+
+    void setTick(int tick) {
+        this.tick = tick;
+    }
+
     public float getLastAlpha() {
         return lastAlpha;
     }
@@ -1,121 +1,214 @@
 package cc.hyperium.mixinsimp.renderer;
 
 import cc.hyperium.event.InvokeEvent;
+import cc.hyperium.event.RenderTickEvent;
 import cc.hyperium.event.TickEvent;
-import cc.hyperium.handlers.handlers.chat.GeneralChatHandler;
-import cc.hyperium.mods.sk1ercommon.Multithreading;
-import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.CacheWriter;
-import com.github.benmanes.caffeine.cache.Caffeine;
-import com.github.benmanes.caffeine.cache.RemovalCause;
 import net.minecraft.client.renderer.GLAllocation;
-import org.lwjgl.LWJGLException;
-import org.lwjgl.opengl.Display;
-import org.lwjgl.opengl.SharedDrawable;
 
-import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.TimeUnit;
 
+/**
+ * Display lists compiled by the optimized font renderer, keyed by text, colour and shadow.
+ * <p>
+ * The cache is bounded by the number of vertices its lists hold rather than by entry count,
+ * so a screen full of long chat lines evicts sooner than one of short labels. The least recently
+ * drawn strings are evicted first. Only the render thread may use it; lists are freed from
+ * {@link #getGlRemoval()} once per frame on that thread.
+ */
 public class FontFixValues {
     public static FontFixValues INSTANCE;
-    public static SharedDrawable drawable;
-    private final int MAX = 5000 /* Worth bumping up to 10_000? */;
-    public List<StringHash> obfuscated = new ArrayList<>();
-    private Cache<StringHash, CachedString> stringCache = Caffeine.newBuilder()
-        .writer(new RemovalListener())
-        .executor(Multithreading.POOL)
-        .maximumSize(MAX)
-        .build();
-    private Queue<Integer> glRemoval = new ConcurrentLinkedQueue<>();
-
-    public FontFixValues() {
-        Multithreading.schedule(() -> {
-            try {
-                if (drawable == null) {
-                    return;
-                }
-                if (!drawable.isCurrent())
-                    try {
-                        drawable.makeCurrent();
-                    } catch (LWJGLException e) {
-                        try {
-                            drawable.makeCurrent();
-                        } catch (LWJGLException e1) {
-                            drawable = null;
-                            e.printStackTrace();
-                            GeneralChatHandler.instance().sendMessage("Something went wrong with Enhanced Font Renderer. If this issue persists, please open a ticket in the Hyperium Discord using -new in the #commands channel.");
-                        }
-                        return;
-                    } catch (IllegalStateException ex) {
-                        ex.printStackTrace();
-                    }
-                Integer integer;
-                int i = 0;
-                while ((integer = glRemoval.poll()) != null) {
-                    i++;
-                    GLAllocation.deleteDisplayLists(integer);
+    private static final int MAX_VERTICES = 400_000 /* About 5000 strings of 20 glyphs */;
+    private static final int MAX_SPARE_LISTS = 64;
+
+    private final Queue<Integer> glRemoval = new ConcurrentLinkedQueue<>();
+    private final int[] spareLists = new int[MAX_SPARE_LISTS];
+    private int spareCount;
+
+    private CachedString[] table = new CachedString[1024];
+    private CachedString newest;
+    private CachedString oldest;
+    private int size;
+    private int vertices;
+    private int currentTick;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Queue for display lists to free on the render thread. Safe to add to from any thread.
+     */
+    public Queue<Integer> getGlRemoval() {
+        return glRemoval;
+    }
+
+    @InvokeEvent
+    public void tick(TickEvent tickEvent) {
+        // Obfuscated strings are redrawn once per tick, see get
+        currentTick++;
+    }
+
+    @InvokeEvent
+    public void frame(RenderTickEvent event) {
+        Integer list;
+        while ((list = glRemoval.poll()) != null) {
+            GLAllocation.deleteDisplayLists(list);
+        }
+    }
+
+    /**
+     * @return the cached string, or null when it has to be compiled. Obfuscated strings
+     * expire every tick and give their display list back to {@link #newList()}.
+     */
+    @Nullable
+    public CachedString get(long hash, String text, float red, float green, float blue, float alpha, boolean shadow) {
+        for (CachedString entry = table[index(hash)]; entry != null; entry = entry.nextInBucket) {
+            if (entry.matches(hash, text, red, green, blue, alpha, shadow)) {
+                if (entry.isObfuscated() && entry.getTick() != currentTick) {
+                    remove(entry);
+                    recycle(entry.getListId());
+                    break;
                 }
-                drawable.releaseContext();
-
-            } catch (Exception e) {
-                e.printStackTrace();
-                if (drawable != null) {
-                    try {
-                        drawable.releaseContext();
-                    } catch (LWJGLException e1) {
-                        e1.printStackTrace();
-                    }
+
+                hits++;
+                if (entry != newest) {
+                    unlink(entry);
+                    linkNewest(entry);
                 }
+                return entry;
+            }
+        }
 
+        misses++;
+        return null;
+    }
 
-            }
-        }, 1, 1, TimeUnit.SECONDS);
-        System.out.println("STARTED");
+    /**
+     * @return a display list to compile a string into, reusing one from an expired obfuscated string if possible
+     */
+    public int newList() {
+        return spareCount > 0 ? spareLists[--spareCount] : GLAllocation.generateDisplayLists(1);
     }
 
-    public Queue<Integer> getGlRemoval() {
-        return glRemoval;
+    public void cache(CachedString value) {
+        value.setTick(currentTick);
+
+        int index = index(value.getHash());
+        value.nextInBucket = table[index];
+        table[index] = value;
+        linkNewest(value);
+        size++;
+        vertices += value.getVertices();
+
+        while (vertices > MAX_VERTICES && oldest != value) {
+            CachedString eldest = oldest;
+            remove(eldest);
+            glRemoval.add(eldest.getListId());
+            evictions++;
+        }
+
+        if (size > table.length - (table.length >> 2)) {
+            resize();
+        }
     }
 
-    @InvokeEvent
-    public void tick(TickEvent tickEvent) {
-        stringCache.invalidateAll(obfuscated);
-        obfuscated.clear();
-        if (drawable == null) {
-            try {
-                drawable = new SharedDrawable(Display.getDrawable());
-            } catch (LWJGLException e) {
-                e.printStackTrace();
+    private void remove(CachedString entry) {
+        int index = index(entry.getHash());
+        if (table[index] == entry) {
+            table[index] = entry.nextInBucket;
+        } else {
+            CachedString previous = table[index];
+            while (previous.nextInBucket != entry) {
+                previous = previous.nextInBucket;
             }
+            previous.nextInBucket = entry.nextInBucket;
         }
-    }
+        entry.nextInBucket = null;
 
+        unlink(entry);
+        size--;
+        vertices -= entry.getVertices();
+    }
 
-    @Nullable
-    public CachedString get(StringHash key) {
-        return stringCache.getIfPresent(key);
+    private void recycle(int list) {
+        if (spareCount < MAX_SPARE_LISTS) {
+            spareLists[spareCount++] = list;
+        } else {
+            glRemoval.add(list);
+        }
     }
 
-    public void cache(StringHash key, CachedString value) {
-        stringCache.put(key, value);
+    private void linkNewest(CachedString entry) {
+        entry.older = newest;
+        entry.newer = null;
+        if (newest != null) {
+            newest.newer = entry;
+        } else {
+            oldest = entry;
+        }
+        newest = entry;
     }
 
-    private class RemovalListener implements CacheWriter<StringHash, CachedString> {
-        @Override
-        public void write(@Nonnull StringHash key, @Nonnull CachedString value) {
+    private void unlink(CachedString entry) {
+        if (entry.newer != null) {
+            entry.newer.older = entry.older;
+        } else {
+            newest = entry.older;
         }
 
-        @Override
-        public void delete(@Nonnull StringHash key, @Nullable CachedString value, @Nonnull RemovalCause cause) {
-            if (value == null) return;
+        if (entry.older != null) {
+            entry.older.newer = entry.newer;
+        } else {
+            oldest = entry.newer;
+        }
 
-            glRemoval.add(value.getListId());
+        entry.newer = null;
+        entry.older = null;
+    }
 
+    private void resize() {
+        CachedString[] old = table;
+        table = new CachedString[old.length << 1];
+        for (CachedString head : old) {
+            CachedString entry = head;
+            while (entry != null) {
+                CachedString next = entry.nextInBucket;
+                int index = index(entry.getHash());
+                entry.nextInBucket = table[index];
+                table[index] = entry;
+                entry = next;
+            }
         }
     }
+
+    private int index(long hash) {
+        int h = (int) (hash ^ hash >>> 32);
+        return (h ^ h >>> 16) & (table.length - 1);
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getVertices() {
+        return vertices;
+    }
+
+    public int getMaxVertices() {
+        return MAX_VERTICES;
+    }
 }
@@ -6,6 +6,7 @@ import cc.hyperium.event.EventBus;
 import cc.hyperium.event.RenderNameTagEvent;
 import cc.hyperium.mixins.renderer.IMixinRender;
 import cc.hyperium.utils.ChatColor;
+import cc.hyperium.utils.ChromaColors;
 import cc.hyperium.utils.StaffUtils;
 import cc.hyperium.utils.Utils;
 import net.minecraft.client.Minecraft;
@@ -33,17 +34,7 @@ public class HyperiumRender<T extends Entity> {
     }
 
     private static void drawChromaWaveString(String text, int xIn, int y) {
-        FontRenderer renderer = Minecraft.getMinecraft().fontRendererObj;
-        int x = xIn;
-        for (char c : text.toCharArray()) {
-            long dif = (x * 10) - (y * 10);
-            long l = System.currentTimeMillis() - dif;
-            float ff = 2000.0F;
-            int i = Color.HSBtoRGB((float) (l % (int) ff) / ff, 0.8F, 0.8F);
-            String tmp = String.valueOf(c);
-            renderer.drawString(tmp, (float) ((double) x), (float) ((double) y), i, false);
-            x += (double) renderer.getCharWidth(c);
-        }
+        ChromaColors.INSTANCE.drawString(Minecraft.getMinecraft().fontRendererObj, text, xIn, y, false, 2000, -y * 10, 10);
     }
 
     public void renderOffsetLivingLabel(T entityIn, double x, double y, double z, String str, float p_177069_9_, double p_177069_10_) {
@@ -40,7 +40,7 @@ public class HyperiumRenderItem {
     private Cache<ItemHash, Integer> itemCache = Caffeine.newBuilder()
         .maximumSize(MAX)
         .writer(new RemovalListener())
-        .executor(Multithreading.POOL)
+        .executor(Multithreading.COMPUTE)
         .build();
 
     public HyperiumRenderItem(RenderItem parent) {
@@ -1,23 +1,23 @@
 package cc.hyperium.mixinsimp.renderer;
 
-import java.util.Objects;
+/**
+ * 64 bit key for a cached string, computed without allocating.
+ * Equal hashes are still checked against the cached text and colour before use.
+ */
+public final class StringHash {
 
-public class StringHash {
-    private int hash;
-
-    public StringHash(String text, float red, float green, float blue, float alpha, boolean shadow) {
-        this.hash = Objects.hash(text, red, green, blue, alpha, shadow);
-    }
-
-    @Override
-    public boolean equals(Object other) {
-        if (!(other instanceof StringHash)) return false;
-
-        return Objects.equals(this.hash, ((StringHash) other).hash);
+    private StringHash() {
     }
 
-    @Override
-    public int hashCode() {
-        return hash;
+    public static long hash(String text, float red, float green, float blue, float alpha, boolean shadow) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < text.length(); i++) {
+            hash = (hash ^ text.charAt(i)) * 0x100000001B3L;
+        }
+        hash = (hash ^ Float.floatToIntBits(red)) * 0x100000001B3L;
+        hash = (hash ^ Float.floatToIntBits(green)) * 0x100000001B3L;
+        hash = (hash ^ Float.floatToIntBits(blue)) * 0x100000001B3L;
+        hash = (hash ^ Float.floatToIntBits(alpha)) * 0x100000001B3L;
+        return shadow ? ~hash : hash;
     }
 }
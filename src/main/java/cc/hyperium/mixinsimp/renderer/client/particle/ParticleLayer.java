@@ -0,0 +1,271 @@
+/*
+ *     Copyright (C) 2018  Hyperium <https://hyperium.cc/>
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published
+ *     by the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package cc.hyperium.mixinsimp.renderer.client.particle;
+
+import net.minecraft.client.particle.EntityFX;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * One of the effect renderer's particle layers, kept in a ring buffer so it can be ticked in fixed-size chunks.
+ * <p>
+ * Every particle knows its slot through {@link IMixinEntityFxLayer}, so removing or moving one is constant time:
+ * the oldest particle fills the gap and the ring moves on. Going over the particle limit drops the oldest
+ * particles from the start of the ring, also without shifting anything.
+ * <p>
+ * Only the client thread touches the ring. Particles added or moved from anywhere else, including particles
+ * spawned or faded by other particles while they're ticked in parallel, wait in a queue until the next
+ * {@link #drain(int)}.
+ */
+public final class ParticleLayer {
+
+    private final Queue<EntityFX> incoming = new ConcurrentLinkedQueue<>();
+    private final Queue<Move> moves = new ConcurrentLinkedQueue<>();
+    // always a power of two, so a logical index only needs masking
+    private EntityFX[] particles = new EntityFX[64];
+    private int head;
+    private int size;
+
+    /**
+     * Queues a particle, it's added on the next drain. Safe from any thread
+     */
+    public void add(EntityFX particle) {
+        this.incoming.add(particle);
+    }
+
+    /**
+     * Queues moving a particle to another layer, nothing happens if it isn't in this one by then. Safe from any thread
+     */
+    public void move(EntityFX particle, ParticleLayer target) {
+        this.moves.add(new Move(particle, target));
+    }
+
+    /**
+     * Adds the queued particles and carries out the queued moves, dropping the oldest ones once there are more
+     * than the limit
+     *
+     * @param max the most particles the layer may hold
+     */
+    public void drain(int max) {
+        EntityFX particle;
+        while ((particle = this.incoming.poll()) != null) {
+            // it may have been spawned and killed in the same tick
+            if (!particle.isDead) {
+                append(particle);
+            }
+        }
+
+        // after the additions, a particle can be moved in the same tick it was added
+        Move move;
+        while ((move = this.moves.poll()) != null) {
+            if (remove(move.particle)) {
+                move.target.append(move.particle);
+            }
+        }
+
+        int mask = this.particles.length - 1;
+        while (this.size > Math.max(0, max)) {
+            EntityFX oldest = this.particles[this.head];
+            this.particles[this.head] = null;
+            index(oldest).setLayerIndex(-1);
+            this.head = (this.head + 1) & mask;
+            this.size--;
+        }
+    }
+
+    private void append(EntityFX particle) {
+        if (this.size == this.particles.length) {
+            grow();
+        }
+        int slot = (this.head + this.size) & (this.particles.length - 1);
+        this.particles[slot] = particle;
+        index(particle).setLayerIndex(slot);
+        this.size++;
+    }
+
+    private void grow() {
+        EntityFX[] grown = new EntityFX[this.particles.length * 2];
+        for (int i = 0; i < this.size; i++) {
+            EntityFX particle = get(i);
+            grown[i] = particle;
+            index(particle).setLayerIndex(i);
+        }
+        this.particles = grown;
+        this.head = 0;
+    }
+
+    /**
+     * Removes a particle, moving the oldest particle into its slot
+     *
+     * @return false if the particle isn't in this layer
+     */
+    public boolean remove(EntityFX particle) {
+        int slot = index(particle).getLayerIndex();
+        if (slot < 0 || slot >= this.particles.length || this.particles[slot] != particle) {
+            return false;
+        }
+
+        if (slot != this.head) {
+            EntityFX oldest = this.particles[this.head];
+            this.particles[slot] = oldest;
+            index(oldest).setLayerIndex(slot);
+        }
+        this.particles[this.head] = null;
+        this.head = (this.head + 1) & (this.particles.length - 1);
+        this.size--;
+        index(particle).setLayerIndex(-1);
+        return true;
+    }
+
+    /**
+     * Ticks the particles in <code>[from, to)</code> and moves the ones still alive to the front of the range.
+     * Ranges that don't overlap can be ticked from different threads at the same time.
+     * <p>
+     * If ticking a particle throws, it and the rest of the range are kept as they were.
+     *
+     * @param from      first index, counted from the oldest particle
+     * @param to        index after the last one
+     * @param survivors where the amount of particles left at the front of the range is written, even if ticking threw
+     * @param slot      index in <code>survivors</code> for this range
+     */
+    public void tick(int from, int to, Consumer<EntityFX> ticker, int[] survivors, int slot) {
+        EntityFX[] particles = this.particles;
+        int mask = particles.length - 1;
+        int head = this.head;
+        int write = from;
+        int read = from;
+        try {
+            for (; read < to; read++) {
+                EntityFX particle = particles[(head + read) & mask];
+                ticker.accept(particle);
+                if (particle.isDead) {
+                    index(particle).setLayerIndex(-1);
+                } else {
+                    if (write != read) {
+                        place(particles, (head + write) & mask, particle);
+                    }
+                    write++;
+                }
+            }
+        } finally {
+            for (; read < to; read++) {
+                if (write != read) {
+                    place(particles, (head + write) & mask, particles[(head + read) & mask]);
+                }
+                write++;
+            }
+            for (int i = write; i < to; i++) {
+                particles[(head + i) & mask] = null;
+            }
+            survivors[slot] = write - from;
+        }
+    }
+
+    /**
+     * Ticks every particle on the calling thread, dropping the dead ones
+     */
+    public void tick(Consumer<EntityFX> ticker) {
+        int[] survivors = new int[1];
+        try {
+            tick(0, this.size, ticker, survivors, 0);
+        } finally {
+            this.size = survivors[0];
+        }
+    }
+
+    /**
+     * Closes the gaps left by {@link #tick(int, int, Consumer, int[], int)} once every chunk of the layer is done
+     *
+     * @param survivors what each chunk left at its front
+     * @param firstSlot the slot of the layer's first chunk
+     * @param chunks    how many chunks the layer was split into
+     * @param chunkSize the size of every chunk but the last
+     */
+    public void compact(int[] survivors, int firstSlot, int chunks, int chunkSize) {
+        if (chunks == 0) {
+            return;
+        }
+        EntityFX[] particles = this.particles;
+        int mask = particles.length - 1;
+        int write = survivors[firstSlot];
+        for (int chunk = 1; chunk < chunks; chunk++) {
+            int start = chunk * chunkSize;
+            int alive = survivors[firstSlot + chunk];
+            if (write != start) {
+                for (int i = 0; i < alive; i++) {
+                    int from = (this.head + start + i) & mask;
+                    place(particles, (this.head + write + i) & mask, particles[from]);
+                    particles[from] = null;
+                }
+            }
+            write += alive;
+        }
+        this.size = write;
+    }
+
+    private static void place(EntityFX[] particles, int slot, EntityFX particle) {
+        particles[slot] = particle;
+        index(particle).setLayerIndex(slot);
+    }
+
+    private static IMixinEntityFxLayer index(EntityFX particle) {
+        return (IMixinEntityFxLayer) particle;
+    }
+
+    /**
+     * @param index counted from the oldest particle
+     */
+    public EntityFX get(int index) {
+        return this.particles[(this.head + index) & (this.particles.length - 1)];
+    }
+
+    /**
+     * @return the particles in the layer, not counting the queued ones
+     */
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    public void clear() {
+        this.incoming.clear();
+        this.moves.clear();
+        for (int i = 0; i < this.size; i++) {
+            EntityFX particle = get(i);
+            index(particle).setLayerIndex(-1);
+        }
+        this.particles = new EntityFX[64];
+        this.head = 0;
+        this.size = 0;
+    }
+
+    private static final class Move {
+
+        private final EntityFX particle;
+        private final ParticleLayer target;
+
+        Move(EntityFX particle, ParticleLayer target) {
+            this.particle = particle;
+            this.target = target;
+        }
+    }
+}
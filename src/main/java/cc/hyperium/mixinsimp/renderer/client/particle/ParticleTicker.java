@@ -0,0 +1,101 @@
+/*
+ *     Copyright (C) 2018  Hyperium <https://hyperium.cc/>
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published
+ *     by the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package cc.hyperium.mixinsimp.renderer.client.particle;
+
+import cc.hyperium.utils.threading.ParallelBatch;
+import net.minecraft.client.particle.EntityFX;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Ticks particle layers in parallel. The layers are cut into fixed-size chunks which the client thread and a
+ * fork-join pool sized to the cores claim one at a time, and the client thread only returns once every chunk is
+ * done, so particles are never ticked while they're rendered. Dead particles are dropped by the chunk that
+ * ticked them, the layers only have to close the gaps afterwards.
+ */
+public final class ParticleTicker {
+
+    /**
+     * Particles handed out at a time. Small enough to balance the threads, big enough that claiming a chunk is
+     * nothing next to ticking it
+     */
+    public static final int CHUNK_SIZE = 256;
+
+    private ParticleTicker() {
+    }
+
+    /**
+     * Ticks every particle in the layers, removing the dead ones. Smaller layers than a couple of chunks
+     * aren't worth handing to other threads and are ticked right away.
+     *
+     * @param layers the layers, drained beforehand
+     * @param ticker ticks a single particle
+     */
+    public static void tick(ParticleLayer[] layers, Consumer<EntityFX> ticker) {
+        int[] firstChunk = new int[layers.length + 1];
+        int chunks = 0;
+        for (int i = 0; i < layers.length; i++) {
+            firstChunk[i] = chunks;
+            chunks += (layers[i].size() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        }
+        firstChunk[layers.length] = chunks;
+
+        if (chunks <= 1) {
+            for (ParticleLayer layer : layers) {
+                layer.tick(ticker);
+            }
+            return;
+        }
+
+        int[] survivors = new int[chunks];
+        ParallelBatch batch = new ParallelBatch("Particle tick", chunks, chunk -> {
+            int layer = 0;
+            while (chunk >= firstChunk[layer + 1]) {
+                layer++;
+            }
+            int from = (chunk - firstChunk[layer]) * CHUNK_SIZE;
+            int to = Math.min(from + CHUNK_SIZE, layers[layer].size());
+            layers[layer].tick(from, to, ticker, survivors, chunk);
+        });
+        batch.execute(Pool.POOL, Pool.POOL.getParallelism());
+
+        // a chunk which threw kept its particles as they were, so the layers can be compacted either way
+        for (int i = 0; i < layers.length; i++) {
+            layers[i].compact(survivors, firstChunk[i], firstChunk[i + 1] - firstChunk[i], CHUNK_SIZE);
+        }
+        batch.rethrow();
+    }
+
+    /**
+     * Holder so the pool is only started once particles are actually ticked in parallel
+     */
+    private static final class Pool {
+
+        private static final AtomicInteger THREADS = new AtomicInteger();
+
+        // the client thread ticks chunks too, so leave it a core
+        private static final ForkJoinPool POOL = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1), pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("Hyperium Particles #" + THREADS.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, null, true);
+    }
+}
@@ -0,0 +1,268 @@
+/*
+ *     Copyright (C) 2018  Hyperium <https://hyperium.cc/>
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published
+ *     by the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package cc.hyperium.mixinsimp.world;
+
+import cc.hyperium.mods.sk1ercommon.Multithreading;
+import cc.hyperium.utils.threading.ParallelBatch;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.EntityLiving;
+import net.minecraft.util.MathHelper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Ticks the loaded entities of a world in parallel, one region of chunks at a time.
+ * <p>
+ * Entities are grouped by the region they stand in. A rider is ticked by its mount and a leashed mob goes with
+ * whoever holds the leash, so anything that moves together is always in one region. Regions are ticked in four
+ * phases like a checkerboard: no two regions of a phase touch, so entities ticked at the same time are at least a
+ * region apart and never push each other or share a chunk. Dead entities are only removed from the world once every
+ * phase is done.
+ * <p>
+ * The client thread ticks regions along with the compute pool and doesn't return until a phase is finished.
+ */
+public final class EntityRegionTicker {
+
+    /**
+     * Regions are 4x4 chunks, far more than an entity moves or reaches in a tick
+     */
+    private static final int REGION_SHIFT = 6;
+
+    private static final int SLOWEST_REGIONS = 5;
+
+    private static volatile Stats lastStats;
+
+    private final Map<Long, Region> regions = new HashMap<>();
+    private final List<List<Region>> phases = new ArrayList<>();
+
+    public EntityRegionTicker() {
+        for (int i = 0; i < 4; i++) {
+            this.phases.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Ticks every entity which isn't being ridden along by another
+     *
+     * @param loadedEntityList the world's entities, only touched by the calling thread
+     * @param updater          ticks a single entity
+     * @return the entities which died, still to be removed from the world
+     */
+    public List<Entity> tick(List<Entity> loadedEntityList, Consumer<Entity> updater) {
+        long start = System.nanoTime();
+        loadedEntityList.removeIf(Objects::isNull);
+
+        for (Region region : this.regions.values()) {
+            region.entities.clear();
+            region.dead.clear();
+        }
+
+        int entities = 0;
+        for (Entity entity : loadedEntityList) {
+            if (entity.ridingEntity != null) {
+                if (!entity.ridingEntity.isDead && entity.ridingEntity.riddenByEntity == entity) {
+                    // its mount ticks it
+                    continue;
+                }
+
+                entity.ridingEntity.riddenByEntity = null;
+                entity.ridingEntity = null;
+            }
+
+            Entity anchor = entity;
+            if (entity instanceof EntityLiving && ((EntityLiving) entity).getLeashed() && ((EntityLiving) entity).getLeashedToEntity() != null) {
+                anchor = ((EntityLiving) entity).getLeashedToEntity();
+            }
+            int regionX = MathHelper.floor_double(anchor.posX) >> REGION_SHIFT;
+            int regionZ = MathHelper.floor_double(anchor.posZ) >> REGION_SHIFT;
+            long key = ((long) regionX << 32) | (regionZ & 0xFFFFFFFFL);
+            Region region = this.regions.get(key);
+            if (region == null) {
+                this.regions.put(key, region = new Region(regionX, regionZ));
+            }
+            region.entities.add(entity);
+            entities++;
+        }
+
+        this.regions.values().removeIf(region -> region.entities.isEmpty());
+        for (List<Region> phase : this.phases) {
+            phase.clear();
+        }
+        for (Region region : this.regions.values()) {
+            this.phases.get((region.x & 1) | (region.z & 1) << 1).add(region);
+        }
+
+        for (List<Region> phase : this.phases) {
+            if (!phase.isEmpty()) {
+                ParallelBatch batch = new ParallelBatch("Entity tick", phase.size(), index -> phase.get(index).tick(updater));
+                batch.execute(Multithreading.COMPUTE, Multithreading.COMPUTE.getMaximumPoolSize());
+                batch.rethrow();
+            }
+        }
+
+        List<Entity> dead = new ArrayList<>();
+        for (Region region : this.regions.values()) {
+            dead.addAll(region.dead);
+        }
+        if (!dead.isEmpty()) {
+            Set<Entity> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+            removed.addAll(dead);
+            loadedEntityList.removeIf(removed::contains);
+        }
+
+        lastStats = new Stats(new ArrayList<>(this.regions.values()), entities, System.nanoTime() - start);
+        return dead;
+    }
+
+    /**
+     * @return the timings of the last parallel entity tick, or null if there hasn't been one
+     */
+    public static Stats getLastStats() {
+        return lastStats;
+    }
+
+    /**
+     * The entities standing in a region, ticked by one thread
+     */
+    private static final class Region {
+
+        private final int x;
+        private final int z;
+        private final List<Entity> entities = new ArrayList<>();
+        private final List<Entity> dead = new ArrayList<>();
+        private long nanos;
+
+        Region(int x, int z) {
+            this.x = x;
+            this.z = z;
+        }
+
+        void tick(Consumer<Entity> updater) {
+            long start = System.nanoTime();
+            try {
+                for (Entity entity : this.entities) {
+                    updater.accept(entity);
+                    if (entity.isDead) {
+                        this.dead.add(entity);
+                    }
+                }
+            } finally {
+                this.nanos = System.nanoTime() - start;
+            }
+        }
+    }
+
+    /**
+     * Timings of one parallel entity tick
+     */
+    public static final class Stats {
+
+        private final List<RegionTiming> slowest = new ArrayList<>();
+        private final int regions;
+        private final int entities;
+        private final long wallNanos;
+        private final long busyNanos;
+
+        Stats(List<Region> regions, int entities, long wallNanos) {
+            this.regions = regions.size();
+            this.entities = entities;
+            this.wallNanos = wallNanos;
+
+            long busy = 0;
+            for (Region region : regions) {
+                busy += region.nanos;
+            }
+            this.busyNanos = busy;
+
+            regions.sort((a, b) -> Long.compare(b.nanos, a.nanos));
+            for (Region region : regions.subList(0, Math.min(SLOWEST_REGIONS, regions.size()))) {
+                this.slowest.add(new RegionTiming(region.x << REGION_SHIFT, region.z << REGION_SHIFT, region.entities.size(), region.nanos));
+            }
+        }
+
+        public int getRegions() {
+            return this.regions;
+        }
+
+        public int getEntities() {
+            return this.entities;
+        }
+
+        /**
+         * @return how long the whole tick took, partitioning and removals included
+         */
+        public long getWallNanos() {
+            return this.wallNanos;
+        }
+
+        /**
+         * @return the time spent ticking regions added up, what a single thread would have needed
+         */
+        public long getBusyNanos() {
+            return this.busyNanos;
+        }
+
+        /**
+         * @return the slowest regions, slowest first
+         */
+        public List<RegionTiming> getSlowest() {
+            return this.slowest;
+        }
+    }
+
+    /**
+     * How long the entities of one region took, the region starts at the given block and is 64 blocks wide
+     */
+    public static final class RegionTiming {
+
+        private final int blockX;
+        private final int blockZ;
+        private final int entities;
+        private final long nanos;
+
+        RegionTiming(int blockX, int blockZ, int entities, long nanos) {
+            this.blockX = blockX;
+            this.blockZ = blockZ;
+            this.entities = entities;
+            this.nanos = nanos;
+        }
+
+        public int getBlockX() {
+            return this.blockX;
+        }
+
+        public int getBlockZ() {
+            return this.blockZ;
+        }
+
+        public int getEntities() {
+            return this.entities;
+        }
+
+        public long getNanos() {
+            return this.nanos;
+        }
+    }
+}
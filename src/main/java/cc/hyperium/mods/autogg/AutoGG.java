@@ -47,7 +47,7 @@ public class AutoGG extends AbstractMod {
             .registerCommand(new GGCommand(this));
 
         // The GetTriggers class
-        Multithreading.POOL.submit(() -> {
+        Multithreading.runAsync(() -> {
             try {
                 final String rawTriggers = IOUtils.toString(
                     new URL("https://raw.githubusercontent.com/HyperiumClient/Hyperium-Repo/master/files/triggers.txt"),
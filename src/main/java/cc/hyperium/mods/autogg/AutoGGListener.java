@@ -9,6 +9,8 @@ import cc.hyperium.mods.victoryroyale.VictoryRoyale;
 import cc.hyperium.utils.ChatColor;
 import net.minecraft.client.Minecraft;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * Main listener for AutoGG
  */
@@ -48,26 +50,17 @@ public class AutoGGListener {
             this.mod.setRunning(true);
             invoked = true;
             // The GGThread in an anonymous class
-            Multithreading.runAsync(() -> {
-                try {
-                    Thread.sleep(250);
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                }
-                VictoryRoyale.getInstance().gameEnded();
-            });
-            Multithreading.POOL.submit(() -> {
+            Multithreading.schedule(() -> VictoryRoyale.getInstance().gameEnded(), 250, TimeUnit.MILLISECONDS);
+            Multithreading.schedule(() -> {
                 try {
-                    Thread.sleep(Hyperium.INSTANCE.getModIntegration().getAutoGG().getConfig().getDelay() * 1000);
                     Minecraft.getMinecraft().thePlayer.sendChatMessage("/achat " + (mod.getConfig().sayGoodGameInsteadOfGG ? (mod.getConfig().lowercase ? "good game" : "Good Game") : (mod.getConfig().lowercase ? "gg" : "GG")));
-                    Thread.sleep(2000L);
-
-                    // We are referring to it from a different thread, thus we need to do this
-                    Hyperium.INSTANCE.getModIntegration().getAutoGG().setRunning(false);
                 } catch (Exception e) {
                     e.printStackTrace();
                 }
-            });
+
+                // We are referring to it from a different thread, thus we need to do this
+                Multithreading.schedule(() -> Hyperium.INSTANCE.getModIntegration().getAutoGG().setRunning(false), 2, TimeUnit.SECONDS);
+            }, Hyperium.INSTANCE.getModIntegration().getAutoGG().getConfig().getDelay(), TimeUnit.SECONDS);
         }
     }
 }
@@ -17,21 +17,21 @@
 
 package cc.hyperium.mods.chromahud;
 
+import cc.hyperium.Hyperium;
 import cc.hyperium.config.Settings;
 import cc.hyperium.event.InvokeEvent;
 import cc.hyperium.event.RenderHUDEvent;
 import cc.hyperium.event.TickEvent;
+import cc.hyperium.utils.ChromaColors;
 import cc.hyperium.utils.RenderUtils;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.FontRenderer;
 import net.minecraft.client.renderer.GlStateManager;
 import net.minecraft.client.renderer.entity.RenderItem;
 import net.minecraft.item.ItemStack;
-import org.lwjgl.input.Mouse;
 
 import java.awt.Color;
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -39,9 +39,6 @@ import java.util.List;
  */
 public class ElementRenderer {
 
-    private static final List<Long> clicks = new ArrayList<>();
-    private static final List<Long> rClicks = new ArrayList<>();
-    private static final List<Long> mClicks = new ArrayList<>();
     private static double currentScale = 1.0;
     private static int color;
     private static DisplayElement current;
@@ -49,9 +46,6 @@ public class ElementRenderer {
     private static String cValue;
     private final ChromaHUD mod;
     private final Minecraft minecraft;
-    boolean last = false;
-    private boolean rLast = false;
-    private boolean mLast = false;
 
     public ElementRenderer(ChromaHUD mod) {
         this.mod = mod;
@@ -115,17 +109,11 @@ public class ElementRenderer {
     // Don't shift, by the time it is here it is already shifted
     public static void drawChromaString(String text, int xIn, int y) {
         FontRenderer renderer = Minecraft.getMinecraft().fontRendererObj;
-        int x = xIn;
-        for (char c : text.toCharArray()) {
-            long dif = (x * 10) - (y * 10);
-            if (current.isStaticChroma())
-                dif = 0;
-            long l = System.currentTimeMillis() - dif;
-            float ff = current.isStaticChroma() ? 1000.0F : 2000.0F;
-            int i = Color.HSBtoRGB((float) (l % (int) ff) / ff, 0.8F, 0.8F);
-            String tmp = String.valueOf(c);
-            renderer.drawString(tmp, (float) ((double) x / getCurrentScale()), (float) ((double) y / getCurrentScale()), i, current.isShadow());
-            x += (double) renderer.getCharWidth(c) * getCurrentScale();
+        double scale = getCurrentScale();
+        if (current.isStaticChroma()) {
+            ChromaColors.INSTANCE.drawString(renderer, text, (float) (xIn / scale), (float) (y / scale), current.isShadow(), 1000, 0, 0);
+        } else {
+            ChromaColors.INSTANCE.drawString(renderer, text, (float) (xIn / scale), (float) (y / scale), current.isShadow(), 2000, -y * 10, (float) (scale * 10));
         }
     }
 
@@ -147,11 +135,7 @@ public class ElementRenderer {
     }
 
     public static int getCPS() {
-        Iterator<Long> iterator = clicks.iterator();
-        while (iterator.hasNext())
-            if (System.currentTimeMillis() - iterator.next() > 1000L)
-                iterator.remove();
-        return clicks.size();
+        return Hyperium.INSTANCE.getHandlers().getCpsHandler().getLeftCps();
     }
 
     public static DisplayElement getCurrent() {
@@ -195,19 +179,11 @@ public class ElementRenderer {
     }
 
     public static int getRightCPS() {
-        Iterator<Long> iterator = rClicks.iterator();
-        while (iterator.hasNext())
-            if (System.currentTimeMillis() - iterator.next() > 1000L)
-                iterator.remove();
-        return rClicks.size();
+        return Hyperium.INSTANCE.getHandlers().getCpsHandler().getRightCps();
     }
 
     public static int getMiddleCPS() {
-        Iterator<Long> iterator = mClicks.iterator();
-        while (iterator.hasNext())
-            if (System.currentTimeMillis() - iterator.next() > 1000L)
-                iterator.remove();
-        return mClicks.size();
+        return Hyperium.INSTANCE.getHandlers().getCpsHandler().getMiddleCps();
     }
 
     /* Until Sk1er fixes the old one causing an NPE, keep it like this */
@@ -217,8 +193,6 @@ public class ElementRenderer {
             cValue = Minecraft.getMinecraft().renderGlobal.getDebugInfoRenders().split("/")[0].trim();
     }
 
-    // Right CPS Counter
-
     @InvokeEvent
     public void onRenderTick(RenderHUDEvent event) {
 
@@ -233,42 +207,11 @@ public class ElementRenderer {
 
     }
 
-    // Middle CPS Counter
-
     public void renderElements() {
 
         if (fontRendererObj == null)
             fontRendererObj = Minecraft.getMinecraft().fontRendererObj;
 
-        // Mouse Button Left
-        boolean m = Mouse.isButtonDown(0);
-        if (m != last) {
-            last = m;
-            if (m) {
-                clicks.add(System.currentTimeMillis());
-            }
-        }
-
-        // Mouse Button Middle
-        boolean mm = Mouse.isButtonDown(2);
-        if (mm != mLast) {
-            mLast = mm;
-            if (mm) {
-                mClicks.add(System.currentTimeMillis());
-            }
-        }
-
-        // Mouse Button Right
-        boolean rm = Mouse.isButtonDown(1);
-        if (rm != rLast) {
-            rLast = rm;
-            if (rm) {
-                rClicks.add(System.currentTimeMillis());
-            }
-        }
-
-        // Others
-
         GlStateManager.color(1.0F, 1.0F, 1.0F, 1.0F);
 
         List<DisplayElement> elementList = mod.getDisplayElements();
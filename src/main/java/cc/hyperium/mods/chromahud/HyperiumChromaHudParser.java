@@ -31,6 +31,7 @@ import cc.hyperium.mods.chromahud.displayitems.hyperium.PlayerDisplay;
 import cc.hyperium.mods.chromahud.displayitems.hyperium.RatingDisplay;
 import cc.hyperium.mods.chromahud.displayitems.hyperium.ReachDisplay;
 import cc.hyperium.mods.chromahud.displayitems.hyperium.ScoreboardDisplay;
+import cc.hyperium.mods.chromahud.displayitems.hyperium.ThreadPoolDisplay;
 import cc.hyperium.mods.chromahud.displayitems.hyperium.ToggleSprintStatus;
 import cc.hyperium.utils.JsonHolder;
 
@@ -57,6 +58,7 @@ public class HyperiumChromaHudParser implements ChromaHUDParser {
         names.put("SPRINT_STATUS", "ToggleSprint Status");
         names.put("MEMORY", "Memory Display");
         names.put("REACH_DISPLAY", "Reach Display");
+        names.put("THREAD_POOLS", "Thread Pool Display");
     }
 
     @Override
@@ -86,6 +88,8 @@ public class HyperiumChromaHudParser implements ChromaHUDParser {
                 return new MemoryDisplay(item, ord);
             case "REACH_DISPLAY":
                 return new ReachDisplay(item, ord);
+            case "THREAD_POOLS":
+                return new ThreadPoolDisplay(item, ord);
         }
         return null;
     }
@@ -0,0 +1,48 @@
+/*
+ *     Copyright (C) 2018  Hyperium <https://hyperium.cc/>
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published
+ *     by the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cc.hyperium.mods.chromahud.displayitems.hyperium;
+
+import cc.hyperium.mods.chromahud.ElementRenderer;
+import cc.hyperium.mods.chromahud.api.DisplayItem;
+import cc.hyperium.mods.sk1ercommon.Multithreading;
+import cc.hyperium.utils.JsonHolder;
+import cc.hyperium.utils.threading.InstrumentedThreadPool;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class ThreadPoolDisplay extends DisplayItem {
+
+    public ThreadPoolDisplay(JsonHolder data, int ordinal) {
+        super(data, ordinal);
+    }
+
+    @Override
+    public void draw(int x, double y, boolean config) {
+        List<String> list = new ArrayList<>();
+        for (InstrumentedThreadPool pool : Multithreading.getPools()) {
+            list.add(pool.getName() + ": " + pool.getActiveCount() + "/" + pool.getMaximumPoolSize()
+                + " active, " + pool.getQueueDepth() + " queued, p99 wait "
+                + TimeUnit.NANOSECONDS.toMillis(pool.getWaitTimes().getPercentileNanos(0.99)) + "ms");
+        }
+        ElementRenderer.draw(x, y, list);
+        this.width = config ? ElementRenderer.maxWidth(list) : 0;
+        this.height = list.size() * 10;
+    }
+}
@@ -18,8 +18,8 @@
 package cc.hyperium.mods.keystrokes.keys;
 
 import cc.hyperium.mods.keystrokes.KeystrokesMod;
+import cc.hyperium.utils.ChromaColors;
 import net.minecraft.client.Minecraft;
-import net.minecraft.client.gui.FontRenderer;
 import net.minecraft.client.gui.Gui;
 import org.lwjgl.input.Keyboard;
 import org.lwjgl.input.Mouse;
@@ -46,13 +46,7 @@ public abstract class IKey extends Gui {
     }
 
     protected void drawChromaString(String text, int x, int y) {
-        FontRenderer renderer = Minecraft.getMinecraft().fontRendererObj;
-        for (char c : text.toCharArray()) {
-            int i = Color.HSBtoRGB((float) ((System.currentTimeMillis() - (x * 10) - (y * 10)) % 2000) / 2000.0F, 0.8F, 0.8F);
-            String tmp = String.valueOf(c);
-            renderer.drawString(tmp, x, y, i);
-            x += renderer.getStringWidth(tmp);
-        }
+        ChromaColors.INSTANCE.drawString(Minecraft.getMinecraft().fontRendererObj, text, x, y, false, 2000, y * 10, 10);
     }
 
     /**
@@ -86,7 +80,7 @@ public abstract class IKey extends Gui {
      * @return the color from settings or chroma if its enabled
      */
     protected final int getColor() {
-        return this.mod.getSettings().isChroma() ? Color.HSBtoRGB((float) ((System.currentTimeMillis() - (getXOffset() * 10) - (getYOffset() * 10)) % 2000) / 2000.0F, 0.8F, 0.8F) : new Color(this.mod.getSettings().getRed(), this.mod.getSettings().getGreen(), this.mod.getSettings().getBlue()).getRGB();
+        return this.mod.getSettings().isChroma() ? ChromaColors.INSTANCE.getColor(2000, getXOffset() * 10 + getYOffset() * 10, 0.8F, 0.8F) : new Color(this.mod.getSettings().getRed(), this.mod.getSettings().getGreen(), this.mod.getSettings().getBlue()).getRGB();
     }
 
     /**
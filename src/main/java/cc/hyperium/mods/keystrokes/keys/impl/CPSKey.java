@@ -17,29 +17,18 @@
 
 package cc.hyperium.mods.keystrokes.keys.impl;
 
-import cc.hyperium.event.EventBus;
-import cc.hyperium.event.InvokeEvent;
-import cc.hyperium.event.RenderEvent;
+import cc.hyperium.Hyperium;
 import cc.hyperium.mods.keystrokes.KeystrokesMod;
 import cc.hyperium.mods.keystrokes.keys.IKey;
 import net.minecraft.client.gui.Gui;
 import org.lwjgl.input.Mouse;
 
 import java.awt.Color;
-import java.util.ArrayList;
-import java.util.List;
 
 public class CPSKey extends IKey {
 
-    private final List<Long> leftClicks = new ArrayList<>();
-    private final List<Long> rightClicks = new ArrayList<>();
-    private boolean leftWasDown = false;
-    private boolean rightWasDown = false;
-
     public CPSKey(KeystrokesMod mod, int xOffset, int yOffset) {
         super(mod, xOffset, yOffset);
-
-        EventBus.INSTANCE.register(this);
     }
 
 
@@ -74,36 +63,10 @@ public class CPSKey extends IKey {
     }
 
     int getLeftCPS() {
-        long time = System.currentTimeMillis();
-
-        this.leftClicks.removeIf(o -> o + 1000L < time);
-
-        return this.leftClicks.size();
+        return Hyperium.INSTANCE.getHandlers().getCpsHandler().getCps(this.mod.getRenderer().getMouseButtons()[0].getButton());
     }
 
     int getRightCPS() {
-        long time = System.currentTimeMillis();
-
-        this.rightClicks.removeIf(o -> o + 1000L < time);
-
-        return this.rightClicks.size();
-    }
-
-    @InvokeEvent
-    public void onRender(RenderEvent event) {
-        Mouse.poll();
-
-        boolean downNow = Mouse.isButtonDown(mod.getRenderer().getMouseButtons()[0].getButton());
-        if (downNow != leftWasDown && downNow) {
-            leftClicks.add(System.currentTimeMillis());
-        }
-
-        leftWasDown = downNow;
-        downNow = Mouse.isButtonDown(mod.getRenderer().getMouseButtons()[1].getButton());
-        if (downNow != rightWasDown && downNow) {
-            rightClicks.add(System.currentTimeMillis());
-        }
-
-        rightWasDown = downNow;
+        return Hyperium.INSTANCE.getHandlers().getCpsHandler().getCps(this.mod.getRenderer().getMouseButtons()[1].getButton());
     }
 }
@@ -30,36 +30,55 @@ import cc.hyperium.mods.levelhead.renderer.LevelheadTag;
 import cc.hyperium.mods.sk1ercommon.Multithreading;
 import cc.hyperium.mods.sk1ercommon.Sk1erMod;
 import cc.hyperium.utils.ChatColor;
+import cc.hyperium.utils.ChromaColors;
 import cc.hyperium.utils.JsonHolder;
+import cc.hyperium.utils.PlayerDataStore;
 import cc.hyperium.utils.UUIDUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import net.minecraft.client.Minecraft;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.potion.PotionEffect;
 import net.minecraft.scoreboard.Team;
 
-import java.awt.Color;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.List;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 public class Levelhead extends AbstractMod {
 
     public final String MODID = "LEVEL_HEAD";
     public final String VERSION = "5.0";
-    public final Map<UUID, LevelheadTag> levelCache = new HashMap<>();
+    // lookups are collected for this many ticks and sent together
+    private static final int BATCH_WINDOW = 10;
+    private static final long CACHE_TTL_MINUTES = 30;
+    // values stored by a previous session are shown right away but looked up again once they're this old
+    private static final long STALE_MINUTES = 60;
+
+    private final Cache<UUID, LevelheadTag> tagCache = Caffeine.newBuilder()
+        .maximumSize(500)
+        .expireAfterWrite(CACHE_TTL_MINUTES, TimeUnit.MINUTES)
+        .executor(Multithreading.COMPUTE)
+        .build();
+    public final Map<UUID, LevelheadTag> levelCache = tagCache.asMap();
     private final Metadata meta;
     private final Map<UUID, Integer> timeCheck = new HashMap<>();
+    // players that have been queued or are being looked up, so they aren't requested twice
+    private final Set<UUID> pending = ConcurrentHashMap.newKeySet();
+    private final Set<UUID> batch = new LinkedHashSet<>();
     public UUID userUuid = null;
     public int count = 1;
     public int wait = 60;
     @ConfigOpt
     private String type = "LEVEL";
-    private HashMap<UUID, String> trueValueCache = new HashMap<>();
     private Set<UUID> existedMorethan5Seconds = new HashSet<>();
+    private int batchTicks = 0;
     private long waitUntil = System.currentTimeMillis();
     private int updates = 0;
     private Sk1erMod mod;
@@ -76,11 +95,11 @@ public class Levelhead extends AbstractMod {
     }
 
     public int getRGBColor() {
-        return Color.HSBtoRGB(System.currentTimeMillis() % 1000L / 1000.0f, 0.8f, 0.8f);
+        return ChromaColors.INSTANCE.getColor(1000);
     }
 
     public int getRGBDarkColor() {
-        return Color.HSBtoRGB(System.currentTimeMillis() % 1000L / 1000.0f, 0.8f, 0.2f);
+        return ChromaColors.INSTANCE.getColor(1000, 0, 0.8F, 0.2F);
     }
 
     public AbstractMod init() {
@@ -192,11 +211,25 @@ public class Levelhead extends AbstractMod {
 
                 if (loadOrRender(entityPlayer)) {
                     final UUID uuid = entityPlayer.getUniqueID();
-                    if (!levelCache.containsKey(uuid)) {
-                        getLevel(uuid);
+                    if (!levelCache.containsKey(uuid) && pending.add(uuid)) {
+                        PlayerDataStore.Record stored = PlayerDataStore.INSTANCE.get(getStoreNamespace(), uuid);
+                        if (stored != null) {
+                            // show last session's value straight away, only look it up again if it's old
+                            applyResponse(uuid, new JsonHolder(stored.getData()));
+                            if (!stored.isStale(STALE_MINUTES, TimeUnit.MINUTES)) {
+                                pending.remove(uuid);
+                                continue;
+                            }
+                        }
+                        batch.add(uuid);
                     }
                 }
             }
+
+            if (!batch.isEmpty() && ++batchTicks >= BATCH_WINDOW) {
+                batchTicks = 0;
+                flushBatch();
+            }
         }
     }
 
@@ -204,28 +237,52 @@ public class Levelhead extends AbstractMod {
         return uuid.toString().replace("-", "");
     }
 
-    private void getLevel(final UUID uuid) {
-        if (updates >= count) {
-            waitUntil = System.currentTimeMillis() + 1000 * wait;
-            updates = 0;
-            return;
-        }
-        updates++;
-        levelCache.put(uuid, null);
-        Multithreading.runAsync(() -> {
-            String raw = mod.rawWithAgent(
-                "https://api.sk1er.club/levelheadv5/" + trimUuid(uuid) + "/" + type
-                    + "/" + trimUuid(Minecraft.getMinecraft().getSession().getProfile().getId()) +
-                    "/" + VERSION);
-            JsonHolder object = new JsonHolder(raw);
-            if (!object.optBoolean("success")) {
-                object.put("strlevel", "Error");
+    /**
+     * Sends every lookup collected during the last {@link #BATCH_WINDOW} ticks at once, as many as the
+     * server's rate limit allows. The rest stay queued for the next window.
+     */
+    private void flushBatch() {
+        String self = trimUuid(Minecraft.getMinecraft().getSession().getProfile().getId());
+        Iterator<UUID> iterator = batch.iterator();
+        while (iterator.hasNext()) {
+            if (updates >= count) {
+                waitUntil = System.currentTimeMillis() + 1000 * wait;
+                updates = 0;
+                break;
             }
-            LevelheadTag value = buildTag(object, uuid);
-            levelCache.put(uuid, value);
-            trueValueCache.put(uuid, object.optString("strlevel"));
-        });
-        Multithreading.POOL.submit(this::clearCache);
+            updates++;
+            UUID uuid = iterator.next();
+            iterator.remove();
+            getLevel(uuid, self);
+        }
+        prune();
+    }
+
+    private void getLevel(final UUID uuid, String self) {
+        mod.getAsync("https://api.sk1er.club/levelheadv5/" + trimUuid(uuid) + "/" + type + "/" + self + "/" + VERSION)
+            .thenAccept(object -> {
+                if (object.optBoolean("success")) {
+                    PlayerDataStore.INSTANCE.put(getStoreNamespace(), uuid, object.toString());
+                } else if (levelCache.containsKey(uuid)) {
+                    // keep showing the stored value rather than replacing it with an error
+                    return;
+                }
+                applyResponse(uuid, object);
+            })
+            .whenComplete((ignored, throwable) -> pending.remove(uuid));
+    }
+
+    private void applyResponse(UUID uuid, JsonHolder object) {
+        if (!object.optBoolean("success")) {
+            object.put("strlevel", "Error");
+        }
+        LevelheadTag value = buildTag(object, uuid);
+        value.setTrueValue(object.optString("strlevel"));
+        levelCache.put(uuid, value);
+    }
+
+    private String getStoreNamespace() {
+        return "levelhead/" + type;
     }
 
     public LevelheadTag buildTag(JsonHolder object, UUID uuid) {
@@ -305,24 +362,29 @@ public class Levelhead extends AbstractMod {
         return levelCache.getOrDefault(uuid, null);
     }
 
-    //Remote runaway memory leak from storing levels in ram.
-    private void clearCache() {
-        if (levelCache.size() > Math.max(config.getPurgeSize(), 150)) {
-            List<UUID> safePlayers = new ArrayList<>();
-            for (EntityPlayer player : Minecraft.getMinecraft().theWorld.playerEntities) {
-                if (existedMorethan5Seconds.contains(player.getUniqueID())) {
-                    safePlayers.add(player.getUniqueID());
-                }
+    //Remote runaway memory leak from storing levels in ram. The tag cache bounds itself, this keeps the players we track in check
+    private void prune() {
+        int max = Math.max(config.getPurgeSize(), 150);
+        tagCache.policy().eviction().ifPresent(eviction -> {
+            if (eviction.getMaximum() != max) {
+                eviction.setMaximum(max);
             }
-            existedMorethan5Seconds.clear();
-            existedMorethan5Seconds.addAll(safePlayers);
-
-            for (UUID uuid : levelCache.keySet()) {
-                if (!safePlayers.contains(uuid)) {
-                    levelCache.remove(uuid);
-                }
+        });
+        Set<UUID> safePlayers = new HashSet<>();
+        for (EntityPlayer player : Minecraft.getMinecraft().theWorld.playerEntities) {
+            safePlayers.add(player.getUniqueID());
+        }
+        // players who left before their lookup was sent
+        for (Iterator<UUID> iterator = batch.iterator(); iterator.hasNext(); ) {
+            UUID uuid = iterator.next();
+            if (!safePlayers.contains(uuid)) {
+                iterator.remove();
+                pending.remove(uuid);
             }
-            System.out.println("Cache cleared!");
+        }
+        if (existedMorethan5Seconds.size() > max) {
+            existedMorethan5Seconds.retainAll(safePlayers);
+            timeCheck.keySet().retainAll(safePlayers);
         }
     }
 
@@ -339,8 +401,4 @@ public class Levelhead extends AbstractMod {
     public Sk1erMod getSk1erMod() {
         return mod;
     }
-
-    public HashMap<UUID, String> getTrueValueCache() {
-        return trueValueCache;
-    }
 }
@@ -337,7 +337,7 @@ public class LevelHeadGui extends GuiScreen {
     public void updatePeopleToValues() {
         Levelhead levelhead = Hyperium.INSTANCE.getModIntegration().getLevelhead();
         levelhead.levelCache.forEach((uuid, levelheadTag) -> {
-            String value = levelhead.getTrueValueCache().get(uuid);
+            String value = levelheadTag.getTrueValue();
             if (value == null)
                 return;
             JsonHolder footer = new JsonHolder().put("level", NumberUtils.isNumber(value) ? Long.parseLong(value) : -1).put("strlevel", value);
@@ -26,10 +26,22 @@ import cc.hyperium.utils.JsonHolder;
 public class LevelheadTag {
     private LevelheadComponent header;
     private LevelheadComponent footer;
+    private String trueValue;
 
     public LevelheadTag() {
     }
 
+    /**
+     * @return the unformatted value the server sent, used to rebuild the tag when the config changes
+     */
+    public String getTrueValue() {
+        return trueValue;
+    }
+
+    public void setTrueValue(String trueValue) {
+        this.trueValue = trueValue;
+    }
+
 
     public LevelheadComponent getHeader() {
         return header;
@@ -17,34 +17,54 @@
 
 package cc.hyperium.mods.sk1ercommon;
 
+import cc.hyperium.Hyperium;
+import cc.hyperium.utils.threading.InstrumentedThreadPool;
+
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
-
 
+/**
+ * Shared thread pools, split by the kind of work so slow requests can't starve everything else.
+ * <ul>
+ * <li>{@link #NETWORK} for anything that blocks on a remote server, this is what {@link #runAsync(Runnable)} uses</li>
+ * <li>{@link #COMPUTE} for CPU bound work, sized to the cores the render thread doesn't need</li>
+ * <li>{@link #DISK} for reading and writing files</li>
+ * </ul>
+ */
 public class Multithreading {
 
-    public static final ExecutorService POOL = Executors.newFixedThreadPool(100, new ThreadFactory() {
-        final AtomicInteger counter = new AtomicInteger(0);
+    private static final int CORES = Runtime.getRuntime().availableProcessors();
 
-        @Override
-        public Thread newThread(Runnable r) {
-            return new Thread(r, String.format("Thread %s", counter.incrementAndGet()));
-        }
-    });
+    public static final InstrumentedThreadPool NETWORK = new InstrumentedThreadPool("Network",
+        Math.max(4, Math.min(CORES * 2, 16)), 4096, new ThreadPoolExecutor.AbortPolicy());
 
-    private static final ScheduledExecutorService RUNNABLE_POOL = Executors.newScheduledThreadPool(10, new ThreadFactory() {
-        private final AtomicInteger counter = new AtomicInteger(0);
+    // running on the caller is the natural back pressure for short cpu tasks
+    public static final InstrumentedThreadPool COMPUTE = new InstrumentedThreadPool("Compute",
+        Math.max(1, CORES - 1), 1024, new ThreadPoolExecutor.CallerRunsPolicy());
 
-        @Override
-        public Thread newThread(Runnable r) {
-            return new Thread(r, "Thread " + counter.incrementAndGet());
-        }
-    });
+    public static final InstrumentedThreadPool DISK = new InstrumentedThreadPool("Disk",
+        2, 1024, new ThreadPoolExecutor.AbortPolicy());
+
+    /**
+     * Kept for addons which submit to it directly. It used to queue without limit and never
+     * throw, so a full queue runs the task on the caller rather than rejecting it
+     *
+     * @deprecated pick the lane matching the work, {@link #NETWORK}, {@link #COMPUTE} or {@link #DISK}
+     */
+    @Deprecated
+    public static final ExecutorService POOL = new InstrumentedThreadPool("Legacy",
+        Math.max(4, Math.min(CORES * 2, 16)), 4096, new ThreadPoolExecutor.CallerRunsPolicy());
+
+    private static final ScheduledExecutorService RUNNABLE_POOL = Executors.newScheduledThreadPool(Math.max(2, Math.min(4, CORES / 2)),
+        new InstrumentedThreadPool.NamedThreadFactory("Scheduler"));
+
+    private static final List<InstrumentedThreadPool> POOLS = Arrays.asList(NETWORK, COMPUTE, DISK, (InstrumentedThreadPool) POOL);
 
     public static void schedule(Runnable r, long initialDelay, long delay, TimeUnit unit) {
         RUNNABLE_POOL.scheduleAtFixedRate(r, initialDelay, delay, unit);
@@ -54,13 +74,46 @@ public class Multithreading {
         RUNNABLE_POOL.schedule(r, delay, unit);
     }
 
+    /**
+     * Runs blocking network work, see {@link #NETWORK}
+     */
     public static void runAsync(Runnable runnable) {
-        POOL.execute(runnable);
+        execute(NETWORK, runnable);
+    }
+
+    /**
+     * Runs CPU bound work, see {@link #COMPUTE}
+     */
+    public static void runCompute(Runnable runnable) {
+        execute(COMPUTE, runnable);
+    }
+
+    /**
+     * Runs file work, see {@link #DISK}
+     */
+    public static void runDisk(Runnable runnable) {
+        execute(DISK, runnable);
+    }
+
+    private static void execute(InstrumentedThreadPool pool, Runnable runnable) {
+        try {
+            pool.execute(runnable);
+        } catch (RejectedExecutionException e) {
+            // the rejection is already counted by the pool, callers of these methods don't expect to handle it
+            Hyperium.LOGGER.warn("[Multithreading] {} pool is full, dropped {}", pool.getName(), runnable);
+        }
+    }
+
+    public static List<InstrumentedThreadPool> getPools() {
+        return POOLS;
     }
 
     public static int getTotal() {
-        ThreadPoolExecutor tpe = (ThreadPoolExecutor) Multithreading.POOL;
-        return tpe.getActiveCount();
+        int total = 0;
+        for (InstrumentedThreadPool pool : POOLS) {
+            total += pool.getActiveCount();
+        }
+        return total;
     }
 
-}
\ No newline at end of file
+}
@@ -19,15 +19,13 @@ package cc.hyperium.mods.sk1ercommon;
 
 import cc.hyperium.Hyperium;
 import cc.hyperium.utils.JsonHolder;
+import cc.hyperium.utils.http.HttpResponse;
+import cc.hyperium.utils.http.HyperiumHttpClient;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import net.minecraft.client.Minecraft;
-import org.apache.commons.io.IOUtils;
 
-import java.io.InputStream;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.nio.charset.Charset;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -93,23 +91,28 @@ public class Sk1erMod {
         }, 0, 5, TimeUnit.MINUTES);
     }
 
+    /**
+     * Same as {@link #rawWithAgent(String)} without tying up a thread while the request is made
+     */
+    public CompletableFuture<JsonHolder> getAsync(String url) {
+        if (!Hyperium.INSTANCE.isAcceptedTos())
+            return CompletableFuture.completedFuture(new JsonHolder().put("success", false).put("cause", "TOS_NOT_ACCEPTED"));
+        return HyperiumHttpClient.INSTANCE.get(url, getUserAgent()).handle((response, throwable) -> {
+            if (throwable == null && response.isSuccessful())
+                return response.asJson();
+            return new JsonHolder().put("success", false).put("cause", "Exception");
+        });
+    }
+
     public String rawWithAgent(String url) {
         System.out.println("[Sk1erMod] Fetching " + url);
         if (!Hyperium.INSTANCE.isAcceptedTos())
             return new JsonHolder().put("success", false).put("cause", "TOS_NOT_ACCEPTED").toString();
-        url = url.replace(" ", "%20");
         try {
-            URL u = new URL(url);
-            HttpURLConnection connection = (HttpURLConnection) u.openConnection();
-            connection.setRequestMethod("GET");
-            connection.setUseCaches(true);
-            connection.addRequestProperty("User-Agent", "Mozilla/4.76 (" + modid + " V" + version + ") via Hyperium ");
-            connection.setReadTimeout(15000);
-            connection.setConnectTimeout(15000);
-            connection.setDoOutput(true);
-            InputStream is = connection.getInputStream();
-            return IOUtils.toString(is, Charset.forName("UTF-8"));
-
+            HttpResponse response = HyperiumHttpClient.INSTANCE.execute(url, getUserAgent());
+            if (response.isSuccessful())
+                return response.asString();
+            System.out.println("[Sk1erMod] " + url + " returned " + response.getCode());
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -119,4 +122,8 @@ public class Sk1erMod {
         return object.toString();
     }
 
+    private String getUserAgent() {
+        return "Mozilla/4.76 (" + modid + " V" + version + ") via Hyperium ";
+    }
+
 }
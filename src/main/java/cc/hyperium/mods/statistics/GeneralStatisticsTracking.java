@@ -44,6 +44,8 @@ public class GeneralStatisticsTracking {
     public String currentDateString = format.format(new Date());
 
 
+    // Not async, the counters are read by the render thread and saved with the config,
+    // and a coin reward must never be dropped by a full mailbox
     @InvokeEvent
     public void onChat(ChatEvent event) {
         // Check how much the time has changed since the last use.
@@ -22,7 +22,8 @@ import cc.hyperium.event.Priority;
 import cc.hyperium.event.ServerChatEvent;
 import cc.hyperium.mods.togglechat.toggles.ToggleBase;
 import cc.hyperium.mods.togglechat.toggles.defaults.TypeMessageSeparator;
-import cc.hyperium.utils.ChatColor;
+import cc.hyperium.utils.chat.ChatClassification;
+import cc.hyperium.utils.chat.ChatPattern;
 import net.minecraft.util.ChatComponentText;
 import net.minecraft.util.ChatStyle;
 
@@ -43,7 +44,8 @@ public class ToggleChatEvents {
     @InvokeEvent(priority = Priority.HIGH) // We use the high priority to grab things first
     public void onChatReceive(ServerChatEvent event) {
         // Strip the message of any colors for improved detectability
-        String unformattedText = ChatColor.stripColor(event.getChat().getUnformattedText());
+        ChatClassification classification = event.getClassification();
+        String unformattedText = classification.getText();
 
         // The formatted message for a few of the custom toggles
         String formattedText = event.getChat().getFormattedText();
@@ -56,6 +58,12 @@ public class ToggleChatEvents {
                     continue;
                 }
 
+                // None of the toggle's patterns can match this message
+                ChatPattern[] patterns = type.getChatPatterns();
+                if (patterns != null && !classification.isAnyCandidate(patterns)) {
+                    continue;
+                }
+
                 // We don't want an issue with one toggle bringing
                 // the whole toggle system crashing down in flames.
                 try {
@@ -65,7 +73,7 @@ public class ToggleChatEvents {
                     // If the toggle should toggle the specified message and
                     // the toggle is not enabled (this message is turned off)
                     // don't send the message to the player & stop looping
-                    if (type.shouldToggle(input)) {
+                    if (type.shouldToggle(classification, input)) {
                         if (type instanceof TypeMessageSeparator) {
                             // Attempt to keep the formatting
                             ChatStyle style = event.getChat().getChatStyle();
@@ -18,6 +18,8 @@
 package cc.hyperium.mods.togglechat.toggles;
 
 import cc.hyperium.utils.ChatColor;
+import cc.hyperium.utils.chat.ChatClassification;
+import cc.hyperium.utils.chat.ChatPattern;
 
 import java.util.Arrays;
 import java.util.LinkedList;
@@ -52,6 +54,18 @@ public abstract class ToggleBase {
      */
     public abstract boolean shouldToggle(final String message);
 
+    /**
+     * Checks a classified chat message. Toggles which only match {@link #getChatPatterns()} should override
+     * this to use the classification's matches, which are worked out once for every consumer of the message
+     *
+     * @param classification the classified message
+     * @param input          the text {@link #shouldToggle(String)} would be given, see {@link #useFormattedMessage()}
+     * @return true if the message matches the toggle test
+     */
+    public boolean shouldToggle(ChatClassification classification, String input) {
+        return shouldToggle(input);
+    }
+
     /**
      * Checks to see if the given chat is enabled
      *
@@ -116,6 +130,16 @@ public abstract class ToggleBase {
         return false;
     }
 
+    /**
+     * The patterns {@link #shouldToggle(String)} matches the stripped message against. When every message this
+     * toggle hides has to match one of them, the toggle is skipped for chat the classifier rules them out for.
+     *
+     * @return the patterns, or null if the toggle should see every message
+     */
+    public ChatPattern[] getChatPatterns() {
+        return null;
+    }
+
     /**
      * Assistance in linked-list creation
      *
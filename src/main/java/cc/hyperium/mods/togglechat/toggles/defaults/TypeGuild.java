@@ -18,14 +18,17 @@
 package cc.hyperium.mods.togglechat.toggles.defaults;
 
 import cc.hyperium.mods.togglechat.toggles.ToggleBase;
+import cc.hyperium.utils.chat.ChatClassification;
+import cc.hyperium.utils.chat.ChatClassifier;
+import cc.hyperium.utils.chat.ChatPattern;
 
 import java.util.LinkedList;
-import java.util.regex.Pattern;
 
 public class TypeGuild extends ToggleBase {
 
-    private final Pattern guildPattern = Pattern.compile("Guild > (?<rank>\\[.+] )?(?<player>\\S{1,16}): (?<message>.*)");
-    private final Pattern shortGuildPattern = Pattern.compile("G > (?<rank>\\[.+] )?(?<player>\\S{1,16}): (?<message>.*)");
+    private final ChatPattern guildPattern = ChatClassifier.INSTANCE.register("Guild > (?<rank>\\[.+] )?(?<player>\\S{1,16}): (?<message>.*)");
+    private final ChatPattern shortGuildPattern = ChatClassifier.INSTANCE.register("G > (?<rank>\\[.+] )?(?<player>\\S{1,16}): (?<message>.*)");
+    private final ChatPattern[] patterns = {this.guildPattern, this.shortGuildPattern};
 
     private boolean enabled = true;
 
@@ -36,7 +39,17 @@ public class TypeGuild extends ToggleBase {
 
     @Override
     public boolean shouldToggle(String message) {
-        return this.guildPattern.matcher(message).matches() || this.shortGuildPattern.matcher(message).matches();
+        return this.guildPattern.getPattern().matcher(message).matches() || this.shortGuildPattern.getPattern().matcher(message).matches();
+    }
+
+    @Override
+    public boolean shouldToggle(ChatClassification classification, String input) {
+        return classification.matches(this.guildPattern) != null || classification.matches(this.shortGuildPattern) != null;
+    }
+
+    @Override
+    public ChatPattern[] getChatPatterns() {
+        return this.patterns;
     }
 
     @Override
@@ -18,13 +18,16 @@
 package cc.hyperium.mods.togglechat.toggles.defaults;
 
 import cc.hyperium.mods.togglechat.toggles.ToggleBase;
+import cc.hyperium.utils.chat.ChatClassification;
+import cc.hyperium.utils.chat.ChatClassifier;
+import cc.hyperium.utils.chat.ChatPattern;
 
 import java.util.LinkedList;
-import java.util.regex.Pattern;
 
 public class TypeJoin extends ToggleBase {
 
-    private final Pattern joinPattern = Pattern.compile("(?<player>\\S{1,16})(\\s+)(joined\\.)");
+    private final ChatPattern joinPattern = ChatClassifier.INSTANCE.register("(?<player>\\S{1,16})(\\s+)(joined\\.)");
+    private final ChatPattern[] patterns = {this.joinPattern};
 
     private boolean enabled = true;
 
@@ -35,7 +38,17 @@ public class TypeJoin extends ToggleBase {
 
     @Override
     public boolean shouldToggle(String message) {
-        return this.joinPattern.matcher(message).matches();
+        return this.joinPattern.getPattern().matcher(message).matches();
+    }
+
+    @Override
+    public boolean shouldToggle(ChatClassification classification, String input) {
+        return classification.matches(this.joinPattern) != null;
+    }
+
+    @Override
+    public ChatPattern[] getChatPatterns() {
+        return this.patterns;
     }
 
     @Override
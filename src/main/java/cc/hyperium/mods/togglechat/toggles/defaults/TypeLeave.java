@@ -18,13 +18,16 @@
 package cc.hyperium.mods.togglechat.toggles.defaults;
 
 import cc.hyperium.mods.togglechat.toggles.ToggleBase;
+import cc.hyperium.utils.chat.ChatClassification;
+import cc.hyperium.utils.chat.ChatClassifier;
+import cc.hyperium.utils.chat.ChatPattern;
 
 import java.util.LinkedList;
-import java.util.regex.Pattern;
 
 public class TypeLeave extends ToggleBase {
 
-    private final Pattern leavePattern = Pattern.compile("(?<player>\\S{1,16})(\\s+)(left\\.)");
+    private final ChatPattern leavePattern = ChatClassifier.INSTANCE.register("(?<player>\\S{1,16})(\\s+)(left\\.)");
+    private final ChatPattern[] patterns = {this.leavePattern};
 
     private boolean enabled = true;
 
@@ -35,7 +38,17 @@ public class TypeLeave extends ToggleBase {
 
     @Override
     public boolean shouldToggle(String message) {
-        return this.leavePattern.matcher(message).matches();
+        return this.leavePattern.getPattern().matcher(message).matches();
+    }
+
+    @Override
+    public boolean shouldToggle(ChatClassification classification, String input) {
+        return classification.matches(this.leavePattern) != null;
+    }
+
+    @Override
+    public ChatPattern[] getChatPatterns() {
+        return this.patterns;
     }
 
     @Override
@@ -18,14 +18,17 @@
 package cc.hyperium.mods.togglechat.toggles.defaults;
 
 import cc.hyperium.mods.togglechat.toggles.ToggleBase;
+import cc.hyperium.utils.chat.ChatClassification;
+import cc.hyperium.utils.chat.ChatClassifier;
+import cc.hyperium.utils.chat.ChatPattern;
 
 import java.util.LinkedList;
-import java.util.regex.Pattern;
 
 public class TypeMysteryBox extends ToggleBase {
 
-    private final Pattern mysteryPattern = Pattern.compile("(?<player>\\S{1,16}) found a (?<star>\\S{1,5}) Mystery Box!");
-    private final Pattern mysteryFoundPattern = Pattern.compile("\\[Mystery Box] (?<player>\\S{1,16}) found a (?<thing>.*)!");
+    private final ChatPattern mysteryPattern = ChatClassifier.INSTANCE.register("(?<player>\\S{1,16}) found a (?<star>\\S{1,5}) Mystery Box!");
+    private final ChatPattern mysteryFoundPattern = ChatClassifier.INSTANCE.register("\\[Mystery Box] (?<player>\\S{1,16}) found a (?<thing>.*)!");
+    private final ChatPattern[] patterns = {this.mysteryPattern, this.mysteryFoundPattern};
 
     private boolean enabled = true;
 
@@ -41,7 +44,17 @@ public class TypeMysteryBox extends ToggleBase {
 
     @Override
     public boolean shouldToggle(String message) {
-        return this.mysteryPattern.matcher(message).matches() || this.mysteryFoundPattern.matcher(message).matches();
+        return this.mysteryPattern.getPattern().matcher(message).matches() || this.mysteryFoundPattern.getPattern().matcher(message).matches();
+    }
+
+    @Override
+    public boolean shouldToggle(ChatClassification classification, String input) {
+        return classification.matches(this.mysteryPattern) != null || classification.matches(this.mysteryFoundPattern) != null;
+    }
+
+    @Override
+    public ChatPattern[] getChatPatterns() {
+        return this.patterns;
     }
 
     @Override
@@ -18,14 +18,17 @@
 package cc.hyperium.mods.togglechat.toggles.defaults;
 
 import cc.hyperium.mods.togglechat.toggles.ToggleBase;
+import cc.hyperium.utils.chat.ChatClassification;
+import cc.hyperium.utils.chat.ChatClassifier;
+import cc.hyperium.utils.chat.ChatPattern;
 
 import java.util.LinkedList;
-import java.util.regex.Pattern;
 
 public class TypeParty extends ToggleBase {
 
-    private final Pattern partyPattern = Pattern.compile("Party > (?<rank>\\[.+] )?(?<player>\\S{1,16}): (?<message>.*)");
-    private final Pattern shortPartyPattern = Pattern.compile("P > (?<rank>\\[.+] )?(?<player>\\S{1,16}): (?<message>.*)");
+    private final ChatPattern partyPattern = ChatClassifier.INSTANCE.register("Party > (?<rank>\\[.+] )?(?<player>\\S{1,16}): (?<message>.*)");
+    private final ChatPattern shortPartyPattern = ChatClassifier.INSTANCE.register("P > (?<rank>\\[.+] )?(?<player>\\S{1,16}): (?<message>.*)");
+    private final ChatPattern[] patterns = {this.partyPattern, this.shortPartyPattern};
 
     private boolean enabled = true;
 
@@ -36,7 +39,17 @@ public class TypeParty extends ToggleBase {
 
     @Override
     public boolean shouldToggle(String message) {
-        return this.partyPattern.matcher(message).matches() || this.shortPartyPattern.matcher(message).matches();
+        return this.partyPattern.getPattern().matcher(message).matches() || this.shortPartyPattern.getPattern().matcher(message).matches();
+    }
+
+    @Override
+    public boolean shouldToggle(ChatClassification classification, String input) {
+        return classification.matches(this.partyPattern) != null || classification.matches(this.shortPartyPattern) != null;
+    }
+
+    @Override
+    public ChatPattern[] getChatPatterns() {
+        return this.patterns;
     }
 
     @Override
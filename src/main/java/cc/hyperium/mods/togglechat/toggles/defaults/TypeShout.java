@@ -18,13 +18,16 @@
 package cc.hyperium.mods.togglechat.toggles.defaults;
 
 import cc.hyperium.mods.togglechat.toggles.ToggleBase;
+import cc.hyperium.utils.chat.ChatClassification;
+import cc.hyperium.utils.chat.ChatClassifier;
+import cc.hyperium.utils.chat.ChatPattern;
 
 import java.util.LinkedList;
-import java.util.regex.Pattern;
 
 public class TypeShout extends ToggleBase {
 
-    private final Pattern shoutPattern = Pattern.compile("\\[SHOUT] (?<rank>\\[.+] )?(?<player>\\S{1,16}): (?<message>.*)");
+    private final ChatPattern shoutPattern = ChatClassifier.INSTANCE.register("\\[SHOUT] (?<rank>\\[.+] )?(?<player>\\S{1,16}): (?<message>.*)");
+    private final ChatPattern[] patterns = {this.shoutPattern};
 
     private boolean enabled = true;
 
@@ -35,7 +38,17 @@ public class TypeShout extends ToggleBase {
 
     @Override
     public boolean shouldToggle(String message) {
-        return this.shoutPattern.matcher(message).matches();
+        return this.shoutPattern.getPattern().matcher(message).matches();
+    }
+
+    @Override
+    public boolean shouldToggle(ChatClassification classification, String input) {
+        return classification.matches(this.shoutPattern) != null;
+    }
+
+    @Override
+    public ChatPattern[] getChatPatterns() {
+        return this.patterns;
     }
 
     @Override
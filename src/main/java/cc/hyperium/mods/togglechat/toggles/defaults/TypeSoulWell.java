@@ -18,13 +18,16 @@
 package cc.hyperium.mods.togglechat.toggles.defaults;
 
 import cc.hyperium.mods.togglechat.toggles.ToggleBase;
+import cc.hyperium.utils.chat.ChatClassification;
+import cc.hyperium.utils.chat.ChatClassifier;
+import cc.hyperium.utils.chat.ChatPattern;
 
 import java.util.LinkedList;
-import java.util.regex.Pattern;
 
 public class TypeSoulWell extends ToggleBase {
 
-    private final Pattern soulPattern = Pattern.compile("(?<player>\\S{1,16}) has found (?<message>.*) in the Soul Well!");
+    private final ChatPattern soulPattern = ChatClassifier.INSTANCE.register("(?<player>\\S{1,16}) has found (?<message>.*) in the Soul Well!");
+    private final ChatPattern[] patterns = {this.soulPattern};
 
     private boolean enabled = true;
 
@@ -40,7 +43,17 @@ public class TypeSoulWell extends ToggleBase {
 
     @Override
     public boolean shouldToggle(String message) {
-        return this.soulPattern.matcher(message).matches();
+        return this.soulPattern.getPattern().matcher(message).matches();
+    }
+
+    @Override
+    public boolean shouldToggle(ChatClassification classification, String input) {
+        return classification.matches(this.soulPattern) != null;
+    }
+
+    @Override
+    public ChatPattern[] getChatPatterns() {
+        return this.patterns;
     }
 
     @Override
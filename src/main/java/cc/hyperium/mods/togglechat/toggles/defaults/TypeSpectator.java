@@ -18,16 +18,19 @@
 package cc.hyperium.mods.togglechat.toggles.defaults;
 
 import cc.hyperium.mods.togglechat.toggles.ToggleBase;
+import cc.hyperium.utils.chat.ChatClassification;
+import cc.hyperium.utils.chat.ChatClassifier;
+import cc.hyperium.utils.chat.ChatPattern;
 
 import java.util.LinkedList;
-import java.util.regex.Pattern;
 
 /**
  * #BringBackSpecChat
  */
 public class TypeSpectator extends ToggleBase {
 
-    private final Pattern spectatorPattern = Pattern.compile("\\[SPECTATOR] (?<rank>\\[.+] )?(?<player>\\S{1,16}): (?<message>.*)");
+    private final ChatPattern spectatorPattern = ChatClassifier.INSTANCE.register("\\[SPECTATOR] (?<rank>\\[.+] )?(?<player>\\S{1,16}): (?<message>.*)");
+    private final ChatPattern[] patterns = {this.spectatorPattern};
 
     private boolean enabled = true;
 
@@ -38,7 +41,17 @@ public class TypeSpectator extends ToggleBase {
 
     @Override
     public boolean shouldToggle(String message) {
-        return this.spectatorPattern.matcher(message).matches();
+        return this.spectatorPattern.getPattern().matcher(message).matches();
+    }
+
+    @Override
+    public boolean shouldToggle(ChatClassification classification, String input) {
+        return classification.matches(this.spectatorPattern) != null;
+    }
+
+    @Override
+    public ChatPattern[] getChatPatterns() {
+        return this.patterns;
     }
 
     @Override
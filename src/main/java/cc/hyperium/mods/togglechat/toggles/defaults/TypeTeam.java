@@ -18,13 +18,16 @@
 package cc.hyperium.mods.togglechat.toggles.defaults;
 
 import cc.hyperium.mods.togglechat.toggles.ToggleBase;
+import cc.hyperium.utils.chat.ChatClassification;
+import cc.hyperium.utils.chat.ChatClassifier;
+import cc.hyperium.utils.chat.ChatPattern;
 
 import java.util.LinkedList;
-import java.util.regex.Pattern;
 
 public class TypeTeam extends ToggleBase {
 
-    private final Pattern teamPattern = Pattern.compile("\\[TEAM] (?<rank>\\[.+] )?(?<player>\\S{1,16}): (?<message>.*)");
+    private final ChatPattern teamPattern = ChatClassifier.INSTANCE.register("\\[TEAM] (?<rank>\\[.+] )?(?<player>\\S{1,16}): (?<message>.*)");
+    private final ChatPattern[] patterns = {this.teamPattern};
 
     private boolean enabled = true;
 
@@ -35,7 +38,17 @@ public class TypeTeam extends ToggleBase {
 
     @Override
     public boolean shouldToggle(String message) {
-        return this.teamPattern.matcher(message).matches();
+        return this.teamPattern.getPattern().matcher(message).matches();
+    }
+
+    @Override
+    public boolean shouldToggle(ChatClassification classification, String input) {
+        return classification.matches(this.teamPattern) != null;
+    }
+
+    @Override
+    public ChatPattern[] getChatPatterns() {
+        return this.patterns;
     }
 
     @Override
@@ -34,13 +34,21 @@ public class HyperiumPurchase {
     private PurchaseSettings cachedSettings = new PurchaseSettings(new JsonHolder());
 
     public HyperiumPurchase(UUID playerUUID, JsonHolder response) {
+        this(playerUUID, response, null);
+    }
+
+    /**
+     * @param knownSettings the player's settings if they're already known, otherwise they're fetched
+     */
+    public HyperiumPurchase(UUID playerUUID, JsonHolder response, JsonHolder knownSettings) {
         this.playerUUID = playerUUID;
         this.response = response;
         if (response.optBoolean("non_player"))
             return;
         everything = (response.optLong("everything") > System.currentTimeMillis());
 
-        purchaseSettings = PurchaseApi.getInstance().get("https://api.hyperium.cc/purchaseSettings/" + (playerUUID.toString()));
+        purchaseSettings = knownSettings != null ? knownSettings
+            : PurchaseApi.getInstance().get("https://api.hyperium.cc/purchaseSettings/" + (playerUUID.toString()));
         cachedSettings = new PurchaseSettings(getPurchaseSettings());
         for (JsonElement nicePackages : response.optJSONArray("hyperium")) {
             String asString = nicePackages.getAsString();
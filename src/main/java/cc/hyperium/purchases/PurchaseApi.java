@@ -25,29 +25,30 @@ import cc.hyperium.event.SpawnpointChangeEvent;
 import cc.hyperium.mods.sk1ercommon.Multithreading;
 import cc.hyperium.purchases.packages.EarsCosmetic;
 import cc.hyperium.utils.JsonHolder;
+import cc.hyperium.utils.PlayerDataStore;
 import cc.hyperium.utils.UUIDUtil;
+import cc.hyperium.utils.http.HttpResponse;
+import cc.hyperium.utils.http.HyperiumHttpClient;
 import com.google.gson.JsonObject;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.multiplayer.WorldClient;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.util.EnumChatFormatting;
-import org.apache.commons.io.IOUtils;
 
-import java.io.InputStream;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.nio.charset.Charset;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 public class PurchaseApi {
 
     public final static String url = "https://api.hyperium.cc/purchases/";
+    private static final String STORE_NAMESPACE = "purchases";
+    private static final long STALE_MINUTES = 30;
     private static final PurchaseApi instance = new PurchaseApi();
     private final Map<UUID, HyperiumPurchase> purchasePlayers = new ConcurrentHashMap<>();
     private final Map<EnumPurchaseType, Class<? extends AbstractHyperiumPurchase>> purchaseClasses = new HashMap<>();
@@ -119,12 +120,45 @@ public class PurchaseApi {
                 return non_player;
             }
 
-            HyperiumPurchase hyperiumPurchase = new HyperiumPurchase(uuid, get(url + uuid.toString()));
+            PlayerDataStore.Record stored = PlayerDataStore.INSTANCE.get(STORE_NAMESPACE, uuid);
+            if (stored != null) {
+                // serve what we had last session and refresh it in the background if it's old
+                JsonHolder data = new JsonHolder(stored.getData());
+                HyperiumPurchase hyperiumPurchase = new HyperiumPurchase(uuid, data.optJSONObject("response"), data.optJSONObject("settings"));
+                boolean self = uuid.equals(UUIDUtil.getClientUUID());
+                if (self || stored.isStale(STALE_MINUTES, TimeUnit.MINUTES)) {
+                    Multithreading.runAsync(() -> revalidate(uuid));
+                }
+                EventBus.INSTANCE.post(new PurchaseLoadEvent(uuid, hyperiumPurchase, self));
+                return hyperiumPurchase;
+            }
+
+            HyperiumPurchase hyperiumPurchase = fetch(uuid);
             EventBus.INSTANCE.post(new PurchaseLoadEvent(uuid, hyperiumPurchase, uuid.equals(UUIDUtil.getClientUUID())));
             return hyperiumPurchase;
         });
     }
 
+    private HyperiumPurchase fetch(UUID uuid) {
+        JsonHolder response = get(url + uuid.toString());
+        HyperiumPurchase purchase = new HyperiumPurchase(uuid, response);
+        if (response.optBoolean("success", true) && !response.optBoolean("non_player")) {
+            PlayerDataStore.INSTANCE.put(STORE_NAMESPACE, uuid,
+                new JsonHolder().put("response", response).put("settings", purchase.getPurchaseSettings()).toString());
+        }
+        return purchase;
+    }
+
+    private void revalidate(UUID uuid) {
+        HyperiumPurchase value = fetch(uuid);
+        if (!value.getResponse().optBoolean("success", true)) {
+            // keep serving the stored purchase rather than an empty one
+            return;
+        }
+        purchasePlayers.put(uuid, value);
+        EventBus.INSTANCE.post(new PurchaseLoadEvent(uuid, value, uuid.equals(UUIDUtil.getClientUUID())));
+    }
+
     public HyperiumPurchase getPackageIfReady(UUID uuid) {
         if (uuid == null)
             return null;
@@ -169,18 +203,10 @@ public class PurchaseApi {
     }
 
     public JsonHolder get(String url) {
-        url = url.replace(" ", "%20");
         try {
-            URL u = new URL(url);
-            HttpURLConnection connection = (HttpURLConnection) u.openConnection();
-            connection.setRequestMethod("GET");
-            connection.setUseCaches(true);
-            connection.addRequestProperty("User-Agent", "Mozilla/4.76 Hyperium ");
-            connection.setReadTimeout(15000);
-            connection.setConnectTimeout(15000);
-            connection.setDoOutput(true);
-            InputStream is = connection.getInputStream();
-            return new JsonHolder(IOUtils.toString(is, Charset.forName("UTF-8")));
+            HttpResponse response = HyperiumHttpClient.INSTANCE.execute(url);
+            if (response.isSuccessful())
+                return response.asJson();
         } catch (Exception e) {
         }
         JsonObject object = new JsonObject();
@@ -191,13 +217,13 @@ public class PurchaseApi {
 
     public synchronized void refreshSelf() {
         UUID id = UUIDUtil.getClientUUID();
-        HyperiumPurchase value = new HyperiumPurchase(id, get(url + id.toString()));
+        HyperiumPurchase value = fetch(id);
         EventBus.INSTANCE.post(new PurchaseLoadEvent(id, value, true));
         purchasePlayers.put(id, value);
     }
 
     public void reload(UUID uuid) {
-        HyperiumPurchase value = new HyperiumPurchase(uuid, get(url + uuid.toString()));
+        HyperiumPurchase value = fetch(uuid);
         EventBus.INSTANCE.post(new PurchaseLoadEvent(uuid, value, true));
         purchasePlayers.put(uuid, value);
         Hyperium.INSTANCE.getHandlers().getCapeHandler().deleteCape(uuid);
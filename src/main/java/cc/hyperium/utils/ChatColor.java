@@ -45,6 +45,7 @@ public enum ChatColor {
     RESET('r');
 
     public static final char COLOR_CHAR = '\u00A7';
+    private static final Pattern STRIP_COLOR_PATTERN = Pattern.compile("(?i)" + COLOR_CHAR + "[0-9A-FK-OR]");
 
     private final char code;
     private final boolean isFormat;
@@ -64,7 +65,7 @@ public enum ChatColor {
         if (input == null) {
             return null;
         }
-        return Pattern.compile("(?i)" + COLOR_CHAR + "[0-9A-FK-OR]").matcher(input).replaceAll("");
+        return STRIP_COLOR_PATTERN.matcher(input).replaceAll("");
     }
 
     public static String translateAlternateColorCodes(char altColorChar, String textToTranslate) {
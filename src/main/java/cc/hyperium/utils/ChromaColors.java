@@ -0,0 +1,207 @@
+/*
+ *     Copyright (C) 2018  Hyperium <https://hyperium.cc/>
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published
+ *     by the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cc.hyperium.utils;
+
+import cc.hyperium.event.InvokeEvent;
+import cc.hyperium.event.RenderTickEvent;
+import cc.hyperium.mixins.renderer.IMixinFontRenderer;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.FontRenderer;
+import net.minecraft.client.renderer.GlStateManager;
+import net.minecraft.client.renderer.Tessellator;
+import net.minecraft.client.renderer.WorldRenderer;
+import net.minecraft.client.renderer.vertex.DefaultVertexFormats;
+import org.lwjgl.opengl.GL11;
+
+import java.awt.Color;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Chroma colours for every HUD, tab list, name tag and particle effect.
+ * <p>
+ * Hues come from a precomputed table, so no {@link Color#HSBtoRGB(float, float, float)}
+ * call happens per character or per particle. The time is sampled once per frame, so
+ * everything drawn in a frame lines up.
+ */
+public class ChromaColors {
+
+    public static final ChromaColors INSTANCE = new ChromaColors();
+
+    /**
+     * Hue resolution of each table. 1024 steps is finer than a 2 second cycle at 144 FPS.
+     */
+    private static final int STEPS = 1024;
+
+    private final Map<Long, int[]> tables = new ConcurrentHashMap<>();
+    private final int[] defaultTable = getTable(0.8F, 0.8F);
+
+    private volatile long frameTime;
+
+    private ChromaColors() {
+    }
+
+    @InvokeEvent
+    public void onRenderTick(RenderTickEvent event) {
+        frameTime = System.currentTimeMillis();
+    }
+
+    /**
+     * @return the time chroma is animated by, sampled once per frame
+     */
+    public long getTime() {
+        long time = frameTime;
+        return time == 0 ? System.currentTimeMillis() : time;
+    }
+
+    /**
+     * @param period length of one full hue cycle, in milliseconds
+     * @return the current chroma colour with the usual saturation and brightness of 0.8
+     */
+    public int getColor(int period) {
+        return getColor(defaultTable, getTime(), period);
+    }
+
+    /**
+     * @param period     length of one full hue cycle, in milliseconds
+     * @param offset     how far behind the current time this colour is, in milliseconds
+     * @param saturation HSB saturation
+     * @param brightness HSB brightness
+     * @return the chroma colour, as an opaque ARGB int
+     */
+    public int getColor(int period, long offset, float saturation, float brightness) {
+        return getColor(getTable(saturation, brightness), getTime() - offset, period);
+    }
+
+    /**
+     * Draws a chroma string in one batch, with each glyph coloured by its position.
+     * The glyph drawn at {@code glyphX} gets the colour from {@code offset + wave * glyphX}
+     * milliseconds ago. Shadows are batched the same way.
+     * <p>
+     * Formatting codes are skipped, since chroma replaces their colour anyway. Text outside
+     * the ASCII font page, or a unicode font, falls back to drawing each glyph on its own.
+     *
+     * @return the x position after the last glyph
+     */
+    public float drawString(FontRenderer renderer, String text, float x, float y, boolean shadow, int period, float offset, float wave) {
+        if (text == null || text.isEmpty()) {
+            return x;
+        }
+
+        long time = getTime();
+        if (renderer.getUnicodeFlag() || !isAsciiPage(text)) {
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == '§' && i + 1 < text.length()) {
+                    i++;
+                    continue;
+                }
+
+                int color = getColor(defaultTable, time - (long) (offset + wave * x), period);
+                renderer.drawString(String.valueOf(c), x, y, color, shadow);
+                x += renderer.getCharWidth(c);
+            }
+
+            return x;
+        }
+
+        Minecraft.getMinecraft().getTextureManager().bindTexture(((IMixinFontRenderer) renderer).getLocationFontTexture());
+        GlStateManager.enableTexture2D();
+        GlStateManager.enableAlpha();
+
+        Tessellator tessellator = Tessellator.getInstance();
+        WorldRenderer worldRenderer = tessellator.getWorldRenderer();
+        worldRenderer.begin(GL11.GL_QUADS, DefaultVertexFormats.POSITION_TEX_COLOR);
+        if (shadow) {
+            addGlyphs(worldRenderer, renderer, text, x, x + 1, y + 1, time, period, offset, wave, true);
+        }
+        float end = addGlyphs(worldRenderer, renderer, text, x, x, y, time, period, offset, wave, false);
+        tessellator.draw();
+
+        // The colour array leaves the GL colour undefined, so make sure the next colour call is applied
+        GlStateManager.resetColor();
+        return end;
+    }
+
+    private float addGlyphs(WorldRenderer worldRenderer, FontRenderer renderer, String text, float waveX, float x, float y,
+                            long time, int period, float offset, float wave, boolean shadow) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '§') {
+                i++;
+                continue;
+            }
+
+            int width = renderer.getCharWidth(c);
+            if (c != ' ') {
+                int color = getColor(defaultTable, time - (long) (offset + wave * waveX), period);
+                if (shadow) {
+                    color = (color & 0xFCFCFC) >> 2 | color & 0xFF000000;
+                }
+
+                int red = color >> 16 & 255;
+                int green = color >> 8 & 255;
+                int blue = color & 255;
+
+                float u = (float) (c % 16 * 8) / 128.0F;
+                float v = (float) (c / 16 * 8) / 128.0F;
+                float glyphWidth = (float) width - 1.01F;
+                float u2 = u + glyphWidth / 128.0F;
+                float v2 = v + 7.99F / 128.0F;
+
+                worldRenderer.pos(x, y, 0.0D).tex(u, v).color(red, green, blue, 255).endVertex();
+                worldRenderer.pos(x, y + 7.99F, 0.0D).tex(u, v2).color(red, green, blue, 255).endVertex();
+                worldRenderer.pos(x + glyphWidth, y + 7.99F, 0.0D).tex(u2, v2).color(red, green, blue, 255).endVertex();
+                worldRenderer.pos(x + glyphWidth, y, 0.0D).tex(u2, v).color(red, green, blue, 255).endVertex();
+            }
+
+            x += width;
+            waveX += width;
+        }
+
+        return x;
+    }
+
+    private boolean isAsciiPage(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '§' && i + 1 < text.length()) {
+                i++;
+            } else if (c < 32 || c > 126) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private int getColor(int[] table, long time, int period) {
+        return table[(int) (Math.floorMod(time, (long) period) * STEPS / period)];
+    }
+
+    private int[] getTable(float saturation, float brightness) {
+        long key = (long) Float.floatToIntBits(saturation) << 32 | Float.floatToIntBits(brightness) & 0xFFFFFFFFL;
+        return tables.computeIfAbsent(key, k -> {
+            int[] table = new int[STEPS];
+            for (int i = 0; i < STEPS; i++) {
+                table[i] = Color.HSBtoRGB((float) i / STEPS, saturation, brightness);
+            }
+            return table;
+        });
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ *     Copyright (C) 2018  Hyperium <https://hyperium.cc/>
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published
+ *     by the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cc.hyperium.utils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts clicks in a sliding window, without allocating or boxing.
+ * <p>
+ * Click times are kept in a ring of {@link #CAPACITY} <code>System.nanoTime()</code> stamps. One thread records
+ * (the client thread handling mouse input), any thread can count. Counting walks forward from where the last
+ * count stopped, so each click is stepped over once when it expires. More than {@link #CAPACITY} clicks in one
+ * window reads as {@link #CAPACITY}.
+ */
+public final class ClickCounter {
+
+    private static final int CAPACITY = 64;
+    private static final int MASK = CAPACITY - 1;
+    private static final long WINDOW = TimeUnit.SECONDS.toNanos(1);
+
+    private final long[] times = new long[CAPACITY];
+    // total clicks recorded, written by the recording thread only
+    private volatile long head;
+    // first click which may still be inside the window, only ever a hint
+    private volatile long tail;
+
+    public void record() {
+        long h = head;
+        times[(int) (h & MASK)] = System.nanoTime();
+        head = h + 1;
+    }
+
+    /**
+     * @return clicks in the last second
+     */
+    public int getCount() {
+        long h = head;
+        long t = Math.max(tail, h - CAPACITY);
+        long cutoff = System.nanoTime() - WINDOW;
+        while (t < h && times[(int) (t & MASK)] - cutoff <= 0) {
+            t++;
+        }
+        tail = t;
+        return (int) (h - t);
+    }
+}
@@ -51,6 +51,7 @@ public class ConfigUtil {
     }
 
     public static void saveConfig() {
+        Hyperium.CONFIG.markDirty();
         Hyperium.CONFIG.save();
     }
 
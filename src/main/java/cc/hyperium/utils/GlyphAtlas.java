@@ -0,0 +1,162 @@
+/*
+ *     Copyright (C) 2018  Hyperium <https://hyperium.cc/>
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published
+ *     by the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cc.hyperium.utils;
+
+import net.minecraft.client.renderer.WorldRenderer;
+import net.minecraft.client.renderer.texture.TextureUtil;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.image.BufferedImage;
+
+/**
+ * One texture holding every printable ASCII glyph of a font, with per-glyph
+ * metrics. Strings are emitted as textured quads into a single batch.
+ */
+public class GlyphAtlas {
+
+    public static final char FIRST = 32;
+    public static final char LAST = 126;
+
+    private static final int PADDING = 1;
+    private static final int MAX_SIZE = 4096;
+
+    private final int textureId;
+    private final float[] minU = new float[LAST - FIRST + 1];
+    private final float[] minV = new float[LAST - FIRST + 1];
+    private final float[] maxU = new float[LAST - FIRST + 1];
+    private final float[] maxV = new float[LAST - FIRST + 1];
+    private final int[] offsetX = new int[LAST - FIRST + 1];
+    private final int[] offsetY = new int[LAST - FIRST + 1];
+    private final int[] width = new int[LAST - FIRST + 1];
+    private final int[] height = new int[LAST - FIRST + 1];
+
+    /**
+     * Rasterizes the glyphs and uploads the atlas. Must be called on the render thread.
+     *
+     * @param font   the exact font (style and size) to rasterize
+     * @param ascent distance from the top of a line to the baseline, as the glyphs are laid out
+     */
+    public GlyphAtlas(Font font, int ascent) {
+        Graphics2D scratch = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics();
+        applyHints(scratch);
+        FontRenderContext context = scratch.getFontRenderContext();
+        scratch.dispose();
+
+        GlyphVector[] glyphs = new GlyphVector[LAST - FIRST + 1];
+        Rectangle[] bounds = new Rectangle[LAST - FIRST + 1];
+        long area = 0;
+        for (char c = FIRST; c <= LAST; c++) {
+            int i = c - FIRST;
+            glyphs[i] = font.createGlyphVector(context, String.valueOf(c));
+            bounds[i] = glyphs[i].getPixelBounds(context, 0, 0);
+            area += (long) (bounds[i].width + PADDING * 2) * (bounds[i].height + PADDING * 2);
+        }
+
+        int atlasWidth = 128;
+        while (atlasWidth < MAX_SIZE && (long) atlasWidth * atlasWidth < area * 2) {
+            atlasWidth <<= 1;
+        }
+
+        int[] cellX = new int[LAST - FIRST + 1];
+        int[] cellY = new int[LAST - FIRST + 1];
+        int x = 0;
+        int y = 0;
+        int rowHeight = 0;
+        for (int i = 0; i < glyphs.length; i++) {
+            int cellWidth = bounds[i].width + PADDING * 2;
+            if (x + cellWidth > atlasWidth) {
+                x = 0;
+                y += rowHeight;
+                rowHeight = 0;
+            }
+            cellX[i] = x;
+            cellY[i] = y;
+            x += cellWidth;
+            rowHeight = Math.max(rowHeight, bounds[i].height + PADDING * 2);
+        }
+
+        int atlasHeight = 1;
+        while (atlasHeight < y + rowHeight) {
+            atlasHeight <<= 1;
+        }
+
+        BufferedImage image = new BufferedImage(atlasWidth, atlasHeight, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = image.createGraphics();
+        applyHints(graphics);
+        graphics.setColor(Color.WHITE);
+        for (int i = 0; i < glyphs.length; i++) {
+            Rectangle bound = bounds[i];
+            if (bound.isEmpty()) {
+                continue;
+            }
+
+            graphics.drawGlyphVector(glyphs[i], cellX[i] + PADDING - bound.x, cellY[i] + PADDING - bound.y);
+
+            offsetX[i] = bound.x - PADDING;
+            offsetY[i] = ascent + bound.y - PADDING;
+            width[i] = bound.width + PADDING * 2;
+            height[i] = bound.height + PADDING * 2;
+            minU[i] = (float) cellX[i] / atlasWidth;
+            minV[i] = (float) cellY[i] / atlasHeight;
+            maxU[i] = (float) (cellX[i] + width[i]) / atlasWidth;
+            maxV[i] = (float) (cellY[i] + height[i]) / atlasHeight;
+        }
+        graphics.dispose();
+
+        textureId = TextureUtil.uploadTextureImageAllocate(TextureUtil.glGenTextures(), image, true, true);
+    }
+
+    private static void applyHints(Graphics2D graphics) {
+        graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        graphics.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+    }
+
+    public boolean contains(char c) {
+        return c >= FIRST && c <= LAST;
+    }
+
+    public int getTextureId() {
+        return textureId;
+    }
+
+    /**
+     * Adds the quad for one glyph, with its pen position at {@code x} and the top of the line at {@code y}.
+     * The batch must have been started with {@code POSITION_TEX_COLOR} quads.
+     */
+    public void addGlyph(WorldRenderer worldRenderer, char c, float x, float y, int red, int green, int blue, int alpha) {
+        int i = c - FIRST;
+        if (width[i] == 0) {
+            return;
+        }
+
+        float left = x + offsetX[i];
+        float top = y + offsetY[i];
+        float right = left + width[i];
+        float bottom = top + height[i];
+        worldRenderer.pos(left, top, 0.0D).tex(minU[i], minV[i]).color(red, green, blue, alpha).endVertex();
+        worldRenderer.pos(left, bottom, 0.0D).tex(minU[i], maxV[i]).color(red, green, blue, alpha).endVertex();
+        worldRenderer.pos(right, bottom, 0.0D).tex(maxU[i], maxV[i]).color(red, green, blue, alpha).endVertex();
+        worldRenderer.pos(right, top, 0.0D).tex(maxU[i], minV[i]).color(red, green, blue, alpha).endVertex();
+    }
+}
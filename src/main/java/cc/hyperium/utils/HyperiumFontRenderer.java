@@ -17,17 +17,24 @@
 
 package cc.hyperium.utils;
 
+import cc.hyperium.config.Settings;
 import cc.hyperium.installer.InstallerMain;
+import cc.hyperium.mixinsimp.client.GlStateModifier;
 import net.minecraft.client.renderer.GlStateManager;
+import net.minecraft.client.renderer.Tessellator;
+import net.minecraft.client.renderer.WorldRenderer;
+import net.minecraft.client.renderer.vertex.DefaultVertexFormats;
 import net.minecraft.util.StringUtils;
 import org.lwjgl.opengl.GL11;
 import org.newdawn.slick.UnicodeFont;
 import org.newdawn.slick.font.effects.ColorEffect;
+import org.newdawn.slick.opengl.TextureImpl;
 
 import java.awt.*;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -36,9 +43,17 @@ public class HyperiumFontRenderer {
     public final int FONT_HEIGHT = 9;
     private final int[] colorCodes = new int[32];
     private final float kerning;
-    private final Map<String, Float> cachedStringWidth = new HashMap<>();
+    private final Map<String, Float> cachedStringWidth = new LinkedHashMap<String, Float>(256, 0.75F, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Float> eldest) {
+            return size() > 1000;
+        }
+    };
+    private final float[] glyphWidths = new float[256];
     private float antiAliasingFactor;
     private UnicodeFont unicodeFont;
+    private GlyphAtlas atlas;
+    private boolean atlasFailed;
 
     public HyperiumFontRenderer(String fontName, int fontType, int size) {
         this(fontName, fontType, size, 0);
@@ -52,6 +67,7 @@ public class HyperiumFontRenderer {
             e.printStackTrace();
         }
         this.kerning = kerning;
+        Arrays.fill(glyphWidths, Float.NaN);
 
         this.unicodeFont.addAsciiGlyphs();
         this.unicodeFont.getEffects().add(new ColorEffect(java.awt.Color.WHITE));
@@ -86,6 +102,7 @@ public class HyperiumFontRenderer {
         this.antiAliasingFactor = antiAliasingFactor;
         this.unicodeFont = new UnicodeFont(new Font(font.getName(), font.getStyle(), (int) (font.getSize() * antiAliasingFactor)));
         this.kerning = kerning;
+        Arrays.fill(glyphWidths, Float.NaN);
 
         this.unicodeFont.addAsciiGlyphs();
         this.unicodeFont.getEffects().add(new ColorEffect(java.awt.Color.WHITE));
@@ -151,6 +168,10 @@ public class HyperiumFontRenderer {
         if (text == null)
             return 0;
 
+        if (Settings.BATCHED_GUI_FONTS && canBatch(text)) {
+            return drawBatched(text, x, y, color);
+        }
+
         x *= 2.0F;
         y *= 2.0F;
 
@@ -167,9 +188,9 @@ public class HyperiumFontRenderer {
         float alpha = (float) (color >> 24 & 255) / 255.0F;
         GlStateManager.color(red, green, blue, alpha);
 
-        boolean blend = GL11.glIsEnabled(GL11.GL_BLEND);
-        boolean lighting = GL11.glIsEnabled(GL11.GL_LIGHTING);
-        boolean texture = GL11.glIsEnabled(GL11.GL_TEXTURE_2D);
+        boolean blend = GlStateModifier.INSTANCE.isBlendEnabled();
+        boolean lighting = GlStateModifier.INSTANCE.isLightingEnabled();
+        boolean texture = GlStateModifier.INSTANCE.isTexture2DEnabled();
         if (!blend)
             GL11.glEnable(GL11.GL_BLEND);
         if (lighting)
@@ -216,6 +237,102 @@ public class HyperiumFontRenderer {
         return (int) x / 2;
     }
 
+    private boolean canBatch(String text) {
+        if (atlas == null) {
+            if (atlasFailed) {
+                return false;
+            }
+
+            try {
+                atlas = new GlyphAtlas(unicodeFont.getFont(), unicodeFont.getAscent());
+            } catch (Exception e) {
+                e.printStackTrace();
+                atlasFailed = true;
+                return false;
+            }
+        }
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\247' && i + 1 < text.length()) {
+                i++;
+            } else if (!atlas.contains(c) && c != '\r' && c != '\n') {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Draws the whole string as one batch of quads from the glyph atlas, with the same
+     * layout as the per-character path. Blending, lighting and texturing are left
+     * the way the caller had them.
+     */
+    private int drawBatched(String text, float x, float y, int color) {
+        x *= 2.0F * antiAliasingFactor;
+        y *= 2.0F * antiAliasingFactor;
+        float originalX = x;
+
+        GL11.glPushMatrix();
+        GlStateManager.scale(1 / antiAliasingFactor, 1 / antiAliasingFactor, 1 / antiAliasingFactor);
+        GL11.glScaled(0.5F, 0.5F, 0.5F);
+
+        // read from and changed through GlStateManager, no driver round trips and its cache stays in sync
+        boolean blend = GlStateModifier.INSTANCE.isBlendEnabled();
+        boolean lighting = GlStateModifier.INSTANCE.isLightingEnabled();
+        boolean texture = GlStateModifier.INSTANCE.isTexture2DEnabled();
+        if (!blend)
+            GlStateManager.enableBlend();
+        if (lighting)
+            GlStateManager.disableLighting();
+        if (!texture)
+            GlStateManager.enableTexture2D();
+        GlStateManager.bindTexture(atlas.getTextureId());
+
+        Tessellator tessellator = Tessellator.getInstance();
+        WorldRenderer worldRenderer = tessellator.getWorldRenderer();
+        worldRenderer.begin(GL11.GL_QUADS, DefaultVertexFormats.POSITION_TEX_COLOR);
+
+        int currentColor = color;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\247' && i + 1 < text.length()) {
+                int codeIndex = "0123456789abcdefg".indexOf(text.charAt(++i));
+                if (codeIndex >= 0) {
+                    currentColor = this.colorCodes[codeIndex];
+                }
+                continue;
+            }
+
+            if (c == '\r') {
+                x = originalX;
+            } else if (c == '\n') {
+                y += getHeight("\n") * 2.0F;
+            } else {
+                int alpha = currentColor >> 24 & 255;
+                atlas.addGlyph(worldRenderer, c, x, y, currentColor >> 16 & 255, currentColor >> 8 & 255, currentColor & 255, alpha == 0 ? 255 : alpha);
+            }
+
+            x += getGlyphWidth(c) * 2.0F * antiAliasingFactor;
+        }
+
+        tessellator.draw();
+
+        // Slick caches its last bound texture, so make it bind again on its next draw
+        TextureImpl.unbind();
+        if (!texture)
+            GlStateManager.disableTexture2D();
+        if (lighting)
+            GlStateManager.enableLighting();
+        if (!blend)
+            GlStateManager.disableBlend();
+        GlStateManager.resetColor();
+        GlStateManager.color(1.0F, 1.0F, 1.0F, 1.0F);
+        GL11.glPopMatrix();
+        return (int) x / 2;
+    }
+
     public int drawStringWithShadow(String text, float x, float y, int color) {
         drawString(StringUtils.stripControlCodes(text), x + 0.5F, y + 0.5F, 0x000000);
         return drawString(text, x, y, color);
@@ -250,20 +367,35 @@ public class HyperiumFontRenderer {
     }
 
     public float getWidth(String s) {
-        if (cachedStringWidth.size() > 1000)
-            cachedStringWidth.clear();
+        if (s.length() == 1) {
+            return getGlyphWidth(s.charAt(0));
+        }
+
         return cachedStringWidth.computeIfAbsent(s, e -> {
             float width = 0.0F;
             String str = StringUtils.stripControlCodes(s);
-            for (char c : str.toCharArray()) {
-                width += unicodeFont.getWidth(Character.toString(c)) + this.kerning;
+            for (int i = 0; i < str.length(); i++) {
+                width += getGlyphWidth(str.charAt(i));
             }
 
-            return width / 2.0F / antiAliasingFactor;
+            return width;
         });
 
     }
 
+    private float getGlyphWidth(char c) {
+        if (c >= glyphWidths.length) {
+            return (unicodeFont.getWidth(String.valueOf(c)) + this.kerning) / 2.0F / antiAliasingFactor;
+        }
+
+        float width = glyphWidths[c];
+        if (Float.isNaN(width)) {
+            width = glyphWidths[c] = (unicodeFont.getWidth(String.valueOf(c)) + this.kerning) / 2.0F / antiAliasingFactor;
+        }
+
+        return width;
+    }
+
     public int getStringWidth(String text) {
         if (text == null) {
             return 0;
@@ -273,7 +405,7 @@ public class HyperiumFontRenderer {
 
             for (int j = 0; j < text.length(); ++j) {
                 char c0 = text.charAt(j);
-                float k = this.getWidth(String.valueOf(c0));
+                float k = this.getGlyphWidth(c0);
 
                 if (k < 0 && j < text.length() - 1) {
                     ++j;
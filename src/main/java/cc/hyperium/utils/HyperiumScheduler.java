@@ -4,43 +4,160 @@ import cc.hyperium.event.EventBus;
 import cc.hyperium.event.InvokeEvent;
 import cc.hyperium.event.TickEvent;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
+/**
+ * Runs tasks after a number of client ticks.
+ * <p>
+ * Tasks are kept in a hashed timing wheel keyed by the tick they are due on, so a tick only
+ * visits the tasks in its own slot rather than every pending task. Tasks can be scheduled and
+ * cancelled from any thread; new tasks are handed to the client thread through a queue and
+ * only ever touch the wheel while it is ticking.
+ */
 public class HyperiumScheduler {
 
-    private List<ScheduledItem> items = new ArrayList<>();
+    // power of two so the slot is just a mask of the due tick
+    private static final int WHEEL_SIZE = 512;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+    private final ScheduledTask[] wheel = new ScheduledTask[WHEEL_SIZE];
+    private final Queue<ScheduledTask> incoming = new ConcurrentLinkedQueue<>();
+    private long currentTick;
 
     public HyperiumScheduler() {
         EventBus.INSTANCE.register(this);
     }
 
+    /**
+     * Runs the task on the client thread once the given amount of ticks have passed
+     *
+     * @param ticks    ticks to wait, 0 runs it on the next tick
+     * @param runnable the task
+     */
     public void schedule(int ticks, Runnable runnable) {
-        items.add(new ScheduledItem(ticks, runnable));
+        scheduleTask(ticks, runnable);
+    }
+
+    /**
+     * Same as {@link #schedule(int, Runnable)}, returning a handle which can cancel the task
+     *
+     * @param ticks    ticks to wait, 0 runs it on the next tick
+     * @param runnable the task
+     * @return the handle of the task
+     */
+    public ScheduledTask scheduleTask(int ticks, Runnable runnable) {
+        ScheduledTask task = new ScheduledTask(runnable, Math.max(0, ticks), 0);
+        incoming.add(task);
+        return task;
+    }
+
+    /**
+     * Runs the task on the client thread every <code>period</code> ticks until it is cancelled
+     *
+     * @param ticks    ticks to wait before the first run, 0 runs it on the next tick
+     * @param period   ticks between runs, at least 1
+     * @param runnable the task
+     * @return the handle of the task, used to stop it
+     */
+    public ScheduledTask scheduleRepeating(int ticks, int period, Runnable runnable) {
+        if (period < 1) {
+            throw new IllegalArgumentException("period must be at least 1 tick");
+        }
+        ScheduledTask task = new ScheduledTask(runnable, Math.max(0, ticks), period);
+        incoming.add(task);
+        return task;
     }
 
     @InvokeEvent
     public void tick(TickEvent event) {
-        items.removeIf(ScheduledItem::run);
+        long tick = ++currentTick;
+
+        ScheduledTask task;
+        while ((task = incoming.poll()) != null) {
+            if (!task.cancelled) {
+                task.dueTick = tick + task.delay;
+                insert(task);
+            }
+        }
+
+        int slot = (int) (tick & WHEEL_MASK);
+        ScheduledTask next;
+        for (task = wheel[slot]; task != null; task = next) {
+            next = task.next;
+            if (task.cancelled) {
+                unlink(task, slot);
+            } else if (task.dueTick == tick) {
+                unlink(task, slot);
+                try {
+                    task.runnable.run();
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+                if (task.period > 0 && !task.cancelled) {
+                    task.dueTick = tick + task.period;
+                    insert(task);
+                }
+            }
+            // anything else in the slot is due on a later rotation of the wheel
+        }
     }
 
-    class ScheduledItem {
-        int tickstill;
-        Runnable runnable;
+    private void insert(ScheduledTask task) {
+        int slot = (int) (task.dueTick & WHEEL_MASK);
+        ScheduledTask head = wheel[slot];
+        task.prev = null;
+        task.next = head;
+        if (head != null) {
+            head.prev = task;
+        }
+        wheel[slot] = task;
+    }
+
+    private void unlink(ScheduledTask task, int slot) {
+        if (task.prev != null) {
+            task.prev.next = task.next;
+        } else {
+            wheel[slot] = task.next;
+        }
+        if (task.next != null) {
+            task.next.prev = task.prev;
+        }
+        task.prev = null;
+        task.next = null;
+    }
 
-        public ScheduledItem(int tickstill, Runnable runnable) {
-            this.tickstill = tickstill;
+    /**
+     * Handle of a scheduled task
+     */
+    public static final class ScheduledTask {
+
+        private final Runnable runnable;
+        private final int delay;
+        private final int period;
+        private volatile boolean cancelled;
+
+        // only touched by the ticking thread
+        private long dueTick;
+        private ScheduledTask prev;
+        private ScheduledTask next;
+
+        private ScheduledTask(Runnable runnable, int delay, int period) {
             this.runnable = runnable;
+            this.delay = delay;
+            this.period = period;
         }
 
-        public boolean run() {
-            if (tickstill <= 0) {
-                runnable.run();
-                return true;
-            }
-            tickstill--;
-            return false;
+        /**
+         * Stops the task from running again. Safe to call from any thread, the task is
+         * dropped from the wheel the next time its slot comes around
+         */
+        public void cancel() {
+            cancelled = true;
+        }
 
+        public boolean isCancelled() {
+            return cancelled;
         }
     }
 }
@@ -0,0 +1,303 @@
+/*
+ *     Copyright (C) 2018  Hyperium <https://hyperium.cc/>
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published
+ *     by the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cc.hyperium.utils;
+
+import cc.hyperium.Hyperium;
+import cc.hyperium.mods.sk1ercommon.Multithreading;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Per player data kept between sessions (Levelhead tags, purchases, online status) so joining a lobby
+ * doesn't refetch everyone from scratch.
+ * <p>
+ * Records are appended to a log under the Hyperium folder, the newest record for a key wins. The log is read
+ * on the disk pool at startup, until then {@link #get(String, UUID)} misses and callers fetch as usual. Each
+ * namespace keeps at most {@link #MAX_PER_NAMESPACE} records in memory, the least recently used go first, and
+ * the log is rewritten without dead records when it grows past twice the live ones.
+ */
+public final class PlayerDataStore {
+
+    public static final PlayerDataStore INSTANCE = new PlayerDataStore(new File(Hyperium.folder, "cache/players.dat"));
+
+    private static final int MAGIC = 0x48595044; // HYPD
+    private static final int VERSION = 1;
+    private static final int MAX_PER_NAMESPACE = 2000;
+    private static final long MAX_AGE = TimeUnit.DAYS.toMillis(7);
+
+    private final File file;
+    private final Map<String, Map<UUID, Record>> namespaces = new ConcurrentHashMap<>();
+    private final Queue<Write> writes = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final Object ioLock = new Object();
+    private volatile boolean loaded;
+    private DataOutputStream out;
+    private int fileRecords;
+
+    private PlayerDataStore(File file) {
+        this.file = file;
+        Multithreading.runDisk(this::load);
+    }
+
+    /**
+     * @return the newest record stored for the player, or null if there isn't one or the store is still loading
+     */
+    public Record get(String namespace, UUID uuid) {
+        if (!loaded || uuid == null) {
+            return null;
+        }
+        Map<UUID, Record> records = namespaces.get(namespace);
+        if (records == null) {
+            return null;
+        }
+        synchronized (records) {
+            return records.get(uuid);
+        }
+    }
+
+    public void put(String namespace, UUID uuid, String data) {
+        if (uuid == null || data == null) {
+            return;
+        }
+        Record record = new Record(System.currentTimeMillis(), data);
+        remember(namespace, uuid, record);
+        writes.add(new Write(namespace, uuid, record));
+        if (loaded && flushScheduled.compareAndSet(false, true)) {
+            Multithreading.runDisk(this::flush);
+        }
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Writes anything still queued and closes the log, called on shutdown
+     */
+    public void close() {
+        synchronized (ioLock) {
+            flush();
+            if (out != null) {
+                try {
+                    out.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+                out = null;
+            }
+        }
+    }
+
+    private void remember(String namespace, UUID uuid, Record record) {
+        Map<UUID, Record> records = namespaces.computeIfAbsent(namespace, ns -> new LinkedHashMap<UUID, Record>(16, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Record> eldest) {
+                return size() > MAX_PER_NAMESPACE;
+            }
+        });
+        synchronized (records) {
+            // anything put while the log was loading is newer than what's in it
+            Record existing = records.get(uuid);
+            if (existing == null || existing.time <= record.time) {
+                records.put(uuid, record);
+            }
+        }
+    }
+
+    private void load() {
+        synchronized (ioLock) {
+            try {
+                long validLength = 0;
+                if (file.exists()) {
+                    long fileLength = file.length();
+                    long cutoff = System.currentTimeMillis() - MAX_AGE;
+                    try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+                        if (in.readInt() == MAGIC && in.readInt() == VERSION) {
+                            validLength = 8;
+                            while (true) {
+                                String namespace = in.readUTF();
+                                UUID uuid = new UUID(in.readLong(), in.readLong());
+                                long time = in.readLong();
+                                int length = in.readInt();
+                                long header = 2 + namespace.getBytes(StandardCharsets.UTF_8).length + 28;
+                                // a length past the end of the file is a record cut off or corrupted by a crash
+                                if (length < 0 || length > fileLength - validLength - header) {
+                                    break;
+                                }
+                                byte[] data = new byte[length];
+                                in.readFully(data);
+                                validLength += header + length;
+                                fileRecords++;
+                                if (time >= cutoff) {
+                                    remember(namespace, uuid, new Record(time, new String(data, StandardCharsets.UTF_8)));
+                                }
+                            }
+                        }
+                    } catch (EOFException ignored) {
+                        // end of the log, or a record cut off by a crash which is dropped below
+                    } catch (IOException | RuntimeException e) {
+                        // anything unreadable from here on is treated like a cut off tail
+                        e.printStackTrace();
+                    }
+                }
+
+                int live = 0;
+                for (Map<UUID, Record> records : namespaces.values()) {
+                    live += records.size();
+                }
+                if (validLength == 0 || fileRecords > live * 2) {
+                    compact();
+                } else {
+                    try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                        raf.setLength(validLength);
+                    }
+                }
+                out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)));
+            } catch (IOException e) {
+                e.printStackTrace();
+            } finally {
+                // even without a log, puts must stop queueing up for it
+                loaded = true;
+            }
+        }
+        flush();
+    }
+
+    /**
+     * Rewrites the log with only the records held in memory
+     */
+    private void compact() throws IOException {
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IOException("Couldn't create " + parent);
+        }
+        File temp = new File(file.getPath() + ".tmp");
+        int written = 0;
+        try (DataOutputStream compacted = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            compacted.writeInt(MAGIC);
+            compacted.writeInt(VERSION);
+            for (Map.Entry<String, Map<UUID, Record>> namespace : namespaces.entrySet()) {
+                Map<UUID, Record> records = namespace.getValue();
+                synchronized (records) {
+                    for (Map.Entry<UUID, Record> entry : records.entrySet()) {
+                        write(compacted, namespace.getKey(), entry.getKey(), entry.getValue());
+                        written++;
+                    }
+                }
+            }
+        }
+        try {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        fileRecords = written;
+    }
+
+    private void flush() {
+        flushScheduled.set(false);
+        synchronized (ioLock) {
+            if (out == null) {
+                // the log couldn't be opened, nothing queued would ever be written
+                if (loaded) {
+                    writes.clear();
+                }
+                return;
+            }
+            try {
+                Write write;
+                while ((write = writes.poll()) != null) {
+                    write(out, write.namespace, write.uuid, write.record);
+                    fileRecords++;
+                }
+                out.flush();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private static void write(DataOutputStream out, String namespace, UUID uuid, Record record) throws IOException {
+        byte[] data = record.data.getBytes(StandardCharsets.UTF_8);
+        out.writeUTF(namespace);
+        out.writeLong(uuid.getMostSignificantBits());
+        out.writeLong(uuid.getLeastSignificantBits());
+        out.writeLong(record.time);
+        out.writeInt(data.length);
+        out.write(data);
+    }
+
+    public static final class Record {
+
+        private final long time;
+        private final String data;
+
+        Record(long time, String data) {
+            this.time = time;
+            this.data = data;
+        }
+
+        public long getTime() {
+            return time;
+        }
+
+        public String getData() {
+            return data;
+        }
+
+        /**
+         * @return true if the record is older than the given age and should be fetched again
+         */
+        public boolean isStale(long maxAge, TimeUnit unit) {
+            return System.currentTimeMillis() - time > unit.toMillis(maxAge);
+        }
+    }
+
+    private static final class Write {
+
+        private final String namespace;
+        private final UUID uuid;
+        private final Record record;
+
+        Write(String namespace, UUID uuid, Record record) {
+            this.namespace = namespace;
+            this.uuid = uuid;
+            this.record = record;
+        }
+    }
+}
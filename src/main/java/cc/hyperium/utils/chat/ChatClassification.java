@@ -0,0 +1,109 @@
+/*
+ *     Copyright (C) 2018  Hyperium <https://hyperium.cc/>
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published
+ *     by the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cc.hyperium.utils.chat;
+
+import net.minecraft.util.IChatComponent;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The result of running a message through the {@link ChatClassifier}: the message stripped of colour codes and
+ * which registered patterns could match it. Full matches are worked out at most once per pattern and shared,
+ * so callers shouldn't reset the matchers they're given.
+ * <p>
+ * Meant to be used on the thread that posted the chat event, matchers aren't safely shared between threads.
+ */
+public final class ChatClassification {
+
+    private static final Matcher NO_MATCH = Pattern.compile("").matcher("");
+
+    private final IChatComponent component;
+    private final String text;
+    private final ChatPattern[] patterns;
+    private final long[] candidates;
+    private final Matcher[] matches;
+
+    ChatClassification(IChatComponent component, String text, ChatPattern[] patterns, long[] candidates) {
+        this.component = component;
+        this.text = text;
+        this.patterns = patterns;
+        this.candidates = candidates;
+        this.matches = new Matcher[patterns.length];
+    }
+
+    IChatComponent getComponent() {
+        return component;
+    }
+
+    /**
+     * @return the message without colour codes
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * @return false if the pattern can't match this message, true if it might
+     */
+    public boolean isCandidate(ChatPattern pattern) {
+        int id = pattern.getId();
+        // patterns registered after this message was classified haven't been checked
+        return id >= patterns.length || (candidates[id >>> 6] & (1L << id)) != 0;
+    }
+
+    public boolean isAnyCandidate(ChatPattern... patterns) {
+        for (ChatPattern pattern : patterns) {
+            if (isCandidate(pattern)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return a matcher which has matched the whole message, or null if the pattern doesn't match it
+     */
+    public Matcher matches(ChatPattern pattern) {
+        if (!isCandidate(pattern)) {
+            return null;
+        }
+        int id = pattern.getId();
+        if (id >= matches.length) {
+            Matcher matcher = pattern.getPattern().matcher(text);
+            return matcher.matches() ? matcher : null;
+        }
+        Matcher matcher = matches[id];
+        if (matcher == null) {
+            matcher = pattern.getPattern().matcher(text);
+            matches[id] = matcher = matcher.matches() ? matcher : NO_MATCH;
+        }
+        return matcher == NO_MATCH ? null : matcher;
+    }
+
+    /**
+     * @return a matcher which has found the pattern somewhere in the message, or null if it's not there
+     */
+    public Matcher find(ChatPattern pattern) {
+        if (!isCandidate(pattern)) {
+            return null;
+        }
+        Matcher matcher = pattern.getPattern().matcher(text);
+        return matcher.find() ? matcher : null;
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ *     Copyright (C) 2018  Hyperium <https://hyperium.cc/>
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published
+ *     by the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cc.hyperium.utils.chat;
+
+import cc.hyperium.utils.ChatColor;
+import net.minecraft.util.IChatComponent;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Classifies each chat message once for everything that looks at chat.
+ * <p>
+ * Components register the patterns they match chat against. The literal text each pattern requires is put in
+ * one Aho-Corasick automaton, so a single pass over the stripped message finds which patterns could match.
+ * Consumers then ask the {@link ChatClassification} for a pattern and only the candidates are run.
+ */
+public final class ChatClassifier {
+
+    public static final ChatClassifier INSTANCE = new ChatClassifier();
+
+    private final List<ChatPattern> patterns = new ArrayList<>();
+    private final Map<String, ChatPattern> bySource = new HashMap<>();
+    private volatile Index index;
+    // the server and gui chat events usually carry the same component, so it's only classified once
+    private volatile ChatClassification last;
+
+    private ChatClassifier() {
+    }
+
+    public ChatPattern register(String regex) {
+        return register(Pattern.compile(regex));
+    }
+
+    /**
+     * Adds a pattern to the index. Registering the same regex and flags twice returns the same pattern, so
+     * components matching the same thing share the result.
+     */
+    public synchronized ChatPattern register(Pattern pattern) {
+        String key = pattern.flags() + ":" + pattern.pattern();
+        ChatPattern chatPattern = bySource.get(key);
+        if (chatPattern == null) {
+            chatPattern = new ChatPattern(patterns.size(), pattern);
+            patterns.add(chatPattern);
+            bySource.put(key, chatPattern);
+            index = null;
+        }
+        return chatPattern;
+    }
+
+    public ChatClassification classify(IChatComponent component) {
+        ChatClassification previous = last;
+        if (previous != null && previous.getComponent() == component) {
+            return previous;
+        }
+        ChatClassification classification = classify(component, ChatColor.stripColor(component.getUnformattedText()));
+        last = classification;
+        return classification;
+    }
+
+    /**
+     * @param text the message, already stripped of colour codes
+     */
+    public ChatClassification classify(String text) {
+        return classify(null, text);
+    }
+
+    private ChatClassification classify(IChatComponent component, String text) {
+        Index index = getIndex();
+        return new ChatClassification(component, text, index.patterns, index.scan(text));
+    }
+
+    private Index getIndex() {
+        Index index = this.index;
+        if (index == null) {
+            synchronized (this) {
+                index = this.index;
+                if (index == null) {
+                    this.index = index = new Index(patterns.toArray(new ChatPattern[0]));
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Aho-Corasick automaton over the lowercased literals of every registered pattern
+     */
+    private static final class Index {
+
+        private final ChatPattern[] patterns;
+        // patterns which have no literal and are candidates for every message
+        private final long[] always;
+        private final char[][] edgeChars;
+        private final int[][] edgeTargets;
+        private final int[] fail;
+        private final int[][] outputs;
+
+        Index(ChatPattern[] patterns) {
+            this.patterns = patterns;
+            this.always = new long[(patterns.length + 63) >>> 6];
+
+            List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+            List<List<Integer>> out = new ArrayList<>();
+            trie.add(new TreeMap<>());
+            out.add(new ArrayList<>());
+            for (ChatPattern pattern : patterns) {
+                String literal = pattern.getLiteral();
+                if (literal == null) {
+                    always[pattern.getId() >>> 6] |= 1L << pattern.getId();
+                    continue;
+                }
+                int node = 0;
+                for (int i = 0; i < literal.length(); i++) {
+                    Integer next = trie.get(node).get(literal.charAt(i));
+                    if (next == null) {
+                        next = trie.size();
+                        trie.add(new TreeMap<>());
+                        out.add(new ArrayList<>());
+                        trie.get(node).put(literal.charAt(i), next);
+                    }
+                    node = next;
+                }
+                out.get(node).add(pattern.getId());
+            }
+
+            int size = trie.size();
+            edgeChars = new char[size][];
+            edgeTargets = new int[size][];
+            fail = new int[size];
+            outputs = new int[size][];
+            for (int node = 0; node < size; node++) {
+                TreeMap<Character, Integer> edges = trie.get(node);
+                edgeChars[node] = new char[edges.size()];
+                edgeTargets[node] = new int[edges.size()];
+                int i = 0;
+                for (Map.Entry<Character, Integer> edge : edges.entrySet()) {
+                    edgeChars[node][i] = edge.getKey();
+                    edgeTargets[node][i++] = edge.getValue();
+                }
+            }
+
+            // breadth first so a node's fail link is finished before its children need it
+            ArrayDeque<Integer> queue = new ArrayDeque<>();
+            for (int child : edgeTargets[0]) {
+                queue.add(child);
+            }
+            while (!queue.isEmpty()) {
+                int node = queue.poll();
+                for (int i = 0; i < edgeChars[node].length; i++) {
+                    int child = edgeTargets[node][i];
+                    int f = fail[node];
+                    int target;
+                    while ((target = step(f, edgeChars[node][i])) < 0 && f != 0) {
+                        f = fail[f];
+                    }
+                    fail[child] = target < 0 || target == child ? 0 : target;
+                    out.get(child).addAll(out.get(fail[child]));
+                    queue.add(child);
+                }
+            }
+            for (int node = 0; node < size; node++) {
+                List<Integer> ids = out.get(node);
+                outputs[node] = new int[ids.size()];
+                for (int i = 0; i < ids.size(); i++) {
+                    outputs[node][i] = ids.get(i);
+                }
+            }
+        }
+
+        private int step(int node, char c) {
+            int i = Arrays.binarySearch(edgeChars[node], c);
+            return i < 0 ? -1 : edgeTargets[node][i];
+        }
+
+        long[] scan(String text) {
+            long[] candidates = always.clone();
+            int node = 0;
+            for (int i = 0; i < text.length(); i++) {
+                char c = Character.toLowerCase(text.charAt(i));
+                int next;
+                while ((next = step(node, c)) < 0 && node != 0) {
+                    node = fail[node];
+                }
+                node = next < 0 ? 0 : next;
+                for (int id : outputs[node]) {
+                    candidates[id >>> 6] |= 1L << id;
+                }
+            }
+            return candidates;
+        }
+    }
+}
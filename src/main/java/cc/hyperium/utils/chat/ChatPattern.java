@@ -0,0 +1,291 @@
+/*
+ *     Copyright (C) 2018  Hyperium <https://hyperium.cc/>
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published
+ *     by the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cc.hyperium.utils.chat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * A pattern registered with the {@link ChatClassifier}, along with the longest piece of text every match of it
+ * has to contain. Messages without that text are never run through the regex.
+ */
+public final class ChatPattern {
+
+    // shorter literals match too much chat to be worth indexing
+    private static final int MIN_LITERAL = 3;
+
+    private final int id;
+    private final Pattern pattern;
+    private final String literal;
+
+    ChatPattern(int id, Pattern pattern) {
+        this.id = id;
+        this.pattern = pattern;
+        this.literal = findLiteral(pattern);
+    }
+
+    public Pattern getPattern() {
+        return pattern;
+    }
+
+    /**
+     * @return lowercase text every match contains, or null if the pattern has to be tried on every message
+     */
+    public String getLiteral() {
+        return literal;
+    }
+
+    int getId() {
+        return id;
+    }
+
+    private static String findLiteral(Pattern pattern) {
+        String regex = pattern.pattern();
+        if ((pattern.flags() & (Pattern.LITERAL | Pattern.COMMENTS)) != 0 || regex.contains("\\Q")) {
+            return (pattern.flags() & Pattern.LITERAL) != 0 && regex.length() >= MIN_LITERAL ? lower(regex) : null;
+        }
+
+        List<String> runs = new ArrayList<>();
+        try {
+            if (parseSequence(regex, 0, runs, new StringBuilder()) != regex.length()) {
+                return null;
+            }
+        } catch (AlternationException | CommentsException | IndexOutOfBoundsException e) {
+            return null;
+        }
+
+        String longest = null;
+        for (String run : runs) {
+            if (run.length() >= MIN_LITERAL && (longest == null || run.length() > longest.length())) {
+                longest = run;
+            }
+        }
+        return longest == null ? null : lower(longest);
+    }
+
+    /**
+     * Lowercases one char at a time, the same way {@link ChatClassifier} folds the chat it scans
+     */
+    static String lower(String s) {
+        char[] chars = s.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Walks a sequence of the regex up to the closing bracket of the group it's in, collecting runs of
+     * literal characters which every match must contain
+     *
+     * @return the index of the closing bracket, or the end of the regex
+     */
+    private static int parseSequence(String regex, int i, List<String> runs, StringBuilder run) {
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            if (c == ')') {
+                break;
+            }
+            if (c == '|') {
+                // any branch can match, nothing in this sequence is required
+                throw new AlternationException();
+            }
+
+            int next;
+            Character literal = null;
+            boolean groupRequired = false;
+            List<String> groupRuns = null;
+
+            if (c == '\\') {
+                char escaped = regex.charAt(i + 1);
+                next = i + 2;
+                if (escaped == 'n') {
+                    literal = '\n';
+                } else if (escaped == 't') {
+                    literal = '\t';
+                } else if (!Character.isLetterOrDigit(escaped)) {
+                    literal = escaped;
+                } else if (escaped == 'p' || escaped == 'P' || escaped == 'x') {
+                    next = regex.charAt(next) == '{' ? regex.indexOf('}', next) + 1 : next + (escaped == 'x' ? 2 : 1);
+                } else if (escaped == 'u') {
+                    next += 4;
+                } else if (escaped == 'c') {
+                    next++;
+                } else if (escaped == 'k') {
+                    next = regex.indexOf('>', next) + 1;
+                } else if (escaped == '0') {
+                    while (next < regex.length() && regex.charAt(next) >= '0' && regex.charAt(next) <= '7') {
+                        next++;
+                    }
+                }
+            } else if (c == '[') {
+                next = skipClass(regex, i);
+            } else if (c == '(') {
+                int start = i + 1;
+                boolean capture = true;
+                if (regex.charAt(start) == '?') {
+                    char kind = regex.charAt(start + 1);
+                    if (kind == '<' && Character.isLetter(regex.charAt(start + 2))) {
+                        start = regex.indexOf('>', start) + 1;
+                    } else if (kind == ':') {
+                        start += 2;
+                    } else if (Character.isLetter(kind) || kind == '-') {
+                        // inline flags, either (?i) or (?i:...)
+                        int end = start + 1;
+                        boolean off = false;
+                        while (Character.isLetter(regex.charAt(end)) || regex.charAt(end) == '-') {
+                            off |= regex.charAt(end) == '-';
+                            if (regex.charAt(end) == 'x' && !off) {
+                                // comments mode, whitespace and # stop being literal text
+                                throw new CommentsException();
+                            }
+                            end++;
+                        }
+                        if (regex.charAt(end) == ')') {
+                            i = end + 1;
+                            continue;
+                        }
+                        start = end + 1;
+                    } else {
+                        // lookarounds and atomic groups
+                        capture = false;
+                        start += 2;
+                    }
+                }
+                groupRuns = new ArrayList<>();
+                boolean alternation = false;
+                int end;
+                try {
+                    end = parseSequence(regex, start, groupRuns, new StringBuilder());
+                } catch (AlternationException e) {
+                    alternation = true;
+                    end = skipGroup(regex, start);
+                }
+                next = end + 1;
+                groupRequired = capture && !alternation;
+            } else if (c == '.' || c == '^' || c == '$') {
+                next = i + 1;
+            } else {
+                literal = c;
+                next = i + 1;
+            }
+
+            // a quantifier decides whether the atom has to appear at all
+            boolean optional = false;
+            boolean repeated = false;
+            if (next < regex.length()) {
+                char q = regex.charAt(next);
+                if (q == '?' || q == '*') {
+                    optional = true;
+                    next++;
+                } else if (q == '+') {
+                    repeated = true;
+                    next++;
+                } else if (q == '{') {
+                    int close = regex.indexOf('}', next);
+                    optional = regex.charAt(next + 1) == '0' || regex.charAt(next + 1) == ',';
+                    repeated = true;
+                    next = close + 1;
+                }
+                if (next < regex.length() && (optional || repeated) && (regex.charAt(next) == '?' || regex.charAt(next) == '+')) {
+                    next++;
+                }
+            }
+
+            if (literal != null && !optional) {
+                run.append(literal.charValue());
+                if (repeated) {
+                    flush(runs, run);
+                }
+            } else {
+                flush(runs, run);
+                if (groupRequired && !optional) {
+                    runs.addAll(groupRuns);
+                }
+            }
+            i = next;
+        }
+        flush(runs, run);
+        return i;
+    }
+
+    private static void flush(List<String> runs, StringBuilder run) {
+        if (run.length() > 0) {
+            runs.add(run.toString());
+            run.setLength(0);
+        }
+    }
+
+    private static int skipClass(String regex, int i) {
+        i++;
+        if (regex.charAt(i) == '^') {
+            i++;
+        }
+        if (regex.charAt(i) == ']') {
+            i++;
+        }
+        int depth = 1;
+        while (depth > 0) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '[') {
+                depth++;
+            } else if (c == ']') {
+                depth--;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    private static int skipGroup(String regex, int i) {
+        int depth = 0;
+        while (true) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '[') {
+                i = skipClass(regex, i) - 1;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                if (depth == 0) {
+                    return i;
+                }
+                depth--;
+            }
+            i++;
+        }
+    }
+
+    private static final class AlternationException extends RuntimeException {
+
+        AlternationException() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static final class CommentsException extends RuntimeException {
+
+        CommentsException() {
+            super(null, null, false, false);
+        }
+    }
+}
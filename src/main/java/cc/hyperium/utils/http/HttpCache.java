@@ -0,0 +1,158 @@
+/*
+ *     Copyright (C) 2018  Hyperium <https://hyperium.cc/>
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published
+ *     by the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cc.hyperium.utils.http;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Disk cache of GET responses, one file per url holding the validators
+ * (ETag / Last-Modified), the time the response stops being fresh and the body
+ */
+final class HttpCache {
+
+    private static final int MAGIC = 0x48594843; // HYHC
+    private static final int VERSION = 1;
+    private static final long MAX_ENTRY_AGE = TimeUnit.DAYS.toMillis(7);
+
+    private final File directory;
+
+    HttpCache(File directory) {
+        this.directory = directory;
+    }
+
+    Entry read(String url) {
+        File file = getFile(url);
+        if (!file.exists()) {
+            return null;
+        }
+        Entry entry = null;
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file.toPath()))) {
+            if (in.readInt() == MAGIC && in.readInt() == VERSION) {
+                long expires = in.readLong();
+                String etag = emptyToNull(in.readUTF());
+                String lastModified = emptyToNull(in.readUTF());
+                int length = in.readInt();
+                if (length >= 0 && length <= file.length()) {
+                    byte[] body = new byte[length];
+                    in.readFully(body);
+                    entry = new Entry(expires, etag, lastModified, body);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // unreadable, treated the same as a broken entry below
+        }
+        if (entry == null) {
+            // broken entry, drop it so it isn't read again before the next response replaces it
+            file.delete();
+        }
+        return entry;
+    }
+
+    void write(String url, Entry entry) {
+        if (!directory.exists() && !directory.mkdirs()) {
+            return;
+        }
+        File file = getFile(url);
+        File temp = new File(directory, file.getName() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(temp.toPath()))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(entry.expires);
+                out.writeUTF(entry.etag == null ? "" : entry.etag);
+                out.writeUTF(entry.lastModified == null ? "" : entry.lastModified);
+                out.writeInt(entry.body.length);
+                out.write(entry.body);
+            }
+            try {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            temp.delete();
+        }
+    }
+
+    /**
+     * Deletes entries which haven't been written to for a week
+     */
+    void prune() {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        long cutoff = System.currentTimeMillis() - MAX_ENTRY_AGE;
+        for (File file : files) {
+            if (file.lastModified() < cutoff) {
+                file.delete();
+            }
+        }
+    }
+
+    private File getFile(String url) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-1").digest(url.getBytes(StandardCharsets.UTF_8));
+            StringBuilder name = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                name.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return new File(directory, name.toString());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String emptyToNull(String s) {
+        return s.isEmpty() ? null : s;
+    }
+
+    static final class Entry {
+
+        final long expires;
+        final String etag;
+        final String lastModified;
+        final byte[] body;
+
+        Entry(long expires, String etag, String lastModified, byte[] body) {
+            this.expires = expires;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.body = body;
+        }
+
+        boolean isFresh() {
+            return System.currentTimeMillis() < expires;
+        }
+
+        boolean canRevalidate() {
+            return etag != null || lastModified != null;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ *     Copyright (C) 2018  Hyperium <https://hyperium.cc/>
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published
+ *     by the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cc.hyperium.utils.http;
+
+import cc.hyperium.utils.JsonHolder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A fully read response of {@link HyperiumHttpClient}
+ */
+public final class HttpResponse {
+
+    private final int code;
+    private final byte[] body;
+    private final boolean cached;
+
+    HttpResponse(int code, byte[] body, boolean cached) {
+        this.code = code;
+        this.body = body;
+        this.cached = cached;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public boolean isSuccessful() {
+        return code / 100 == 2;
+    }
+
+    /**
+     * @return whether the body came from the disk cache, either fresh or revalidated by the server
+     */
+    public boolean isCached() {
+        return cached;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public InputStream getBodyStream() {
+        return new ByteArrayInputStream(body);
+    }
+
+    public String asString() {
+        return new String(body, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parses the body straight from its bytes, without building a String of it first
+     *
+     * @return the body as json, or an empty holder if it isn't a json object
+     */
+    public JsonHolder asJson() {
+        try {
+            JsonElement element = new JsonParser().parse(new InputStreamReader(getBodyStream(), StandardCharsets.UTF_8));
+            if (element.isJsonObject()) {
+                return new JsonHolder(element.getAsJsonObject());
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        return new JsonHolder();
+    }
+}
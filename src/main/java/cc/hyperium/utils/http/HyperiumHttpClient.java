@@ -0,0 +1,293 @@
+/*
+ *     Copyright (C) 2018  Hyperium <https://hyperium.cc/>
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published
+ *     by the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cc.hyperium.utils.http;
+
+import cc.hyperium.Hyperium;
+import cc.hyperium.mods.sk1ercommon.Multithreading;
+import org.apache.commons.io.IOUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.Proxy;
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The one place Hyperium makes GET requests from.
+ * <ul>
+ * <li>Requests for a url that is already being fetched share the same response instead of hitting the server again</li>
+ * <li>Each host gets at most {@link #MAX_REQUESTS_PER_HOST} requests at a time</li>
+ * <li>Responses are cached on disk and honour <code>Cache-Control: max-age</code>, stale entries
+ * with an ETag or Last-Modified are revalidated with a conditional request</li>
+ * <li>Bodies are always read to the end and the stream closed, so the JDK can keep the connection alive for the next request</li>
+ * </ul>
+ */
+public final class HyperiumHttpClient {
+
+    public static final HyperiumHttpClient INSTANCE = new HyperiumHttpClient(new File(Hyperium.folder, "cache/http"));
+
+    private static final String DEFAULT_USER_AGENT = "Mozilla/4.76 Hyperium ";
+    private static final int MAX_REQUESTS_PER_HOST = 6;
+    private static final int TIMEOUT = 15000;
+    private static final Pattern MAX_AGE = Pattern.compile("max-age=(\\d+)");
+
+    private final HttpCache cache;
+    private final Map<String, Call> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Semaphore> hostLimits = new ConcurrentHashMap<>();
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder revalidated = new LongAdder();
+
+    /**
+     * @param cacheDirectory where responses are cached, everything but tests uses {@link #INSTANCE}
+     */
+    HyperiumHttpClient(File cacheDirectory) {
+        this.cache = new HttpCache(cacheDirectory);
+        Multithreading.runDisk(cache::prune);
+    }
+
+    /**
+     * Fetches the url on the network pool
+     *
+     * @param url the url to fetch
+     * @return the response, completed exceptionally if the server couldn't be reached
+     */
+    public CompletableFuture<HttpResponse> get(String url) {
+        return get(url, DEFAULT_USER_AGENT);
+    }
+
+    public CompletableFuture<HttpResponse> get(String url, String userAgent) {
+        return getCall(url, userAgent, Proxy.NO_PROXY, true).future;
+    }
+
+    /**
+     * Fetches the url on the calling thread, or waits for the same request if another thread is already making it
+     *
+     * @param url the url to fetch
+     * @return the response
+     * @throws IOException if the server couldn't be reached
+     */
+    public HttpResponse execute(String url) throws IOException {
+        return execute(url, DEFAULT_USER_AGENT, Proxy.NO_PROXY);
+    }
+
+    public HttpResponse execute(String url, String userAgent) throws IOException {
+        return execute(url, userAgent, Proxy.NO_PROXY);
+    }
+
+    public HttpResponse execute(String url, String userAgent, Proxy proxy) throws IOException {
+        Call call = getCall(url, userAgent, proxy, false);
+        // if the call is still queued on the pool we run it here rather than blocking a thread on it
+        call.run();
+        try {
+            return call.future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /**
+     * Finds the request already being made for the same url, user agent and proxy, or starts a new one
+     *
+     * @param submit whether a new call is queued on the network pool, only the caller creating it does so
+     */
+    private Call getCall(String url, String userAgent, Proxy proxy, boolean submit) {
+        url = url.replace(" ", "%20");
+        // the response can depend on who asks and which way the request goes, so those are part of the key
+        String key = url + '\n' + userAgent + '\n' + proxy;
+        Call call = inFlight.get(key);
+        if (call != null) {
+            coalesced.increment();
+            return call;
+        }
+        Call created = new Call(key, url, userAgent, proxy);
+        call = inFlight.putIfAbsent(key, created);
+        if (call != null) {
+            coalesced.increment();
+            return call;
+        }
+        if (submit) {
+            try {
+                Multithreading.NETWORK.execute(created);
+            } catch (RejectedExecutionException e) {
+                created.fail(e);
+            }
+        }
+        return created;
+    }
+
+    private HttpResponse fetch(String url, String userAgent, Proxy proxy) throws IOException {
+        HttpCache.Entry entry = cache.read(url);
+        if (entry != null && entry.isFresh()) {
+            cacheHits.increment();
+            return new HttpResponse(200, entry.body, true);
+        }
+
+        URL u = new URL(url);
+        Semaphore limit = hostLimits.computeIfAbsent(u.getHost(), host -> new Semaphore(MAX_REQUESTS_PER_HOST));
+        try {
+            limit.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted waiting for " + u.getHost(), e);
+        }
+
+        try {
+            requests.increment();
+            HttpURLConnection connection = (HttpURLConnection) u.openConnection(proxy);
+            connection.setRequestMethod("GET");
+            connection.setUseCaches(false);
+            connection.addRequestProperty("User-Agent", userAgent);
+            connection.setReadTimeout(TIMEOUT);
+            connection.setConnectTimeout(TIMEOUT);
+            if (entry != null) {
+                if (entry.etag != null) {
+                    connection.addRequestProperty("If-None-Match", entry.etag);
+                }
+                if (entry.lastModified != null) {
+                    connection.addRequestProperty("If-Modified-Since", entry.lastModified);
+                }
+            }
+
+            int code = connection.getResponseCode();
+            if (code == HttpURLConnection.HTTP_NOT_MODIFIED && entry != null) {
+                revalidated.increment();
+                drain(connection.getInputStream());
+                store(url, connection, entry.body);
+                return new HttpResponse(200, entry.body, true);
+            }
+
+            InputStream stream = code >= 400 ? connection.getErrorStream() : connection.getInputStream();
+            byte[] body = drain(stream);
+            if (code == HttpURLConnection.HTTP_OK) {
+                store(url, connection, body);
+            }
+            return new HttpResponse(code, body, false);
+        } finally {
+            limit.release();
+        }
+    }
+
+    private void store(String url, HttpURLConnection connection, byte[] body) {
+        String cacheControl = connection.getHeaderField("Cache-Control");
+        if (cacheControl != null && (cacheControl.contains("no-store") || cacheControl.contains("private"))) {
+            return;
+        }
+
+        long maxAge = 0;
+        if (cacheControl != null && !cacheControl.contains("no-cache")) {
+            Matcher matcher = MAX_AGE.matcher(cacheControl);
+            if (matcher.find()) {
+                maxAge = TimeUnit.SECONDS.toMillis(Long.parseLong(matcher.group(1)));
+            }
+        }
+
+        HttpCache.Entry entry = new HttpCache.Entry(System.currentTimeMillis() + maxAge,
+            connection.getHeaderField("ETag"), connection.getHeaderField("Last-Modified"), body);
+        // without a lifetime or a validator the entry could never be used
+        if (maxAge > 0 || entry.canRevalidate()) {
+            Multithreading.runDisk(() -> cache.write(url, entry));
+        }
+    }
+
+    /**
+     * Reads the stream to the end and closes it, which is what lets the connection be reused
+     */
+    private static byte[] drain(InputStream stream) throws IOException {
+        if (stream == null) {
+            return new byte[0];
+        }
+        try (InputStream in = stream) {
+            return IOUtils.toByteArray(in);
+        }
+    }
+
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    public long getCacheHitCount() {
+        return cacheHits.sum();
+    }
+
+    public long getRevalidatedCount() {
+        return revalidated.sum();
+    }
+
+    /**
+     * A request which may be shared by several callers, run by whichever thread gets to it first
+     */
+    private final class Call implements Runnable {
+
+        private final String key;
+        private final String url;
+        private final String userAgent;
+        private final Proxy proxy;
+        private final AtomicBoolean started = new AtomicBoolean();
+        private final CompletableFuture<HttpResponse> future = new CompletableFuture<>();
+
+        Call(String key, String url, String userAgent, Proxy proxy) {
+            this.key = key;
+            this.url = url;
+            this.userAgent = userAgent;
+            this.proxy = proxy;
+        }
+
+        @Override
+        public void run() {
+            if (!started.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                future.complete(fetch(url, userAgent, proxy));
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            } finally {
+                inFlight.remove(key, this);
+            }
+        }
+
+        void fail(Throwable cause) {
+            if (started.compareAndSet(false, true)) {
+                future.completeExceptionally(cause);
+                inFlight.remove(key, this);
+            }
+        }
+    }
+}
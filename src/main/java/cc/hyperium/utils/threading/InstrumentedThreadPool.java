@@ -0,0 +1,138 @@
+/*
+ *     Copyright (C) 2018  Hyperium <https://hyperium.cc/>
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published
+ *     by the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cc.hyperium.utils.threading;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed size pool with a bounded queue which keeps track of how long tasks
+ * wait before they run and how many tasks it had to reject.
+ * Idle threads time out, so a pool that isn't being used doesn't hold any threads
+ */
+public class InstrumentedThreadPool extends ThreadPoolExecutor {
+
+    private final String name;
+    private final int queueCapacity;
+    private final LatencyHistogram waitTimes = new LatencyHistogram();
+    private final CountingRejectionHandler rejectionHandler;
+
+    /**
+     * @param name          Name of the pool, used for its threads and debug output
+     * @param threads       Maximum amount of threads
+     * @param queueCapacity Maximum amount of tasks waiting for a thread
+     * @param handler       What to do with a task once the queue is full
+     */
+    public InstrumentedThreadPool(String name, int threads, int queueCapacity, RejectedExecutionHandler handler) {
+        this(name, threads, queueCapacity, new CountingRejectionHandler(handler));
+    }
+
+    private InstrumentedThreadPool(String name, int threads, int queueCapacity, CountingRejectionHandler handler) {
+        super(threads, threads, 30L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(queueCapacity), new NamedThreadFactory(name), handler);
+        this.name = name;
+        this.queueCapacity = queueCapacity;
+        this.rejectionHandler = handler;
+        allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        super.execute(new TimedTask(command, System.nanoTime()));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getQueueDepth() {
+        return getQueue().size();
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public long getRejectedCount() {
+        return rejectionHandler.rejected.sum();
+    }
+
+    /**
+     * @return how long tasks waited in the queue before a thread picked them up
+     */
+    public LatencyHistogram getWaitTimes() {
+        return waitTimes;
+    }
+
+    private final class TimedTask implements Runnable {
+
+        private final Runnable task;
+        private final long queuedAt;
+
+        TimedTask(Runnable task, long queuedAt) {
+            this.task = task;
+            this.queuedAt = queuedAt;
+        }
+
+        @Override
+        public void run() {
+            waitTimes.record(System.nanoTime() - queuedAt);
+            task.run();
+        }
+    }
+
+    private static final class CountingRejectionHandler implements RejectedExecutionHandler {
+
+        private final RejectedExecutionHandler handler;
+        private final LongAdder rejected = new LongAdder();
+
+        CountingRejectionHandler(RejectedExecutionHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+            rejected.increment();
+            handler.rejectedExecution(r, executor);
+        }
+    }
+
+    /**
+     * Creates daemon threads named after their pool, e.g. "Hyperium Network #3"
+     */
+    public static final class NamedThreadFactory implements ThreadFactory {
+
+        private final String name;
+        private final AtomicInteger counter = new AtomicInteger();
+
+        public NamedThreadFactory(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "Hyperium " + name + " #" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ *     Copyright (C) 2018  Hyperium <https://hyperium.cc/>
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published
+ *     by the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cc.hyperium.utils.threading;
+
+import cc.hyperium.Hyperium;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntConsumer;
+
+/**
+ * A fixed amount of work items which the calling thread and a pool claim one at a time. The calling thread
+ * works through items as well and only returns once every item is done, so the batch finishes even if the
+ * pool is busy, and waiting is bounded by a single item's work.
+ * <p>
+ * An item which throws doesn't stop the others, the first failure is kept for {@link #rethrow()}.
+ */
+public final class ParallelBatch implements Runnable {
+
+    /**
+     * How long the calling thread waits for items other threads are still on before it's reported as stuck
+     */
+    private static final long JOIN_WARNING_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final String name;
+    private final int items;
+    private final IntConsumer work;
+    private final Thread owner = Thread.currentThread();
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicInteger done = new AtomicInteger();
+    private volatile Throwable failure;
+
+    /**
+     * @param name  what the batch does, for the warning when it's stuck
+     * @param items amount of work items
+     * @param work  runs the item with the given index
+     */
+    public ParallelBatch(String name, int items, IntConsumer work) {
+        this.name = name;
+        this.items = items;
+        this.work = work;
+    }
+
+    /**
+     * Hands the batch to up to {@code helpers} threads of the executor, works on it from the calling thread and
+     * waits for every item. Must be called from the thread which created the batch
+     */
+    public void execute(Executor executor, int helpers) {
+        try {
+            for (int i = Math.min(this.items - 1, helpers); i > 0; i--) {
+                executor.execute(this);
+            }
+        } catch (RejectedExecutionException ignored) {
+            // shutting down or full, the calling thread does the rest
+        }
+        run();
+        join();
+    }
+
+    @Override
+    public void run() {
+        int index;
+        while ((index = this.next.getAndIncrement()) < this.items) {
+            try {
+                this.work.accept(index);
+            } catch (Throwable t) {
+                if (this.failure == null) {
+                    this.failure = t;
+                }
+            } finally {
+                if (this.done.incrementAndGet() == this.items) {
+                    LockSupport.unpark(this.owner);
+                }
+            }
+        }
+    }
+
+    /**
+     * Waits for the items other threads claimed. Only those can be outstanding once the calling thread has run
+     * out of items
+     */
+    private void join() {
+        long start = System.nanoTime();
+        boolean warned = false;
+        while (this.done.get() < this.items) {
+            LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(1));
+            if (!warned && System.nanoTime() - start > JOIN_WARNING_NANOS) {
+                warned = true;
+                Hyperium.LOGGER.warn(this.name + " has been waiting on other threads for over a second");
+            }
+        }
+    }
+
+    /**
+     * Throws the first failure of any item again, on the calling thread
+     */
+    public void rethrow() {
+        Throwable failure = this.failure;
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        } else if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+    }
+}
@@ -0,0 +1,300 @@
+/*
+ *     Copyright (C) 2018  Hyperium <https://hyperium.cc/>
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published
+ *     by the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cc.hyperium.utils.threading;
+
+import cc.hyperium.SplashProgress;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Startup work split into named tasks which declare what they depend on and whether they
+ * need the GL thread. {@link #run()} is called from the GL thread, runs the GL tasks there in
+ * dependency order and runs the rest on a small pool alongside them, then keeps how long each
+ * task took for {@link #getReport()}
+ */
+public class StartupGraph {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final Map<String, Task> tasks = new LinkedHashMap<>();
+    private final List<Task> finished = new ArrayList<>();
+    private long startNanos;
+    private long wallNanos;
+
+    /**
+     * @param name         Name of the task, used by other tasks' dependencies and the report
+     * @param splash       Text shown on the splash screen while the task runs, or null to leave it
+     * @param glThread     Whether the task has to run on the GL thread
+     * @param action       The work itself
+     * @param dependencies Names of tasks which have to finish first
+     */
+    public StartupGraph add(String name, String splash, boolean glThread, Runnable action, String... dependencies) {
+        if (tasks.containsKey(name)) {
+            throw new IllegalArgumentException("Duplicate startup task " + name);
+        }
+        tasks.put(name, new Task(name, splash, glThread, action, dependencies));
+        return this;
+    }
+
+    /**
+     * Runs every task and returns once they have all finished. The first task to throw is
+     * rethrown here, wrapped with its name
+     */
+    public void run() {
+        for (Task task : tasks.values()) {
+            for (String dependency : task.dependencies) {
+                Task parent = tasks.get(dependency);
+                if (parent == null) {
+                    throw new IllegalStateException("Startup task " + task.name + " depends on unknown task " + dependency);
+                }
+                parent.dependents.add(task);
+            }
+            task.remaining = task.dependencies.length;
+        }
+        checkForCycles();
+
+        int threads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+        // a full queue runs the task on the GL thread instead, which is only slower, never wrong
+        InstrumentedThreadPool pool = new InstrumentedThreadPool("Startup", threads, 64, new ThreadPoolExecutor.CallerRunsPolicy());
+        BlockingQueue<Task> completed = new LinkedBlockingQueue<>();
+        Deque<Task> glReady = new ArrayDeque<>();
+        int firstProgress = SplashProgress.PROGRESS;
+
+        startNanos = System.nanoTime();
+        try {
+            for (Task task : tasks.values()) {
+                if (task.remaining == 0) {
+                    dispatch(task, pool, glReady, completed);
+                }
+            }
+
+            while (finished.size() < tasks.size()) {
+                Task task = completed.poll();
+                if (task == null) {
+                    Task gl = glReady.poll();
+                    if (gl != null) {
+                        if (gl.splash != null) {
+                            SplashProgress.setProgress(progress(firstProgress), gl.splash);
+                        }
+                        execute(gl);
+                        task = gl;
+                    } else {
+                        try {
+                            task = completed.take();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            throw new IllegalStateException("Interrupted while waiting for startup tasks", e);
+                        }
+                    }
+                }
+
+                if (task.failure != null) {
+                    throw new RuntimeException("Startup task " + task.name + " failed", task.failure);
+                }
+                finished.add(task);
+                SplashProgress.setProgress(progress(firstProgress), SplashProgress.CURRENT);
+                for (Task dependent : task.dependents) {
+                    if (--dependent.remaining == 0) {
+                        dispatch(dependent, pool, glReady, completed);
+                    }
+                }
+            }
+        } finally {
+            wallNanos = System.nanoTime() - startNanos;
+            pool.shutdown();
+        }
+    }
+
+    private void dispatch(Task task, InstrumentedThreadPool pool, Deque<Task> glReady, BlockingQueue<Task> completed) {
+        if (task.glThread) {
+            glReady.add(task);
+        } else {
+            pool.execute(() -> {
+                execute(task);
+                completed.add(task);
+            });
+        }
+    }
+
+    private void execute(Task task) {
+        task.thread = Thread.currentThread().getName();
+        long cpu = cpuTime();
+        task.startNanos = System.nanoTime() - startNanos;
+        try {
+            task.action.run();
+        } catch (Throwable t) {
+            task.failure = t;
+        }
+        task.wallNanos = System.nanoTime() - startNanos - task.startNanos;
+        task.cpuNanos = cpu < 0 ? -1 : cpuTime() - cpu;
+    }
+
+    private int progress(int firstProgress) {
+        return firstProgress + (SplashProgress.MAX - firstProgress) * finished.size() / tasks.size();
+    }
+
+    private void checkForCycles() {
+        // Kahn's algorithm on a copy of the counts, anything left over is part of a cycle
+        Map<Task, Integer> remaining = new LinkedHashMap<>();
+        Deque<Task> ready = new ArrayDeque<>();
+        for (Task task : tasks.values()) {
+            remaining.put(task, task.remaining);
+            if (task.remaining == 0) {
+                ready.add(task);
+            }
+        }
+        int visited = 0;
+        while (!ready.isEmpty()) {
+            Task task = ready.poll();
+            visited++;
+            for (Task dependent : task.dependents) {
+                if (remaining.merge(dependent, -1, Integer::sum) == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+        if (visited != tasks.size()) {
+            throw new IllegalStateException("Startup tasks have a dependency cycle");
+        }
+    }
+
+    private static long cpuTime() {
+        return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : -1;
+    }
+
+    /**
+     * @return the tasks which have finished so far, in the order they finished
+     */
+    public List<Task> getFinished() {
+        return Collections.unmodifiableList(finished);
+    }
+
+    public long getWallNanos() {
+        return wallNanos;
+    }
+
+    /**
+     * @return one line per task in the order they finished, then the chain of tasks which
+     * decided how long startup took
+     */
+    public List<String> getReport() {
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format("Startup took %.1fms over %d tasks", wallNanos / 1_000_000D, finished.size()));
+        lines.add(String.format("%-16s %-20s %10s %10s %10s  %s", "task", "thread", "start", "wall", "cpu", "depends on"));
+        for (Task task : finished) {
+            lines.add(String.format("%-16s %-20s %8.1fms %8.1fms %10s  %s", task.name, task.thread,
+                task.startNanos / 1_000_000D, task.wallNanos / 1_000_000D,
+                task.cpuNanos < 0 ? "-" : String.format("%.1fms", task.cpuNanos / 1_000_000D),
+                String.join(", ", task.dependencies)));
+        }
+
+        // Walk back from the last task to finish through whichever dependency finished last
+        Deque<String> path = new ArrayDeque<>();
+        Task task = finished.stream().max((a, b) -> Long.compare(a.getEndNanos(), b.getEndNanos())).orElse(null);
+        while (task != null) {
+            path.addFirst(task.name);
+            Task latest = null;
+            for (String dependency : task.dependencies) {
+                Task parent = tasks.get(dependency);
+                if (latest == null || parent.getEndNanos() > latest.getEndNanos()) {
+                    latest = parent;
+                }
+            }
+            task = latest;
+        }
+        lines.add("Critical path: " + String.join(" -> ", path));
+        return lines;
+    }
+
+    /**
+     * Writes {@link #getReport()} to a file named after the current time in the folder
+     */
+    public void writeReport(File folder) throws IOException {
+        folder.mkdirs();
+        File file = new File(folder, "startup-" + new SimpleDateFormat("yyyy-MM-dd-HH-mm-ss").format(new Date()) + ".txt");
+        Files.write(file.toPath(), getReport(), StandardCharsets.UTF_8);
+    }
+
+    public static class Task {
+        private final String name;
+        private final String splash;
+        private final boolean glThread;
+        private final Runnable action;
+        private final String[] dependencies;
+        private final List<Task> dependents = new ArrayList<>();
+        private int remaining;
+        private String thread;
+        private long startNanos;
+        private long wallNanos;
+        private long cpuNanos;
+        private Throwable failure;
+
+        private Task(String name, String splash, boolean glThread, Runnable action, String[] dependencies) {
+            this.name = name;
+            this.splash = splash;
+            this.glThread = glThread;
+            this.action = action;
+            this.dependencies = Arrays.copyOf(dependencies, dependencies.length);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isGlThread() {
+            return glThread;
+        }
+
+        public long getStartNanos() {
+            return startNanos;
+        }
+
+        public long getWallNanos() {
+            return wallNanos;
+        }
+
+        /**
+         * @return CPU time used by the thread running the task, or -1 if the JVM can't measure it
+         */
+        public long getCpuNanos() {
+            return cpuNanos;
+        }
+
+        private long getEndNanos() {
+            return startNanos + wallNanos;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package me.semx11.autotip.event.impl;
 import cc.hyperium.event.ChatEvent;
 import cc.hyperium.event.InvokeEvent;
 import cc.hyperium.event.ServerChatEvent;
+import cc.hyperium.utils.chat.ChatClassification;
 import me.semx11.autotip.Autotip;
 import me.semx11.autotip.chat.MessageOption;
 import me.semx11.autotip.command.impl.CommandLimbo;
@@ -32,7 +33,8 @@ public class EventChatReceived implements Event {
             return;
         }
 
-        String msg = UniversalUtil.getUnformattedText(event);
+        ChatClassification classification = event.getClassification();
+        String msg = classification.getText();
 
         CommandLimbo limboCommand = autotip.getCommand(CommandLimbo.class);
         if (limboCommand.hasExecuted()) {
@@ -52,6 +54,9 @@ public class EventChatReceived implements Event {
         MessageOption option = config.getMessageOption();
 
         for (Message message : settings.getMessages()) {
+            if (!classification.isCandidate(message.getChatPattern())) {
+                continue;
+            }
             MessageMatcher matcher = message.getMatcherFor(msg);
             if (matcher.matches()) {
                 event.setCancelled(message.shouldHide(option));
@@ -61,6 +66,9 @@ public class EventChatReceived implements Event {
 
         String hover = UniversalUtil.getHoverText(event);
         for (StatsMessage message : settings.getStatsMessages()) {
+            if (!classification.isCandidate(message.getChatPattern())) {
+                continue;
+            }
             StatsMessageMatcher matcher = message.getMatcherFor(msg);
             if (!matcher.matches()) {
                 continue;
@@ -1,5 +1,7 @@
 package me.semx11.autotip.message;
 
+import cc.hyperium.utils.chat.ChatClassifier;
+import cc.hyperium.utils.chat.ChatPattern;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
@@ -10,6 +12,8 @@ public class Message {
 
     @Exclude
     private final Map<String, MessageMatcher> messageCache = new ConcurrentHashMap<>();
+    @Exclude
+    private volatile ChatPattern chatPattern;
 
     protected Pattern pattern;
     private MessageOption hideFor;
@@ -31,6 +35,15 @@ public class Message {
         return pattern;
     }
 
+    public ChatPattern getChatPattern() {
+        // The pattern is read from the global settings, so it can only be registered once it's known
+        ChatPattern chatPattern = this.chatPattern;
+        if (chatPattern == null) {
+            this.chatPattern = chatPattern = ChatClassifier.INSTANCE.register(pattern);
+        }
+        return chatPattern;
+    }
+
     public MessageMatcher getMatcherFor(String input) {
         if (messageCache.containsKey(input)) {
             return messageCache.get(input);
@@ -13,6 +13,9 @@ import java.awt.event.KeyEvent;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseWheelEvent;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import net.montoyo.mcef.MCEF;
 import net.montoyo.mcef.api.IBrowser;
 import net.montoyo.mcef.api.IStringVisitor;
@@ -160,17 +163,100 @@ public class CefBrowserOsr extends CefBrowser_N implements CefRenderHandler, IBr
         }
     }
 
-    private static class PaintData {
+    /**
+     * One of three copies of the view. The paint thread fills one, the render thread uploads
+     * another and the third is the latest finished frame. They change hands by swapping indices
+     * in {@link #latestFrame}, so neither thread ever waits for the other
+     */
+    private static class Frame {
 
         private ByteBuffer buffer;
         private int width;
         private int height;
-        private Rectangle[] dirtyRects;
-        private boolean hasFrame;
-        private boolean fullReRender;
+        private Rectangle[] uploadRects;
+        private boolean fullUpload;
     }
 
-    private final PaintData paintData = new PaintData();
+    /**
+     * Rectangles of the view which changed, overlapping ones merged
+     */
+    private static class DirtyRegion {
+
+        private static final int MAX_RECTS = 16;
+
+        private final List<Rectangle> rects = new ArrayList<>();
+        private boolean full;
+
+        private DirtyRegion(boolean full) {
+            this.full = full;
+        }
+
+        private void setFull() {
+            full = true;
+            rects.clear();
+        }
+
+        private void clear() {
+            full = false;
+            rects.clear();
+        }
+
+        private void addAll(Rectangle[] dirtyRects) {
+            if (full) {
+                return;
+            }
+            for (Rectangle rect : dirtyRects) {
+                add(new Rectangle(rect));
+            }
+        }
+
+        private void add(Rectangle rect) {
+            for (int i = 0; i < rects.size(); i++) {
+                if (rects.get(i).intersects(rect)) {
+                    // The union can overlap rectangles already checked, so start over with it
+                    rect = rect.union(rects.remove(i));
+                    i = -1;
+                }
+            }
+            rects.add(rect);
+
+            if (rects.size() > MAX_RECTS) {
+                Rectangle bounds = rects.get(0);
+                for (Rectangle other : rects) {
+                    bounds = bounds.union(other);
+                }
+                rects.clear();
+                rects.add(bounds);
+            }
+        }
+
+        private boolean isFull() {
+            return full;
+        }
+
+        private Rectangle[] toArray() {
+            return rects.toArray(new Rectangle[0]);
+        }
+    }
+
+    private static final int FRESH = 4;
+
+    private final Frame[] frames = {new Frame(), new Frame(), new Frame()};
+
+    /**
+     * Index of the latest finished frame, with {@link #FRESH} set until the render thread takes it
+     */
+    private final AtomicInteger latestFrame = new AtomicInteger(1);
+
+    // Only used by the CEF paint thread
+    private int paintFrame = 0;
+    private int paintWidth;
+    private int paintHeight;
+    private final DirtyRegion[] staleRegions = {new DirtyRegion(true), new DirtyRegion(true), new DirtyRegion(true)};
+    private final DirtyRegion notUploaded = new DirtyRegion(true);
+
+    // Only used by the render thread
+    private int uploadFrame = 2;
 
     @Override
     public void onPaint(CefBrowser browser, boolean popup, Rectangle[] dirtyRects,
@@ -180,45 +266,91 @@ public class CefBrowserOsr extends CefBrowser_N implements CefRenderHandler, IBr
         }
 
         final int size = (width * height) << 2;
+        if (buffer.limit() > size) {
+            Log.warning("Skipping MCEF browser frame, data is too heavy");
+            return;
+        }
 
-        synchronized (paintData) {
-            if (buffer.limit() > size) {
-                Log.warning("Skipping MCEF browser frame, data is too heavy");
-            } else {
-                if (paintData.hasFrame) //The previous frame was not uploaded to GL texture, so we skip it and render this on instead
-                {
-                    paintData.fullReRender = true;
-                }
+        if (width != paintWidth || height != paintHeight) {
+            // Every copy and the texture have to be replaced as a whole
+            paintWidth = width;
+            paintHeight = height;
+            for (DirtyRegion region : staleRegions) {
+                region.setFull();
+            }
+            notUploaded.setFull();
+        }
 
-                if (paintData.buffer == null || size != paintData.buffer
-                    .capacity()) //This only happens when the browser gets resized
-                {
-                    paintData.buffer = BufferUtils.createByteBuffer(size);
-                }
+        Frame frame = frames[paintFrame];
+        if (frame.buffer == null || frame.buffer.capacity() != size) {
+            frame.buffer = BufferUtils.createByteBuffer(size);
+            staleRegions[paintFrame].setFull();
+        }
+        frame.width = width;
+        frame.height = height;
+
+        // The frame is missing this paint's changes and any made while another copy was being painted
+        DirtyRegion stale = staleRegions[paintFrame];
+        stale.addAll(dirtyRects);
+        copyRegion(buffer, frame.buffer, width, height, stale);
+        stale.clear();
+        for (int i = 0; i < staleRegions.length; i++) {
+            if (i != paintFrame) {
+                staleRegions[i].addAll(dirtyRects);
+            }
+        }
 
-                paintData.buffer.position(0);
-                paintData.buffer.limit(buffer.limit());
-                buffer.position(0);
-                paintData.buffer.put(buffer);
-                paintData.buffer.position(0);
+        // Frames the render thread never picked up still have to reach the texture through this one
+        if ((latestFrame.get() & FRESH) == 0) {
+            notUploaded.clear();
+        }
+        notUploaded.addAll(dirtyRects);
+        frame.fullUpload = notUploaded.isFull();
+        frame.uploadRects = notUploaded.toArray();
+
+        paintFrame = latestFrame.getAndSet(paintFrame | FRESH) & ~FRESH;
+    }
+
+    private static void copyRegion(ByteBuffer src, ByteBuffer dst, int width, int height, DirtyRegion region) {
+        final int limit = src.limit();
+        if (region.isFull()) {
+            src.position(0);
+            dst.clear();
+            dst.put(src);
+        } else {
+            for (Rectangle rect : region.toArray()) {
+                Rectangle clipped = rect.intersection(new Rectangle(0, 0, width, height));
+                if (clipped.isEmpty()) {
+                    continue;
+                }
 
-                paintData.width = width;
-                paintData.height = height;
-                paintData.dirtyRects = dirtyRects;
-                paintData.hasFrame = true;
+                final int rowBytes = clipped.width << 2;
+                for (int y = clipped.y; y < clipped.y + clipped.height; y++) {
+                    final int offset = (y * width + clipped.x) << 2;
+                    if (offset + rowBytes > limit) {
+                        break;
+                    }
+                    src.limit(offset + rowBytes);
+                    src.position(offset);
+                    dst.position(offset);
+                    dst.put(src);
+                }
             }
         }
+
+        src.limit(limit);
+        src.position(0);
+        dst.clear();
     }
 
     public void mcefUpdate() {
-        synchronized (paintData) {
-            if (paintData.hasFrame) {
-                renderer_.onPaint(false, paintData.dirtyRects, paintData.buffer, paintData.width,
-                    paintData.height, paintData.fullReRender);
-                paintData.hasFrame = false;
-                paintData.fullReRender = false;
-            }
+        if ((latestFrame.get() & FRESH) == 0) {
+            return;
         }
+
+        uploadFrame = latestFrame.getAndSet(uploadFrame) & ~FRESH;
+        Frame frame = frames[uploadFrame];
+        renderer_.onPaint(false, frame.uploadRects, frame.buffer, frame.width, frame.height, frame.fullUpload);
     }
 
     @Override
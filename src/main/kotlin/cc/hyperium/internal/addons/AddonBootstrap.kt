@@ -2,6 +2,7 @@ package cc.hyperium.internal.addons
 
 import cc.hyperium.Hyperium.LOGGER
 import cc.hyperium.internal.addons.misc.AddonLoadException
+import cc.hyperium.internal.addons.misc.AddonManifestIndex
 import cc.hyperium.internal.addons.misc.AddonManifestParser
 import cc.hyperium.internal.addons.strategy.AddonLoaderStrategy
 import cc.hyperium.internal.addons.strategy.DefaultAddonLoader
@@ -50,10 +51,15 @@ object AddonBootstrap {
      */
     private lateinit var jars: ArrayList<File>
 
+    /**
+     * Manifests of the jars as they were on the last launch
+     */
+    private val index = AddonManifestIndex(File("hyperium", "addon-index.json"))
+
     /**
      * Method of loading all the valid addonManifests to the classloader
      */
-    private val loader = DefaultAddonLoader()
+    private val loader = DefaultAddonLoader(index)
 
     /**
      * Method of loading the addon if inside of the development environment
@@ -162,6 +168,8 @@ object AddonBootstrap {
         }
         val benchmark = Stopwatch.createStarted()
         LOGGER.info("Starting to load external jars...")
+        // Only reads jars which changed, the loop below adds them to the classloader in order
+        index.refresh(jars)
         for (jar in jars) {
             try {
                 val addon = loadAddon(loader, jar) ?: continue
@@ -183,6 +191,7 @@ object AddonBootstrap {
                 e.printStackTrace()
             }
         }
+        index.save()
         LOGGER.debug("Finished loading all jars in {}.", benchmark)
         return addons
     }
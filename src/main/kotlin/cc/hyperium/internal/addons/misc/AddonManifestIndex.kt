@@ -0,0 +1,137 @@
+package cc.hyperium.internal.addons.misc
+
+import cc.hyperium.internal.addons.AddonManifest
+import com.google.gson.Gson
+import com.google.gson.GsonBuilder
+import com.google.gson.JsonObject
+import java.io.File
+import java.io.InputStreamReader
+import java.io.OutputStreamWriter
+import java.nio.charset.StandardCharsets
+import java.nio.file.Files
+import java.nio.file.StandardCopyOption
+import java.util.concurrent.ConcurrentHashMap
+import java.util.jar.JarFile
+
+/**
+ * Remembers the addon.json of every addon jar by the jar's path, size and
+ * modification time, so jars which haven't changed since the last launch
+ * don't have to be opened again
+ *
+ * @param file where the index is kept between launches
+ */
+class AddonManifestIndex(private val file: File) {
+
+    /**
+     * What is known about one jar
+     *
+     * @param resourcePack whether the jar contains a pack.mcmeta
+     * @param json the jar's addon.json
+     */
+    class Entry(val path: String, val size: Long, val lastModified: Long, val resourcePack: Boolean, val json: JsonObject) {
+
+        fun getAddonManifest(): AddonManifest {
+            return gson.fromJson(json, AddonManifest::class.java)
+        }
+    }
+
+    private class Index(val version: Int, val entries: List<Entry>)
+
+    private val entries = ConcurrentHashMap<String, Entry>()
+
+    /**
+     * Whether anything has to be written by {@link #save}
+     */
+    @Volatile
+    private var changed = false
+
+    init {
+        if (file.exists()) {
+            try {
+                val index = InputStreamReader(Files.newInputStream(file.toPath()), StandardCharsets.UTF_8).use {
+                    gson.fromJson(it, Index::class.java)
+                }
+                if (index?.version == VERSION) {
+                    index.entries.forEach { entries[it.path] = it }
+                }
+            } catch (e: Exception) {
+                // Only a cache, the jars get read again instead
+                e.printStackTrace()
+            }
+        }
+    }
+
+    /**
+     * Gets the entry for a jar, reading the jar if it isn't indexed or has
+     * changed since it was
+     *
+     * @param jar addon jar
+     * @throws AddonLoadException when the jar has no valid addon.json
+     */
+    @Throws(Exception::class)
+    fun get(jar: File): Entry {
+        val path = jar.absolutePath
+        val size = jar.length()
+        val lastModified = jar.lastModified()
+        val cached = entries[path]
+        if (cached != null && cached.size == size && cached.lastModified == lastModified) {
+            return cached
+        }
+
+        val jarFile = JarFile(jar)
+        val resourcePack = jarFile.getJarEntry("pack.mcmeta") != null
+        val entry = Entry(path, size, lastModified, resourcePack, AddonManifestParser(jarFile).getJson())
+        entries[path] = entry
+        changed = true
+        return entry
+    }
+
+    /**
+     * Reads every jar which isn't indexed yet in parallel, so a later {@link #get}
+     * finds it. Jars which fail are left for {@link #get} to report
+     *
+     * @param jars addon jars
+     */
+    fun refresh(jars: List<File>) {
+        jars.parallelStream().forEach {
+            try {
+                get(it)
+            } catch (ignored: Exception) {
+            }
+        }
+    }
+
+    /**
+     * Writes the index if it changed, dropping jars which no longer exist
+     */
+    fun save() {
+        if (entries.values.removeIf { !File(it.path).exists() }) {
+            changed = true
+        }
+        if (!changed) {
+            return
+        }
+
+        try {
+            file.absoluteFile.parentFile?.mkdirs()
+            val temp = File(file.path + ".tmp")
+            OutputStreamWriter(Files.newOutputStream(temp.toPath()), StandardCharsets.UTF_8).use {
+                gson.toJson(Index(VERSION, ArrayList(entries.values)), it)
+            }
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING)
+            changed = false
+        } catch (e: Exception) {
+            e.printStackTrace()
+        }
+    }
+
+    companion object {
+
+        /**
+         * Bumped when the stored format changes, older indexes are ignored
+         */
+        private const val VERSION = 1
+
+        private val gson: Gson = GsonBuilder().create()
+    }
+}
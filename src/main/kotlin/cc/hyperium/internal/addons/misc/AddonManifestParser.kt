@@ -2,12 +2,11 @@ package cc.hyperium.internal.addons.misc
 
 import cc.hyperium.internal.addons.AddonManifest
 import cc.hyperium.internal.addons.OverlayChecker
-import com.google.common.io.Files
 import com.google.gson.Gson
 import com.google.gson.JsonObject
 import com.google.gson.JsonParser
-import java.io.*
-import java.nio.charset.Charset
+import java.io.InputStreamReader
+import java.nio.charset.StandardCharsets
 import java.util.jar.JarFile
 
 /**
@@ -35,22 +34,12 @@ class AddonManifestParser {
      * @param jar jarfile which the manifest should be read from
      */
     constructor(jar: JarFile) {
-
-        var jarInputStream: InputStream? = null
         try {
-            val entry = jar.getEntry("addon.json")
-
-            val jsonFile = File.createTempFile("json", "tmp")
-            jsonFile.deleteOnExit()
-
-            jarInputStream = jar.getInputStream(entry)
-            val os = FileOutputStream(jsonFile)
-            copyInputStream(jarInputStream, os)
-
-            val contents = Files.toString(jsonFile, Charset.defaultCharset())
-
-            val parser = JsonParser()
-            val json = parser.parse(contents).asJsonObject
+            // Parsed straight from the entry, nothing is extracted to disk
+            val entry = jar.getEntry("addon.json") ?: throw AddonLoadException("No addon.json in ${jar.name}")
+            val json = InputStreamReader(jar.getInputStream(entry), StandardCharsets.UTF_8).use {
+                JsonParser().parse(it).asJsonObject
+            }
 
             if (!json.has("version") && !json.has("name") && !json.has("mainClass")) {
                 throw AddonLoadException("Invalid addon manifest ( Must include name, verson and mainClass)")
@@ -60,8 +49,6 @@ class AddonManifestParser {
             e.printStackTrace()
             throw AddonLoadException("Exception reading manifest")
         } finally {
-            if (jarInputStream != null)
-                jarInputStream.close()
             jar.close()
         }
     }
@@ -100,21 +87,10 @@ class AddonManifestParser {
         return json!!.toString()
     }
 
-    private fun copyInputStream(input: InputStream, output: OutputStream): Int {
-        val count = copyLarge(input, output, ByteArray(1024 * 4))
-        return if (count > Integer.MAX_VALUE) {
-            -1
-        } else count.toInt()
-    }
-
-    @Throws(IOException::class)
-    private fun copyLarge(input: InputStream, output: OutputStream, buffer: ByteArray): Long {
-        var count: Long = 0
-        var n = 0
-        while ({ n = input.read(buffer); n }() != -1) {
-            output.write(buffer, 0, n)
-            count += n.toLong()
-        }
-        return count
+    /**
+     * The parsed json, as stored by {@link AddonManifestIndex}
+     */
+    fun getJson(): JsonObject {
+        return json!!
     }
 }
@@ -4,19 +4,19 @@ import cc.hyperium.BLACKLISTED
 import cc.hyperium.internal.addons.AddonBootstrap
 import cc.hyperium.internal.addons.AddonManifest
 import cc.hyperium.internal.addons.misc.AddonLoadException
-import cc.hyperium.internal.addons.misc.AddonManifestParser
+import cc.hyperium.internal.addons.misc.AddonManifestIndex
 import net.minecraft.launchwrapper.Launch
 
 import java.io.File
-import java.util.jar.JarFile
 
 /**
  * Used to load by a file into the classloader
  *
+ * @param index where manifests of jars which haven't changed are looked up
  * @since 1.0
  * @author Kevin Brewster
  */
-class DefaultAddonLoader : AddonLoaderStrategy() {
+class DefaultAddonLoader(private val index: AddonManifestIndex) : AddonLoaderStrategy() {
 
     /**
      * Loads the [file] into the classloader
@@ -30,11 +30,11 @@ class DefaultAddonLoader : AddonLoaderStrategy() {
             throw AddonLoadException("Could not load file; parameter issued was null.")
         }
 
-        val jar = JarFile(file)
-        if (jar.getJarEntry("pack.mcmeta") != null) {
+        val entry = index.get(file)
+        if (entry.resourcePack) {
             AddonBootstrap.addonResourcePacks.add(file)
         }
-        val manifest = AddonManifestParser(jar).getAddonManifest()
+        val manifest = entry.getAddonManifest()
         if (BLACKLISTED.contains(manifest.name) || AddonBootstrap.pendingManifests.stream().anyMatch { it.name.equals(manifest.name) }) {
             file.delete()
             return null
@@ -24,7 +24,6 @@ import org.apache.commons.codec.digest.DigestUtils
 import org.reflections.Reflections
 import java.io.File
 import java.io.FileReader
-import kotlin.concurrent.thread
 
 object CTJS {
     lateinit var assetsDir: File
@@ -47,7 +46,7 @@ object CTJS {
         pictures.mkdirs()
         assetsDir = pictures
 
-        Multithreading.runAsync(thread {   loadConfig() })
+        Multithreading.runDisk { loadConfig() }
 
         AnnotationHandler.subscribeAutomatic()
 
@@ -57,14 +56,14 @@ object CTJS {
 
     @InvokeEvent
     fun init(event: InitializationEvent) {
-        Multithreading.runAsync(thread { ModuleManager.load(true) })
+        Multithreading.runAsync { ModuleManager.load(true) }
 
         registerHooks()
 
-        Multithreading.runAsync(thread {
+        Multithreading.runAsync {
             val sha256uuid = DigestUtils.sha256Hex(Player.getUUID())
             FileLib.getUrlContent("https://www.chattriggers.com/tracker/?uuid=$sha256uuid")
-        })
+        }
 
         (Client.getMinecraft().renderManager as IMixinRenderManager).skinMap.values.forEach {
             (it as IMixinRenderLivingEntity<*>).callAddLayer(LayerCape(it))
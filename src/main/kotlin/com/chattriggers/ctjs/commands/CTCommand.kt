@@ -10,6 +10,7 @@ import com.chattriggers.ctjs.minecraft.listeners.ChatListener
 import com.chattriggers.ctjs.minecraft.objects.gui.GuiHandler
 import com.chattriggers.ctjs.minecraft.objects.message.Message
 import com.chattriggers.ctjs.minecraft.objects.message.TextComponent
+import com.chattriggers.ctjs.triggers.ChatTriggerIndex
 import com.chattriggers.ctjs.utils.config.GuiConfig
 import java.awt.Desktop
 import java.awt.Toolkit
@@ -55,6 +56,7 @@ object CTCommand : BaseCommand {
                 ChatLib.simulateChat(Arrays.copyOfRange(args, 1, args.size).joinToString(" "))
             "dump" -> dumpChat(args)
             "copy" -> copyArgsToClipboard(args)
+            "chatstats" -> chatStats(args)
             else -> ChatLib.chat(usage)
         }
     }
@@ -68,6 +70,7 @@ object CTCommand : BaseCommand {
             "&c/ct console &7- &oOpens the ct console.\n" +
             "&c/ct simulate [message]&7- &oSimulates a received chat message.\n" +
             "&c/ct dump &7- &oDumps previous chat messages into chat.\n" +
+            "&c/ct chatstats [reset] &7- &oShows time spent on chat triggers per module.\n" +
             "&c/ct settings &7- &oChange ChatTrigger's settings.\n" +
             "&c/ct &7- &oDisplays this help dialog.\n" +
             "&b&m${ChatLib.getChatBreak()}"
@@ -103,6 +106,27 @@ object CTCommand : BaseCommand {
         this.idFixedOffset = this.idFixed + toDump + 1
     }
 
+    private fun chatStats(args: Array<String>) {
+        if (args.size > 1 && args[1].equals("reset", ignoreCase = true)) {
+            ChatTriggerIndex.stats.clear()
+            ChatTriggerIndex.skipped.reset()
+            ChatLib.chat("&aChat trigger stats reset")
+            return
+        }
+
+        val stats = ChatTriggerIndex.stats.entries.sortedByDescending { it.value.nanos.sum() }
+        if (stats.isEmpty()) {
+            ChatLib.chat("&cNo chat triggers have run yet")
+            return
+        }
+
+        ChatLib.chat("&bChat triggers by module (time / checked / matched):")
+        stats.forEach { (module, stat) ->
+            ChatLib.chat("&f$module &e${"%.2f".format(stat.nanos.sum() / 1_000_000.0)}ms &7/ ${stat.checked.sum()} / ${stat.matched.sum()}")
+        }
+        ChatLib.chat("&7Skipped by leading text: ${ChatTriggerIndex.skipped.sum()}")
+    }
+
     private fun clearOldDump() {
         if (this.idFixedOffset == -1) return
         while (this.idFixedOffset >= this.idFixed)
@@ -19,6 +19,12 @@ interface ILoader {
     fun getLanguageName(): String
     fun trigger(trigger: OnTrigger, method: Any, vararg args: Any?)
     fun removeTrigger(trigger: OnTrigger)
+
+    /**
+     * Called when a registered trigger's priority changes, so loaders which keep their
+     * triggers sorted can place it again
+     */
+    fun updateTrigger(trigger: OnTrigger) {}
     fun getModules(): List<Module>
 
     companion object {
@@ -1,9 +1,12 @@
 package com.chattriggers.ctjs.engine.langs.js
 
+import cc.hyperium.event.ServerChatEvent
 import com.chattriggers.ctjs.engine.ILoader
 import com.chattriggers.ctjs.engine.ILoader.Companion.modulesFolder
 import com.chattriggers.ctjs.engine.ILoader.Companion.saveResource
 import com.chattriggers.ctjs.engine.module.Module
+import com.chattriggers.ctjs.triggers.ChatTriggerIndex
+import com.chattriggers.ctjs.triggers.OnChatTrigger
 import com.chattriggers.ctjs.triggers.OnTrigger
 import com.chattriggers.ctjs.triggers.TriggerType
 import com.chattriggers.ctjs.utils.console.Console
@@ -16,18 +19,36 @@ import net.minecraft.client.Minecraft
 import java.io.File
 import java.net.URL
 import java.net.URLClassLoader
+import java.util.concurrent.ConcurrentHashMap
 import kotlin.reflect.full.memberProperties
 import kotlin.reflect.jvm.isAccessible
 
 @ModuleLoader
 object JSLoader : ILoader {
-    private val triggers = mutableListOf<OnTrigger>()
-    private val toRemove = mutableListOf<OnTrigger>()
+    /**
+     * Triggers of each [TriggerType] by ordinal, highest priority first. The arrays are
+     * replaced rather than changed, so [exec] can walk one while triggers are added or removed
+     */
+    @Volatile
+    private var triggers = Array(TriggerType.values().size) { emptyArray<OnTrigger>() }
     override val console by lazy { Console(this) }
 
     private var global: Global? = null
     private val cachedModules = mutableListOf<Module>()
     private lateinit var scriptEngine: NashornScriptEngine
+    private val codeCacheFolder = File(modulesFolder.parentFile, "chattriggers-code-cache")
+
+    /**
+     * Combined matchers for the chat trigger types, rebuilt when their triggers or criteria change
+     */
+    private val chatIndexes = ConcurrentHashMap<TriggerType, ChatTriggerIndex>()
+    private val onTriggerError: (OnTrigger, Exception) -> Unit = { trigger, e ->
+        console.printStackTrace(e)
+        removeTrigger(trigger)
+    }
+
+    @Volatile
+    private var loadingModule: String? = null
 
     override fun load(modules: List<Module>) {
         cachedModules.clear()
@@ -56,17 +77,8 @@ object JSLoader : ILoader {
             console.printStackTrace(e)
         }
 
-        val combinedScript = modules.map {
-            it.getFilesWithExtension(".js")
-        }.flatten().joinToString(separator = "\n") {
-            it.readText()
-        }
-
-        try {
-            scriptEngine.eval(combinedScript)
-        } catch (e: Exception) {
-            console.printStackTrace(e)
-        }
+        // One module at a time, so triggers know which module registered them
+        modules.forEach(::evalModule)
 
         cachedModules.addAll(modules)
     }
@@ -78,52 +90,81 @@ object JSLoader : ILoader {
 
         cachedModules.add(module)
 
+        evalModule(module)
+    }
+
+    private fun evalModule(module: Module) {
         val script = module.getFilesWithExtension(".js").joinToString(separator = "\n") {
             it.readText()
         }
 
+        loadingModule = module.name
         try {
             scriptEngine.eval(script)
         } catch (e: Exception) {
             console.out.println("Error loading module ${module.name}")
             console.printStackTrace(e)
+        } finally {
+            loadingModule = null
         }
     }
 
     override fun exec(type: TriggerType, vararg args: Any?) {
-        triggers.removeAll(toRemove)
-        toRemove.clear()
+        val typeTriggers = triggers[type.ordinal]
+
+        if (type == TriggerType.CHAT || type == TriggerType.ACTION_BAR) {
+            val message = args.getOrNull(0)
+            val chatEvent = args.getOrNull(1)
+            if (message is String && chatEvent is ServerChatEvent) {
+                getChatIndex(type, typeTriggers).exec(message, chatEvent, onTriggerError)
+                return
+            }
+        }
 
-        try {
-            triggers.filter {
-                it.type == type
-            }.forEach {
-                try {
-                    it.trigger(*args)
-                } catch (e: Exception) {
-                    console.printStackTrace(e)
-                    removeTrigger(it)
-                }
+        for (i in typeTriggers.indices) {
+            val trigger = typeTriggers[i]
+            try {
+                trigger.trigger(*args)
+            } catch (e: Exception) {
+                console.printStackTrace(e)
+                removeTrigger(trigger)
             }
-        } catch (e: Exception) {
-            console.printStackTrace(e)
         }
     }
 
+    private fun getChatIndex(type: TriggerType, typeTriggers: Array<OnTrigger>): ChatTriggerIndex {
+        val version = OnChatTrigger.criteriaVersion.get()
+        val index = chatIndexes[type]
+        if (index != null && index.source === typeTriggers && index.version == version) return index
+
+        return ChatTriggerIndex(typeTriggers, version).also { chatIndexes[type] = it }
+    }
+
     override fun eval(code: String): Any? {
         return scriptEngine.eval(code)
     }
 
+    @Synchronized
     override fun addTrigger(trigger: OnTrigger) {
-        triggers.add(trigger)
+        if (trigger.module == null) trigger.module = loadingModule
 
-        triggers.sortBy {
-            it.priority.ordinal
-        }
+        val typeTriggers = triggers[trigger.type.ordinal]
+        if (typeTriggers.any { it === trigger }) return
+
+        // After every trigger of the same or a higher priority, the same place a stable sort would put it
+        var index = typeTriggers.size
+        while (index > 0 && typeTriggers[index - 1].priority.ordinal > trigger.priority.ordinal) index--
+
+        val updated = arrayOfNulls<OnTrigger>(typeTriggers.size + 1)
+        System.arraycopy(typeTriggers, 0, updated, 0, index)
+        updated[index] = trigger
+        System.arraycopy(typeTriggers, index, updated, index + 1, typeTriggers.size - index)
+        replace(trigger.type, updated.requireNoNulls())
     }
 
+    @Synchronized
     override fun clearTriggers() {
-        triggers.clear()
+        triggers = Array(TriggerType.values().size) { emptyArray<OnTrigger>() }
     }
 
     override fun getLanguageName(): String {
@@ -143,8 +184,29 @@ object JSLoader : ILoader {
         }
     }
 
+    /**
+     * Takes effect from the next [exec], a trigger type already being run still runs this trigger
+     */
+    @Synchronized
     override fun removeTrigger(trigger: OnTrigger) {
-        toRemove.add(trigger)
+        val typeTriggers = triggers[trigger.type.ordinal]
+        if (typeTriggers.none { it === trigger }) return
+
+        replace(trigger.type, typeTriggers.filter { it !== trigger }.toTypedArray())
+    }
+
+    @Synchronized
+    override fun updateTrigger(trigger: OnTrigger) {
+        if (triggers[trigger.type.ordinal].none { it === trigger }) return
+
+        removeTrigger(trigger)
+        addTrigger(trigger)
+    }
+
+    private fun replace(type: TriggerType, typeTriggers: Array<OnTrigger>) {
+        val updated = triggers.copyOf()
+        updated[type.ordinal] = typeTriggers
+        triggers = updated
     }
 
     override fun getModules(): List<Module> {
@@ -179,6 +241,10 @@ object JSLoader : ILoader {
     private fun instanceScriptEngine(files: List<URL>): NashornScriptEngine {
         val ucl = URLClassLoader(files.toTypedArray(), Minecraft::class.java.classLoader)
 
-        return NashornScriptEngineFactory().getScriptEngine(ucl) as NashornScriptEngine
+        // Compiled scripts are kept on disk by content, so unchanged modules skip compilation
+        // on the next launch or /ct load. Not inside the modules folder, every folder there is a module
+        System.setProperty("nashorn.persistent.code.cache", codeCacheFolder.absolutePath)
+
+        return NashornScriptEngineFactory().getScriptEngine(arrayOf("--persistent-code-cache"), ucl) as NashornScriptEngine
     }
 }
\ No newline at end of file
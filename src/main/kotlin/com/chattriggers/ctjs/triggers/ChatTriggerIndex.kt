@@ -0,0 +1,132 @@
+package com.chattriggers.ctjs.triggers
+
+import cc.hyperium.event.ServerChatEvent
+import java.util.*
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.LongAdder
+
+/**
+ * Every chat trigger of one [TriggerType], bucketed by the literal text their criteria
+ * start with. A message is normalised once, then only triggers whose leading text
+ * it contains are run through their regex, in the same priority order as before.
+ *
+ * @param source the loader's triggers of the type, which the index was built from
+ * @param version [OnChatTrigger.criteriaVersion] when the index was built
+ */
+class ChatTriggerIndex(val source: Array<OnTrigger>, val version: Int) {
+    private val triggers = source.filterIsInstance<OnChatTrigger>().toTypedArray()
+    private val plain = Buckets()
+    private val formatted = Buckets()
+
+    init {
+        triggers.forEachIndexed { i, trigger ->
+            (if (trigger.usesFormatting()) formatted else plain).add(i, trigger)
+        }
+    }
+
+    /**
+     * Runs every trigger whose criteria match the message
+     *
+     * @param onError called with a trigger which threw, the rest still run
+     */
+    fun exec(message: String, chatEvent: ServerChatEvent, onError: (OnTrigger, Exception) -> Unit) {
+        val candidates = BitSet(triggers.size)
+        val plainMessage = message.replace("\n", "->newLine<-")
+        plain.collect(plainMessage, candidates)
+
+        var formattedMessage: String? = null
+        if (!formatted.isEmpty()) {
+            formattedMessage = chatEvent.chat.formattedText.replace("\u00a7", "&").replace("\n", "->newLine<-")
+            formatted.collect(formattedMessage, candidates)
+        }
+        skipped.add((triggers.size - candidates.cardinality()).toLong())
+
+        var i = candidates.nextSetBit(0)
+        while (i >= 0) {
+            val trigger = triggers[i]
+            val start = System.nanoTime()
+            var matched = false
+            try {
+                matched = trigger.triggerNormalized(chatEvent, if (trigger.usesFormatting()) formattedMessage!! else plainMessage)
+            } catch (e: Exception) {
+                onError(trigger, e)
+            }
+            stats.computeIfAbsent(trigger.module ?: "unknown") { ModuleStats() }.record(System.nanoTime() - start, matched)
+            i = candidates.nextSetBit(i + 1)
+        }
+    }
+
+    /**
+     * Triggers of one kind of text, either plain or with & colour codes
+     */
+    private class Buckets {
+        /**
+         * Triggers whose match has to start at the beginning of the message, keyed by
+         * the first [KEY_LENGTH] characters of their leading text, or all of it if shorter
+         */
+        private val anchored = HashMap<String, MutableList<Entry>>()
+
+        /**
+         * Triggers which can match anywhere, checked by whether the message contains their leading text
+         */
+        private val unanchored = mutableListOf<Entry>()
+
+        private class Entry(val index: Int, val literal: String)
+
+        fun add(index: Int, trigger: OnChatTrigger) {
+            val literal = trigger.getLeadingLiteral()
+            if (trigger.isAnchored()) {
+                anchored.getOrPut(literal.take(KEY_LENGTH)) { mutableListOf() }.add(Entry(index, literal))
+            } else {
+                unanchored.add(Entry(index, literal))
+            }
+        }
+
+        fun isEmpty() = anchored.isEmpty() && unanchored.isEmpty()
+
+        fun collect(message: String, candidates: BitSet) {
+            if (anchored.isNotEmpty()) {
+                for (length in 0..Math.min(KEY_LENGTH, message.length)) {
+                    val bucket = anchored[message.substring(0, length)] ?: continue
+                    for (entry in bucket) {
+                        if (message.startsWith(entry.literal)) candidates.set(entry.index)
+                    }
+                }
+            }
+            for (entry in unanchored) {
+                if (message.contains(entry.literal)) candidates.set(entry.index)
+            }
+        }
+    }
+
+    /**
+     * Time spent on one module's chat triggers
+     */
+    class ModuleStats {
+        val nanos = LongAdder()
+        val checked = LongAdder()
+        val matched = LongAdder()
+
+        fun record(nanos: Long, matched: Boolean) {
+            this.nanos.add(nanos)
+            this.checked.increment()
+            if (matched) this.matched.increment()
+        }
+    }
+
+    companion object {
+        private const val KEY_LENGTH = 4
+
+        /**
+         * Chat handling cost by module name, kept across rebuilds of the index
+         */
+        @JvmStatic
+        val stats = ConcurrentHashMap<String, ModuleStats>()
+
+        /**
+         * How many trigger checks the leading text ruled out without running a regex
+         */
+        @JvmStatic
+        val skipped = LongAdder()
+    }
+}
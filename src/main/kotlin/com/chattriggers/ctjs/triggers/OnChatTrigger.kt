@@ -3,6 +3,7 @@ package com.chattriggers.ctjs.triggers
 import cc.hyperium.event.ServerChatEvent
 import com.chattriggers.ctjs.engine.ILoader
 import java.util.*
+import java.util.concurrent.atomic.AtomicInteger
 import java.util.regex.Pattern
 
 class OnChatTrigger(method: Any, type: TriggerType, loader: ILoader) : OnTrigger(method, type, loader) {
@@ -35,6 +36,7 @@ class OnChatTrigger(method: Any, type: TriggerType, loader: ILoader) : OnTrigger
             .replace("\\$\\{\\*?}".toRegex(), "\\\\E(?:.+)\\\\Q")
 
         this.criteriaPattern = Pattern.compile(if ("" == chatCriteria) ".+" else replacedCriteria)
+        criteriaChanged()
     }
 
     /**
@@ -52,6 +54,7 @@ class OnChatTrigger(method: Any, type: TriggerType, loader: ILoader) : OnTrigger
      */
     fun setParameter(parameter: String) = apply {
         this.parameters = mutableListOf(Parameter.getParameterByName(parameter))
+        criteriaChanged()
     }
 
     /**
@@ -72,6 +75,7 @@ class OnChatTrigger(method: Any, type: TriggerType, loader: ILoader) : OnTrigger
      */
     fun addParameter(parameter: String) = apply {
         this.parameters.add(Parameter.getParameterByName(parameter))
+        criteriaChanged()
     }
 
     /**
@@ -81,6 +85,7 @@ class OnChatTrigger(method: Any, type: TriggerType, loader: ILoader) : OnTrigger
      */
     fun addParameters(vararg parameters: String) = apply {
         parameters.forEach { this.parameters.add(Parameter.getParameterByName(it)) }
+        criteriaChanged()
     }
 
     /**
@@ -93,26 +98,51 @@ class OnChatTrigger(method: Any, type: TriggerType, loader: ILoader) : OnTrigger
             throw IllegalArgumentException("Argument 1 must be a String, Argument 2 must be a ClientChatReceivedEvent")
 
         val chatEvent = args[1] as ServerChatEvent
+        val chatMessage = getChatMessage(chatEvent, args[0] as String)
 
-        if (!this.triggerIfCanceled && chatEvent.isCancelled) return
+        triggerNormalized(chatEvent, chatMessage.replace("\n", "->newLine<-"))
+    }
 
-        val chatMessage = getChatMessage(chatEvent, args[0] as String)
+    /**
+     * Runs the trigger if it matches a message which already had its new lines replaced,
+     * and its colour codes if [usesFormatting]
+     *
+     * @return whether the trigger matched
+     */
+    internal fun triggerNormalized(chatEvent: ServerChatEvent, chatMessage: String): Boolean {
+        if (!this.triggerIfCanceled && chatEvent.isCancelled) return false
 
-        val variables = getVariables(chatMessage) ?: return
+        val variables = (if ("" != this.chatCriteria) matchesChatCriteria(chatMessage) else ArrayList()) ?: return false
         variables.add(chatEvent)
 
         callMethod(*variables.toTypedArray())
+        return true
     }
 
+    /**
+     * Whether the criteria are matched against the text with & colour codes
+     */
+    internal fun usesFormatting() = this.chatCriteria.contains("&")
+
+    /**
+     * The literal text the criteria start with, which any matching message contains
+     */
+    internal fun getLeadingLiteral() = this.chatCriteria.replace("\n", "->newLine<-").substringBefore("\${")
+
+    /**
+     * Whether a match has to start at the beginning of the message, so it starts with [getLeadingLiteral]
+     */
+    internal fun isAnchored() = this.parameters.all { it == null || it == Parameter.START }
+
     // helper method to get the proper chat message based on the presence of color codes
     private fun getChatMessage(chatEvent: ServerChatEvent, chatMessage: String) =
-            if (this.chatCriteria.contains("&"))
+            if (usesFormatting())
                 chatEvent.chat.formattedText.replace("\u00a7", "&")
             else chatMessage
 
-    // helper method to get the variables to pass through
-    private fun getVariables(chatMessage: String) =
-        if ("" != this.chatCriteria) matchesChatCriteria(chatMessage.replace("\n", "->newLine<-")) else ArrayList()
+    private fun criteriaChanged() {
+        criteriaVersion.incrementAndGet()
+    }
 
     /**
      * A method to check whether or not a received chat message
@@ -151,6 +181,15 @@ class OnChatTrigger(method: Any, type: TriggerType, loader: ILoader) : OnTrigger
         return variables
     }
 
+    companion object {
+        /**
+         * Changes whenever any chat trigger's criteria or parameters change, so a
+         * [ChatTriggerIndex] built before then is rebuilt
+         */
+        @JvmStatic
+        val criteriaVersion = AtomicInteger()
+    }
+
     /**
      * The parameter to match chat criteria to.<br></br>
      * Location parameters<br></br>
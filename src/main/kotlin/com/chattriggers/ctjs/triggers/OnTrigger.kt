@@ -10,6 +10,11 @@ abstract class OnTrigger protected constructor(var method: Any, var type: Trigge
         private set
     private var global: Global?
 
+    /**
+     * Name of the module which registered the trigger while it was being loaded, for reporting
+     */
+    internal var module: String? = null
+
     init {
         priority = Priority.NORMAL
         global = null
@@ -24,7 +29,10 @@ abstract class OnTrigger protected constructor(var method: Any, var type: Trigge
      * @return the trigger for method chaining
      */
     fun setPriority(priority: Priority): OnTrigger {
+        if (this.priority == priority) return this
+
         this.priority = priority
+        this.loader.updateTrigger(this)
         return this
     }
 
@@ -0,0 +1,90 @@
+/*
+ *     Copyright (C) 2018  Hyperium <https://hyperium.cc/>
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published
+ *     by the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cc.hyperium.utils.chat;
+
+import org.junit.Test;
+
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * The literal {@link ChatPattern} picks has to be in every message the regex matches,
+ * otherwise the classifier would skip chat the pattern should have seen
+ */
+public class ChatPatternTest {
+
+    @Test
+    public void escapedCharactersAreLiteral() {
+        assertEquals("[shout] ", literal("\\[SHOUT] (?<rank>\\[.+] )?(?<player>\\S{1,16}): (?<message>.*)"));
+        assertEquals("left.", literal("(?<player>\\S{1,16})(\\s+)(left\\.)"));
+        assertEquals("a\tb", literal("a\\tb"));
+    }
+
+    @Test
+    public void characterClassesEndARun() {
+        assertEquals("guild > ", literal("Guild > [A-Za-z]+: hello"));
+        // neither the escaped bracket nor the | inside the class end it early
+        assertEquals("winner", literal("[(\\]|]+Winner"));
+    }
+
+    @Test
+    public void alternationIsNeverRequired() {
+        assertNull(literal("Party > hi|P > hi"));
+        assertEquals(" joined", literal("(?:Party|Guild) > (?<player>\\w+) joined"));
+    }
+
+    @Test
+    public void optionalAtomsAreNeverRequired() {
+        assertEquals("hello there", literal("(Guild > )?hello there"));
+        assertEquals("xyz", literal("(abcdef)*xyz"));
+        assertEquals("abc", literal("abcd?e"));
+        assertEquals("found", literal("(found ){0,2}found"));
+    }
+
+    @Test
+    public void inlineFlags() {
+        assertEquals("mystery box", literal("(?i)Mystery Box"));
+        assertEquals("def", literal("(?i:ab)def"));
+        assertEquals("hello world", literal("(?-x)hello world"));
+    }
+
+    @Test
+    public void commentsModeHasNoLiteral() {
+        assertNull(literal("(?x)Mystery Box"));
+        assertNull(literal("(?ix)Mystery Box"));
+        assertNull(literal("abc(?sx: d e f)"));
+        assertNull(literal("(?i-s:x)(?ix)Mystery#Box"));
+        assertNull(literalOf(Pattern.compile("Mystery Box", Pattern.COMMENTS)));
+    }
+
+    @Test
+    public void quotedAndLiteralPatterns() {
+        assertNull(literal("\\Qa.b\\E"));
+        assertEquals("a.b[c", literalOf(Pattern.compile("a.B[c", Pattern.LITERAL)));
+    }
+
+    private static String literal(String regex) {
+        return literalOf(Pattern.compile(regex));
+    }
+
+    private static String literalOf(Pattern pattern) {
+        return new ChatPattern(0, pattern).getLiteral();
+    }
+}
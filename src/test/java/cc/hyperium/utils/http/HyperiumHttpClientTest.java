@@ -0,0 +1,246 @@
+/*
+ *     Copyright (C) 2018  Hyperium <https://hyperium.cc/>
+ *
+ *     This program is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU Lesser General Public License as published
+ *     by the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     This program is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU Lesser General Public License for more details.
+ *
+ *     You should have received a copy of the GNU Lesser General Public License
+ *     along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package cc.hyperium.utils.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs {@link HyperiumHttpClient} against a stub server on localhost
+ */
+public class HyperiumHttpClientTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private final AtomicInteger hits = new AtomicInteger();
+    private HttpServer server;
+    private ExecutorService serverThreads;
+    private File cacheDirectory;
+    private HyperiumHttpClient client;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        serverThreads = Executors.newCachedThreadPool();
+        server.setExecutor(serverThreads);
+        server.start();
+
+        cacheDirectory = folder.newFolder("cache");
+        client = new HyperiumHttpClient(cacheDirectory);
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    @Test
+    public void concurrentRequestsForOneUrlShareOneResponse() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch arrived = new CountDownLatch(1);
+        server.createContext("/slow", exchange -> {
+            hits.incrementAndGet();
+            arrived.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 200, "slow", null, null);
+        });
+
+        String url = url("/slow");
+        List<CompletableFuture<HttpResponse>> responses = new ArrayList<>();
+        responses.add(client.get(url));
+        assertTrue("the first request never reached the server", arrived.await(10, TimeUnit.SECONDS));
+        for (int i = 0; i < 9; i++) {
+            responses.add(client.get(url));
+        }
+        release.countDown();
+
+        for (CompletableFuture<HttpResponse> response : responses) {
+            assertEquals("slow", response.get(10, TimeUnit.SECONDS).asString());
+        }
+        assertEquals(1, hits.get());
+        assertEquals(9, client.getCoalescedCount());
+    }
+
+    @Test
+    public void staleResponseWithEtagIsRevalidated() throws Exception {
+        AtomicReference<String> ifNoneMatch = new AtomicReference<>();
+        server.createContext("/etag", exchange -> {
+            hits.incrementAndGet();
+            String etag = exchange.getRequestHeaders().getFirst("If-None-Match");
+            ifNoneMatch.set(etag);
+            if ("\"v1\"".equals(etag)) {
+                respond(exchange, 304, null, "\"v1\"", null);
+            } else {
+                respond(exchange, 200, "tagged", "\"v1\"", "no-cache");
+            }
+        });
+
+        String url = url("/etag");
+        HttpResponse first = client.execute(url);
+        assertEquals("tagged", first.asString());
+        assertFalse(first.isCached());
+        awaitCached(url);
+
+        HttpResponse second = client.execute(url);
+        assertEquals("\"v1\"", ifNoneMatch.get());
+        assertEquals(200, second.getCode());
+        assertEquals("tagged", second.asString());
+        assertTrue(second.isCached());
+        assertEquals(2, hits.get());
+        assertEquals(1, client.getRevalidatedCount());
+    }
+
+    @Test
+    public void freshResponseIsServedFromCacheUntilMaxAge() throws Exception {
+        server.createContext("/fresh", exchange -> {
+            hits.incrementAndGet();
+            respond(exchange, 200, "fresh", null, "max-age=1");
+        });
+
+        String url = url("/fresh");
+        assertFalse(client.execute(url).isCached());
+        awaitCached(url);
+
+        HttpResponse cached = client.execute(url);
+        assertTrue(cached.isCached());
+        assertEquals("fresh", cached.asString());
+        assertEquals(1, hits.get());
+        assertEquals(1, client.getCacheHitCount());
+
+        Thread.sleep(1100);
+        HttpResponse expired = client.execute(url);
+        assertFalse(expired.isCached());
+        assertEquals("fresh", expired.asString());
+        assertEquals(2, hits.get());
+    }
+
+    @Test
+    public void requestsWithDifferentUserAgentsAreNotShared() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch arrived = new CountDownLatch(2);
+        server.createContext("/agent", exchange -> {
+            hits.incrementAndGet();
+            arrived.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 200, exchange.getRequestHeaders().getFirst("User-Agent"), null, null);
+        });
+
+        String url = url("/agent");
+        CompletableFuture<HttpResponse> first = client.get(url, "first");
+        CompletableFuture<HttpResponse> second = client.get(url, "second");
+        assertTrue("both requests should reach the server", arrived.await(10, TimeUnit.SECONDS));
+        release.countDown();
+
+        assertEquals("first", first.get(10, TimeUnit.SECONDS).asString());
+        assertEquals("second", second.get(10, TimeUnit.SECONDS).asString());
+        assertEquals(2, hits.get());
+        assertEquals(0, client.getCoalescedCount());
+    }
+
+    @Test
+    public void corruptEntryIsAMissAndDeleted() throws Exception {
+        HttpCache cache = new HttpCache(cacheDirectory);
+        String url = url("/corrupt");
+        cache.write(url, new HttpCache.Entry(Long.MAX_VALUE, null, null, new byte[16]));
+        File[] files = cacheDirectory.listFiles();
+        assertNotNull(files);
+        assertEquals(1, files.length);
+
+        // a valid header followed by a body length the file can't hold
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(files[0]))) {
+            out.writeInt(0x48594843);
+            out.writeInt(1);
+            out.writeLong(Long.MAX_VALUE);
+            out.writeUTF("");
+            out.writeUTF("");
+            out.writeInt(Integer.MAX_VALUE);
+        }
+
+        assertNull(cache.read(url));
+        assertFalse(files[0].exists());
+    }
+
+    private String url(String path) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+
+    /**
+     * Responses are written to the cache on the disk pool, so wait until the entry is there
+     */
+    private void awaitCached(String url) throws InterruptedException {
+        HttpCache cache = new HttpCache(cacheDirectory);
+        long deadline = System.currentTimeMillis() + 10000;
+        while (cache.read(url) == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertNotNull("response was never cached", cache.read(url));
+    }
+
+    private static void respond(HttpExchange exchange, int code, String body, String etag, String cacheControl) throws IOException {
+        if (etag != null) {
+            exchange.getResponseHeaders().set("ETag", etag);
+        }
+        if (cacheControl != null) {
+            exchange.getResponseHeaders().set("Cache-Control", cacheControl);
+        }
+        byte[] bytes = body == null ? new byte[0] : body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(code, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+        exchange.close();
+    }
+}